@@ -0,0 +1,324 @@
+package com.example.codereview.cli;
+
+import com.example.codereview.dto.AnalyzeResponse;
+import com.example.codereview.dto.IssueDto;
+import com.example.codereview.model.CodeReview;
+import com.example.codereview.model.IssueCategory;
+import com.example.codereview.model.Severity;
+import com.example.codereview.service.CodeAnalysisService;
+import com.example.codereview.service.compiler.CompileDiagnostic;
+import com.example.codereview.service.compiler.CompilerTier;
+import com.example.codereview.service.compiler.InMemoryJavaSource;
+import com.example.codereview.service.compiler.JavaCompilerDiagnostics;
+import com.example.codereview.service.rules.AnalysisContext;
+import com.example.codereview.service.rules.AnalysisRule;
+import com.example.codereview.service.rules.IssueSink;
+import com.example.codereview.service.rules.RuleRegistry;
+import com.example.codereview.service.rules.RuleResultCache;
+import com.example.codereview.service.source.SourceText;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Command-line batch analyzer for CI. It runs the same rules and javac diagnostics as the server,
+ * without Spring, JPA or a database, so it starts in a fraction of a second.
+ *
+ * <pre>
+ * java -cp code-review-backend.jar -Dloader.main=com.example.codereview.cli.BatchAnalyzer \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher [options] &lt;dir-or-file&gt;...
+ *
+ *   --format=sarif|json     report format (default sarif)
+ *   --output=FILE           write the report to FILE instead of stdout
+ *   --compiler=none|syntax|full|project
+ *                           javac diagnostics: none, per-file parse only (default), per-file
+ *                           attribution, or one shared compilation of all files
+ *   --classpath=PATH        classpath for --compiler=project
+ *   --threads=N             worker threads (default: one per CPU)
+ *   --fail-on=high|medium|low
+ *                           exit with status 1 if an issue of at least this severity is found
+ * </pre>
+ *
+ * Exit status 2 means the run itself failed (bad options, unreadable input, a rule error), so
+ * CI can tell it apart from status 1.
+ *
+ * Directories are walked in parallel on a fork-join pool, and each file is analyzed on the
+ * worker that found it. Symbolic links to directories are not followed, so a link cycle cannot
+ * recurse forever. Bytes that are not valid UTF-8 are decoded as U+FFFD rather than failing.
+ */
+public final class BatchAnalyzer {
+
+    private final RuleRegistry rules = new RuleRegistry();
+    private final RuleResultCache ruleResultCache = new RuleResultCache(50_000);
+    private final JavaCompilerDiagnostics compiler = new JavaCompilerDiagnostics();
+    private final CompilerTier perFileTier;
+    private final Queue<FileResult> results = new ConcurrentLinkedQueue<>();
+
+    static final class FileResult {
+        final Path file;
+        final String path;
+        final IssueSink issues;
+
+        FileResult(Path file, String path, IssueSink issues) {
+            this.file = file;
+            this.path = path;
+            this.issues = issues;
+        }
+    }
+
+    BatchAnalyzer(CompilerTier perFileTier) {
+        this.perFileTier = perFileTier;
+    }
+
+    public static void main(String[] args) {
+        System.exit(execute(args, System.out, System.err));
+    }
+
+    /** Runs the analyzer and returns the exit status instead of exiting. */
+    static int execute(String[] args, PrintStream out, PrintStream err) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println("error: " + e.getMessage());
+            err.println("usage: BatchAnalyzer [--format=sarif|json] [--output=FILE] "
+                    + "[--compiler=none|syntax|full|project] [--classpath=PATH] [--threads=N] "
+                    + "[--fail-on=high|medium|low] <dir-or-file>...");
+            return 2;
+        }
+        try {
+            List<FileResult> results = run(options);
+            writeReport(options, results, out);
+            return options.failOn != null && hasIssueAtLeast(results, options.failOn) ? 1 : 0;
+        } catch (IOException | UncheckedIOException e) {
+            err.println("error: " + e.getMessage());
+            return 2;
+        } catch (RuntimeException e) {
+            // A failing rule must not look like exit status 1, which means "issues found"
+            err.println("error: analysis failed: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    static List<FileResult> run(Options options) throws IOException {
+        boolean project = "project".equals(options.compiler);
+        BatchAnalyzer analyzer = new BatchAnalyzer(project ? CompilerTier.NONE : CompilerTier.fromRequest(options.compiler));
+        ForkJoinPool pool = new ForkJoinPool(options.threads);
+        try {
+            for (Path root : options.roots) {
+                if (!Files.exists(root)) throw new IOException("No such file or directory: " + root);
+                Path absolute = root.toAbsolutePath().normalize();
+                boolean directory = Files.isDirectory(absolute);
+                Path base = directory ? absolute : absolute.getParent();
+                pool.invoke(analyzer.new WalkTask(base, absolute, directory));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        List<FileResult> sorted = new ArrayList<>(analyzer.results);
+        sorted.sort(Comparator.comparing(r -> r.path));
+        if (project) {
+            analyzer.compileTogether(sorted, options.classpath);
+        }
+        return sorted;
+    }
+
+    /** Visits one directory: subdirectories are forked, .java files analyzed in place. */
+    private final class WalkTask extends RecursiveAction {
+        private final Path base;
+        private final Path path;
+        private final boolean directory;
+
+        WalkTask(Path base, Path path, boolean directory) {
+            this.base = base;
+            this.path = path;
+            this.directory = directory;
+        }
+
+        @Override
+        protected void compute() {
+            if (!directory) {
+                analyzeFile(base, path);
+                return;
+            }
+            List<WalkTask> children = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(path)) {
+                for (Path entry : entries) {
+                    if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                        children.add(new WalkTask(base, entry, true));
+                    } else if (entry.getFileName().toString().endsWith(".java")
+                            && Files.isRegularFile(entry)) {
+                        children.add(new WalkTask(base, entry, false));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            invokeAll(children);
+        }
+    }
+
+    private void analyzeFile(Path base, Path file) {
+        String relative = base.relativize(file).toString().replace('\\', '/');
+        String code;
+        try {
+            code = readSource(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        SourceText source = SourceText.of(code);
+        IssueSink sink = new IssueSink();
+        AnalysisContext context = new AnalysisContext(new CodeReview(), source);
+        try {
+            for (AnalysisRule rule : rules.getApplicableRules(source.content(), new ArrayList<>())) {
+                sink.beginRule(rule.name());
+                ruleResultCache.apply(rule, context, sink);
+            }
+            if (perFileTier != CompilerTier.NONE) {
+                CodeAnalysisService.addCompileErrors(sink,
+                        compiler.compile(file.getFileName().toString(), source, perFileTier));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalStateException(relative + ": " + e, e);
+        }
+        results.add(new FileResult(file, relative, sink));
+    }
+
+    // new String(bytes, UTF_8) replaces malformed input, where Files.readString would throw
+    private static String readSource(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    private void compileTogether(List<FileResult> files, List<Path> classpath) throws IOException {
+        List<InMemoryJavaSource> sources = new ArrayList<>(files.size());
+        for (FileResult r : files) {
+            sources.add(new InMemoryJavaSource(r.path, readSource(r.file)));
+        }
+        Map<String, List<CompileDiagnostic>> diagnostics = compiler.compileProject(sources, classpath);
+        for (FileResult r : files) {
+            CodeAnalysisService.addCompileErrors(r.issues, diagnostics.getOrDefault(r.path, List.of()));
+        }
+    }
+
+    private static boolean hasIssueAtLeast(List<FileResult> results, Severity threshold) {
+        for (FileResult r : results) {
+            for (int i = 0; i < r.issues.size(); i++) {
+                if (r.issues.severity(i).ordinal() <= threshold.ordinal()) return true;
+            }
+        }
+        return false;
+    }
+
+    private static void writeReport(Options options, List<FileResult> results, PrintStream stdout) throws IOException {
+        Object report = "json".equals(options.format) ? toResponses(results) : SarifReport.build(results);
+        ObjectMapper mapper = new ObjectMapper();
+        if (options.output == null) {
+            mapper.writerWithDefaultPrettyPrinter().writeValue((OutputStream) stdout, report);
+            stdout.println();
+        } else {
+            try (OutputStream out = Files.newOutputStream(options.output)) {
+                mapper.writerWithDefaultPrettyPrinter().writeValue(out, report);
+            }
+        }
+    }
+
+    /** The JSON format is the same shape the HTTP API returns, one entry per file. */
+    private static List<AnalyzeResponse> toResponses(List<FileResult> results) {
+        List<AnalyzeResponse> out = new ArrayList<>(results.size());
+        for (FileResult r : results) {
+            AnalyzeResponse response = new AnalyzeResponse();
+            response.setFilename(r.path);
+            response.setErrorCount(r.issues.count(IssueCategory.ERROR));
+            response.setWarningCount(r.issues.count(IssueCategory.WARNING));
+            response.setOptimizationCount(r.issues.count(IssueCategory.OPTIMIZATION));
+            response.setSecurityCount(r.issues.count(IssueCategory.SECURITY));
+            List<IssueDto> issues = new ArrayList<>(r.issues.size());
+            for (int i = 0; i < r.issues.size(); i++) {
+                IssueDto dto = new IssueDto();
+                dto.setLineNumber(r.issues.line(i));
+                dto.setTitle(r.issues.template(i).getTitle());
+                dto.setDescription(r.issues.template(i).getDescription());
+                dto.setSuggestion(r.issues.template(i).getSuggestion());
+                dto.setCategory(r.issues.category(i));
+                dto.setSeverity(r.issues.severity(i));
+                issues.add(dto);
+            }
+            response.setIssues(issues);
+            out.add(response);
+        }
+        return out;
+    }
+
+    static final class Options {
+        String format = "sarif";
+        Path output;
+        String compiler = "syntax";
+        List<Path> classpath = new ArrayList<>();
+        int threads = Runtime.getRuntime().availableProcessors();
+        Severity failOn;
+        List<Path> roots = new ArrayList<>();
+
+        static Options parse(String[] args) {
+            Options o = new Options();
+            for (String arg : args) {
+                if (!arg.startsWith("--")) {
+                    o.roots.add(Path.of(arg));
+                    continue;
+                }
+                int eq = arg.indexOf('=');
+                String name = eq < 0 ? arg.substring(2) : arg.substring(2, eq);
+                String value = eq < 0 ? "" : arg.substring(eq + 1);
+                switch (name) {
+                    case "format":
+                        if (!value.equals("sarif") && !value.equals("json")) {
+                            throw new IllegalArgumentException("unknown format " + value);
+                        }
+                        o.format = value;
+                        break;
+                    case "output":
+                        o.output = Path.of(value);
+                        break;
+                    case "compiler":
+                        if (!List.of("none", "syntax", "full", "project").contains(value)) {
+                            throw new IllegalArgumentException("unknown compiler mode " + value);
+                        }
+                        o.compiler = value;
+                        break;
+                    case "classpath":
+                        for (String entry : value.split(java.io.File.pathSeparator)) {
+                            if (!entry.isEmpty()) o.classpath.add(Path.of(entry));
+                        }
+                        break;
+                    case "threads":
+                        o.threads = Math.max(1, Integer.parseInt(value));
+                        break;
+                    case "fail-on":
+                        o.failOn = Severity.valueOf(value.toUpperCase(java.util.Locale.ROOT));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown option --" + name);
+                }
+            }
+            if (o.roots.isEmpty()) {
+                throw new IllegalArgumentException("no input directories or files");
+            }
+            return o;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.codereview.cli;
+
+import com.example.codereview.model.Severity;
+import com.example.codereview.service.rules.IssueSink;
+import com.example.codereview.service.rules.IssueTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Builds a SARIF 2.1.0 log for {@link BatchAnalyzer} results as plain maps and lists. */
+final class SarifReport {
+
+    private SarifReport() {
+    }
+
+    static Map<String, Object> build(List<BatchAnalyzer.FileResult> files) {
+        Map<String, Map<String, Object>> rules = new LinkedHashMap<>();
+        List<Object> results = new ArrayList<>();
+        for (BatchAnalyzer.FileResult file : files) {
+            IssueSink issues = file.issues;
+            for (int i = 0; i < issues.size(); i++) {
+                IssueTemplate t = issues.template(i);
+                String ruleId = issues.ruleName(i) != null ? issues.ruleName(i) : t.getTitle();
+                rules.computeIfAbsent(ruleId, id -> rule(id, t));
+
+                Map<String, Object> region = new LinkedHashMap<>();
+                // SARIF lines are 1-based; whole-file findings use line 0 here
+                region.put("startLine", Math.max(1, issues.line(i)));
+                Map<String, Object> physical = new LinkedHashMap<>();
+                physical.put("artifactLocation", Map.of("uri", file.path));
+                physical.put("region", region);
+
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("ruleId", ruleId);
+                result.put("level", level(issues.severity(i)));
+                result.put("message", Map.of("text", t.getTitle() + ": " + t.getDescription()));
+                result.put("locations", List.of(Map.of("physicalLocation", physical)));
+                result.put("properties", Map.of("category", issues.category(i).name(), "suggestion", t.getSuggestion()));
+                results.add(result);
+            }
+        }
+
+        Map<String, Object> driver = new LinkedHashMap<>();
+        driver.put("name", "code-review-backend");
+        driver.put("rules", new ArrayList<>(rules.values()));
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("tool", Map.of("driver", driver));
+        run.put("results", results);
+
+        Map<String, Object> log = new LinkedHashMap<>();
+        log.put("$schema", "https://json.schemastore.org/sarif-2.1.0.json");
+        log.put("version", "2.1.0");
+        log.put("runs", List.of(run));
+        return log;
+    }
+
+    private static Map<String, Object> rule(String id, IssueTemplate t) {
+        Map<String, Object> rule = new LinkedHashMap<>();
+        rule.put("id", id);
+        rule.put("shortDescription", Map.of("text", t.getTitle()));
+        rule.put("help", Map.of("text", t.getSuggestion()));
+        return rule;
+    }
+
+    private static String level(Severity severity) {
+        switch (severity) {
+            case HIGH: return "error";
+            case MEDIUM: return "warning";
+            default: return "note";
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.codereview.controller;
+
+import com.example.codereview.dto.AnalyzeRequest;
+import com.example.codereview.dto.JobStatusResponse;
+import com.example.codereview.service.admission.AdmissionControl;
+import com.example.codereview.service.admission.AdmissionLane;
+import com.example.codereview.service.jobs.AnalysisJob;
+import com.example.codereview.service.jobs.AnalysisJobService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api")
+public class AnalysisJobController {
+
+    // Priorities a caller may ask for, per lane; batch work always queues behind interactive work
+    static final int BATCH_MIN_PRIORITY = 0;
+    static final int BATCH_MAX_PRIORITY = 4;
+    static final int INTERACTIVE_MIN_PRIORITY = 5;
+    static final int INTERACTIVE_MAX_PRIORITY = 10;
+
+    private final AnalysisJobService jobService;
+    private final AdmissionControl admissionControl;
+
+    public AnalysisJobController(AnalysisJobService jobService, AdmissionControl admissionControl) {
+        this.jobService = jobService;
+        this.admissionControl = admissionControl;
+    }
+
+    // Queue an analysis and return immediately; batch callers default to a lower priority
+    @PostMapping("/analyze/jobs")
+    public ResponseEntity<JobStatusResponse> submit(@RequestBody AnalyzeRequest request,
+                                                    @RequestParam(required = false) Integer priority,
+                                                    @RequestHeader(value = "X-Client-Class", required = false) String clientClass) {
+        admissionControl.checkSize(request.getCode());
+        AdmissionLane lane = AdmissionLane.fromHeader(clientClass);
+        AnalysisJob job = jobService.submit(request, effectivePriority(lane, priority));
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/jobs/" + job.getId()))
+                .body(toResponse(job));
+    }
+
+    @GetMapping("/jobs/{id}")
+    public JobStatusResponse status(@PathVariable String id) {
+        return toResponse(jobService.find(id).orElseThrow(() -> notFound(id)));
+    }
+
+    @DeleteMapping("/jobs/{id}")
+    public JobStatusResponse cancel(@PathVariable String id) {
+        return toResponse(jobService.cancel(id).orElseThrow(() -> notFound(id)));
+    }
+
+    // Missing means the lane's default; anything else is clamped into the lane's range
+    static int effectivePriority(AdmissionLane lane, Integer requested) {
+        int min = lane == AdmissionLane.BATCH ? BATCH_MIN_PRIORITY : INTERACTIVE_MIN_PRIORITY;
+        int max = lane == AdmissionLane.BATCH ? BATCH_MAX_PRIORITY : INTERACTIVE_MAX_PRIORITY;
+        if (requested == null) {
+            return lane == AdmissionLane.BATCH ? min : max;
+        }
+        return Math.max(min, Math.min(max, requested));
+    }
+
+    private static ResponseStatusException notFound(String id) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "No analysis job " + id);
+    }
+
+    private JobStatusResponse toResponse(AnalysisJob job) {
+        JobStatusResponse dto = new JobStatusResponse();
+        dto.setJobId(job.getId());
+        dto.setStatus(job.getStatus().name());
+        dto.setPhase(job.getPhase() != null ? job.getPhase().name() : null);
+        dto.setPriority(job.getPriority());
+        dto.setRuleStates(job.getRuleStates());
+        dto.setRuleIssueCounts(job.getRuleIssueCounts());
+        dto.setRulesTotal(dto.getRuleStates().size());
+        dto.setRulesCompleted((int) dto.getRuleStates().values().stream()
+                .filter(state -> AnalysisJob.RULE_DONE.equals(state) || AnalysisJob.RULE_SKIPPED.equals(state))
+                .count());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        dto.setError(job.getError());
+        dto.setResult(job.getResult());
+        return dto;
+    }
+}
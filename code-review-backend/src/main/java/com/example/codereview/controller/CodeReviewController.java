@@ -1,17 +1,34 @@
 package com.example.codereview.controller;
 
 import com.example.codereview.dto.*;
-import com.example.codereview.model.CodeReview;
-import com.example.codereview.model.Issue;
-import com.example.codereview.repository.CodeReviewRepository;
+import com.example.codereview.service.admission.AdmissionControl;
+import com.example.codereview.service.admission.AdmissionLane;
+import com.example.codereview.service.compiler.CompilerTier;
+import com.example.codereview.service.profile.JfrRecorder;
+import com.example.codereview.service.source.ProjectFile;
+import com.example.codereview.service.source.ProjectSourceLoader;
+import com.example.codereview.service.source.SourceText;
+import com.example.codereview.service.source.UploadSpooler;
+import com.example.codereview.service.export.ReviewExportCache;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import com.example.codereview.service.AnalysisListener;
 import com.example.codereview.service.CodeAnalysisService;
+import com.example.codereview.service.IssueExpansionService;
+import com.example.codereview.service.ProjectAnalysisService;
+import com.example.codereview.service.ReviewQueryService;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.StringJoiner;
 
@@ -20,69 +37,166 @@ import java.util.StringJoiner;
 public class CodeReviewController {
 
     private final CodeAnalysisService analysisService;
-    private final CodeReviewRepository reviewRepository;
+    private final ReviewQueryService reviewQueryService;
+    private final AdmissionControl admissionControl;
+    private final UploadSpooler uploadSpooler;
+    private final ProjectAnalysisService projectAnalysisService;
+    private final ProjectSourceLoader projectSourceLoader;
+    private final JfrRecorder jfrRecorder;
+    private final IssueExpansionService issueExpansionService;
+    private final ReviewCacheHeaders cacheHeaders;
+    private final ReviewExportCache exportCache;
 
     public CodeReviewController(CodeAnalysisService analysisService,
-                                CodeReviewRepository reviewRepository) {
+                                ReviewQueryService reviewQueryService,
+                                AdmissionControl admissionControl,
+                                UploadSpooler uploadSpooler,
+                                ProjectAnalysisService projectAnalysisService,
+                                ProjectSourceLoader projectSourceLoader,
+                                JfrRecorder jfrRecorder,
+                                IssueExpansionService issueExpansionService,
+                                ReviewCacheHeaders cacheHeaders,
+                                ReviewExportCache exportCache) {
         this.analysisService = analysisService;
-        this.reviewRepository = reviewRepository;
+        this.reviewQueryService = reviewQueryService;
+        this.admissionControl = admissionControl;
+        this.uploadSpooler = uploadSpooler;
+        this.projectAnalysisService = projectAnalysisService;
+        this.projectSourceLoader = projectSourceLoader;
+        this.jfrRecorder = jfrRecorder;
+        this.issueExpansionService = issueExpansionService;
+        this.cacheHeaders = cacheHeaders;
+        this.exportCache = exportCache;
     }
 
     // 1. Analyze code from text editor
     @PostMapping("/analyze")
-    public AnalyzeResponse analyze(@RequestBody AnalyzeRequest request) {
-		return analysisService.analyze(request);
+    public AnalyzeResponse analyze(@RequestBody AnalyzeRequest request,
+                                   @RequestParam(defaultValue = "false") boolean profile,
+                                   @RequestParam(defaultValue = "false") boolean jfr,
+                                   @RequestHeader(value = "X-Client-Class", required = false) String clientClass) {
+        if (jfr && !jfrRecorder.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "JFR recordings are disabled on this server");
+        }
+        return admissionControl.admit(AdmissionLane.fromHeader(clientClass), request.getCode(),
+                () -> profile || jfr
+                        ? analysisService.analyzeProfiled(request, jfr)
+                        : analysisService.analyze(request));
     }
     
     // 2. Analyze uploaded .java file
     @PostMapping(value = "/analyze/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public AnalyzeResponse analyzeFromFile(@RequestParam("file") MultipartFile file) throws IOException {
-        String code = new String(file.getBytes(), StandardCharsets.UTF_8);
-        AnalyzeRequest req = new AnalyzeRequest();
-        req.setCode(code);
-        req.setFilename(file.getOriginalFilename());
-        return analysisService.analyze(req);
+    public AnalyzeResponse analyzeFromFile(@RequestParam("file") MultipartFile file,
+                                           @RequestParam(value = "compilerTier", required = false) String compilerTier,
+                                           @RequestHeader(value = "X-Client-Class", required = false) String clientClass) throws IOException {
+        // Reject oversized uploads before copying them onto the heap
+        admissionControl.checkBytes(file.getSize());
+        // Large uploads are memory-mapped instead of being copied into byte[] and String
+        try (SourceText source = uploadSpooler.load(file)) {
+            return admissionControl.admit(AdmissionLane.fromHeader(clientClass), source.content(),
+                    () -> analysisService.analyze(file.getOriginalFilename(), source, AnalysisListener.NONE,
+                            CompilerTier.fromRequest(compilerTier)));
+        }
     }
 
-    // 3. Get a previous report
+    // 2b. Analyze a whole project (several files or a zip archive, plus optional classpath jars)
+    @PostMapping(value = "/analyze/project", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ProjectAnalyzeResponse analyzeProject(@RequestParam(value = "files", required = false) List<MultipartFile> files,
+                                                 @RequestParam(value = "archive", required = false) MultipartFile archive,
+                                                 @RequestParam(value = "classpath", required = false) List<MultipartFile> classpath,
+                                                 @RequestParam(value = "projectId", required = false) String projectId) throws IOException {
+        List<ProjectFile> sources = projectSourceLoader.load(files, archive);
+        Path jarDir = Files.createTempDirectory("project-cp-");
+        try {
+            List<Path> jars = projectSourceLoader.spoolClasspath(classpath, jarDir);
+            // Whole-project analyses are batch work regardless of who sends them
+            return admissionControl.admit(AdmissionLane.BATCH, null,
+                    () -> projectAnalysisService.analyzeProject(projectId, sources, jars));
+        } finally {
+            try (var entries = Files.list(jarDir)) {
+                for (Path p : (Iterable<Path>) entries::iterator) Files.deleteIfExists(p);
+            }
+            Files.deleteIfExists(jarDir);
+        }
+    }
+
+    // 3. Get a previous report (reviews are immutable: conditional requests get 304 without a query)
     @GetMapping("/reviews/{id}")
-    public CodeReview getReview(@PathVariable Long id) {
-        return reviewRepository.findById(id).orElseThrow();
+    public ResponseEntity<ReviewDetailResponse> getReview(@PathVariable Long id,
+                                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        MediaType format = ReviewCacheHeaders.negotiate(accept);
+        String etag = cacheHeaders.etag(id, "detail", ReviewCacheHeaders.token(format));
+        if (ReviewCacheHeaders.matches(ifNoneMatch, etag)) {
+            return cacheHeaders.notModified(etag);
+        }
+        return cacheHeaders.ok(etag, format).body(findReview(id));
+    }
+
+    // 3b. Individual occurrences behind an aggregated issue, re-derived from the stored code
+    @GetMapping("/reviews/{id}/issues/{issueId}/occurrences")
+    public ResponseEntity<IssueOccurrencesResponse> getOccurrences(@PathVariable Long id, @PathVariable Long issueId,
+                                                                   @RequestParam(defaultValue = "0") int offset,
+                                                                   @RequestParam(defaultValue = "500") int limit,
+                                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        int pageSize = Math.min(limit, 5000);
+        MediaType format = ReviewCacheHeaders.negotiate(accept);
+        String etag = cacheHeaders.etag(id, "issue", issueId.toString(), offset + "+" + pageSize,
+                ReviewCacheHeaders.token(format));
+        if (ReviewCacheHeaders.matches(ifNoneMatch, etag)) {
+            return cacheHeaders.notModified(etag);
+        }
+        // Expanding re-runs a rule or javac over the whole file: batch work regardless of who asks
+        IssueOccurrencesResponse occurrences = admissionControl.admit(AdmissionLane.BATCH, null,
+                () -> issueExpansionService.occurrences(id, issueId, offset, pageSize))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No issue " + issueId + " in review " + id));
+        return cacheHeaders.ok(etag, format).body(occurrences);
     }
 
     // 4. List all reviews (for dashboard)
     @GetMapping("/reviews")
-    public List<CodeReview> getAllReviews() {
-        return reviewRepository.findAll();
+    public List<ReviewSummaryResponse> getAllReviews() {
+        return reviewQueryService.listSummaries();
     }
 
-    // 5. Export report
+    // 5. Export report (rendered once per review and format, then served from the disk cache)
     @GetMapping("/reviews/{id}/export")
-    public ResponseEntity<String> export(@PathVariable Long id,
-                                         @RequestParam(defaultValue = "html") String format) {
-        CodeReview review = reviewRepository.findById(id).orElseThrow();
-        if ("txt".equalsIgnoreCase(format)) {
-            return ResponseEntity.ok()
-                    .contentType(MediaType.TEXT_PLAIN)
-                    .header("Content-Disposition", "attachment; filename=\"review-" + id + ".txt\"")
-                    .body(buildTextReport(review));
-        } else {
-            return ResponseEntity.ok()
-                    .contentType(MediaType.TEXT_HTML)
-                    .header("Content-Disposition", "attachment; filename=\"review-" + id + ".html\"")
-                    .body(buildHtmlReport(review));
+    public ResponseEntity<Resource> export(@PathVariable Long id,
+                                           @RequestParam(defaultValue = "html") String format,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws IOException {
+        boolean text = "txt".equalsIgnoreCase(format);
+        String extension = text ? "txt" : "html";
+        String etag = cacheHeaders.etag(id, extension);
+        if (ReviewCacheHeaders.matches(ifNoneMatch, etag)) {
+            return cacheHeaders.notModified(etag);
         }
+        Path file = exportCache.get(id, extension,
+                () -> text ? buildTextReport(findReview(id)) : buildHtmlReport(findReview(id)));
+        return cacheHeaders.ok(etag)
+                .contentType(new MediaType(text ? MediaType.TEXT_PLAIN : MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .header("Content-Disposition", "attachment; filename=\"review-" + id + "." + extension + "\"")
+                .body(new FileSystemResource(file));
     }
 
-    private String buildTextReport(CodeReview r) {
+    private static final String PARTIAL_NOTE =
+            "Partial review: saved from a gate-mode run that stopped early or skipped checks, so issues and counts are incomplete.";
+
+    private ReviewDetailResponse findReview(Long id) {
+        return reviewQueryService.findDetail(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No review " + id));
+    }
+
+    private String buildTextReport(ReviewDetailResponse r) {
         StringJoiner sj = new StringJoiner("\n");
         sj.add("Code Review Report");
         sj.add("File: " + r.getFilename() + " | Review ID: " + r.getId());
         sj.add("Errors: " + r.getErrorCount() + ", Warnings: " + r.getWarningCount()
                 + ", Optimizations: " + r.getOptimizationCount() + ", Security: " + r.getSecurityCount());
+        if (r.isPartial()) sj.add(PARTIAL_NOTE);
         sj.add("");
-        for (Issue i : r.getIssues()) {
-            sj.add("[" + i.getCategory() + "] (Line " + i.getLineNumber() + ") " + i.getTitle());
+        for (IssueDto i : r.getIssues()) {
+            sj.add("[" + i.getCategory() + "] (" + lines(i) + ") " + i.getTitle());
             sj.add("  " + i.getDescription());
             sj.add("  Suggestion: " + i.getSuggestion());
             sj.add("  Severity: " + i.getSeverity());
@@ -91,7 +205,7 @@ public class CodeReviewController {
         return sj.toString();
     }
 
-    private String buildHtmlReport(CodeReview r) {
+    private String buildHtmlReport(ReviewDetailResponse r) {
         StringBuilder sb = new StringBuilder();
         sb.append("<!doctype html><html><head><meta charset='utf-8'><title>Code Review Report</title>");
         sb.append("<style>body{font-family:Arial,Helvetica,sans-serif;padding:20px;} .issue{margin:12px 0;padding:10px;border:1px solid #ddd;border-radius:6px;} .meta{color:#555}</style>");
@@ -104,10 +218,11 @@ public class CodeReviewController {
         sb.append("<li>Optimizations: ").append(r.getOptimizationCount()).append("</li>");
         sb.append("<li>Security: ").append(r.getSecurityCount()).append("</li>");
         sb.append("</ul>");
+        if (r.isPartial()) sb.append("<p class='meta'><b>").append(PARTIAL_NOTE).append("</b></p>");
         sb.append("<h2>Issues</h2>");
-        for (Issue i : r.getIssues()) {
+        for (IssueDto i : r.getIssues()) {
             sb.append("<div class='issue'>");
-            sb.append("<h3>[").append(i.getCategory()).append("] (Line ").append(i.getLineNumber()).append(") ").append(escape(i.getTitle())).append("</h3>");
+            sb.append("<h3>[").append(i.getCategory()).append("] (").append(lines(i)).append(") ").append(escape(i.getTitle())).append("</h3>");
             sb.append("<p>").append(escape(i.getDescription())).append("</p>");
             sb.append("<p><b>Suggestion:</b> ").append(escape(i.getSuggestion())).append("</p>");
             sb.append("<p class='meta'>Severity: ").append(i.getSeverity()).append("</p>");
@@ -117,6 +232,11 @@ public class CodeReviewController {
         return sb.toString();
     }
 
+    private static String lines(IssueDto i) {
+        if (i.getOccurrences() == null) return "Line " + i.getLineNumber();
+        return "Lines " + i.getLineRanges() + ", " + i.getOccurrences() + " occurrences";
+    }
+
     private String escape(String s) {
         if (s == null) return "";
         return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
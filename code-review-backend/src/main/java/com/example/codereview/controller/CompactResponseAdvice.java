@@ -0,0 +1,144 @@
+package com.example.codereview.controller;
+
+import com.example.codereview.dto.AnalyzeResponse;
+import com.example.codereview.dto.CompactAnalyzeResponse;
+import com.example.codereview.dto.CompactIssueColumns;
+import com.example.codereview.dto.CompactReviewDetailResponse;
+import com.example.codereview.dto.IssueDto;
+import com.example.codereview.dto.ReviewDetailResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rewrites {@link AnalyzeResponse} and {@link ReviewDetailResponse} bodies into their compact
+ * forms ({@link CompactAnalyzeResponse}, {@link CompactReviewDetailResponse}) when the client
+ * negotiated CBOR or Smile. JSON clients keep the original shape.
+ */
+@ControllerAdvice
+public class CompactResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!MediaType.APPLICATION_CBOR.isCompatibleWith(selectedContentType) && !SMILE.isCompatibleWith(selectedContentType)) {
+            return body;
+        }
+        if (body instanceof AnalyzeResponse) {
+            return compact((AnalyzeResponse) body);
+        }
+        if (body instanceof ReviewDetailResponse) {
+            return compact((ReviewDetailResponse) body);
+        }
+        return body;
+    }
+
+    static CompactAnalyzeResponse compact(AnalyzeResponse r) {
+        CompactAnalyzeResponse c = new CompactAnalyzeResponse();
+        c.setReviewId(r.getReviewId());
+        c.setFilename(r.getFilename());
+        c.setErrorCount(r.getErrorCount());
+        c.setWarningCount(r.getWarningCount());
+        c.setOptimizationCount(r.getOptimizationCount());
+        c.setSecurityCount(r.getSecurityCount());
+        c.setProfile(r.getProfile());
+        c.setGate(r.getGate());
+        fillIssues(r.getIssues(), c);
+        return c;
+    }
+
+    static CompactReviewDetailResponse compact(ReviewDetailResponse r) {
+        CompactReviewDetailResponse c = new CompactReviewDetailResponse();
+        c.setId(r.getId());
+        c.setFilename(r.getFilename());
+        c.setCode(r.getCode());
+        c.setCreatedAt(r.getCreatedAt());
+        c.setErrorCount(r.getErrorCount());
+        c.setWarningCount(r.getWarningCount());
+        c.setOptimizationCount(r.getOptimizationCount());
+        c.setSecurityCount(r.getSecurityCount());
+        c.setPartial(r.isPartial());
+        fillIssues(r.getIssues(), c);
+        return c;
+    }
+
+    private static void fillIssues(List<IssueDto> source, CompactIssueColumns c) {
+        List<IssueDto> issues = source != null ? source : List.of();
+        int n = issues.size();
+        List<String> strings = new ArrayList<>();
+        Map<String, Integer> dictionary = new HashMap<>();
+        long[] ids = new long[n];
+        int[] lines = new int[n];
+        int[] titles = new int[n];
+        int[] descriptions = new int[n];
+        int[] suggestions = new int[n];
+        int[] categories = new int[n];
+        int[] severities = new int[n];
+        int[] occurrences = new int[n];
+        int[] endLines = new int[n];
+        int[] ranges = new int[n];
+        boolean aggregated = false;
+        for (int i = 0; i < n; i++) {
+            IssueDto issue = issues.get(i);
+            ids[i] = issue.getId() != null ? issue.getId() : -1L;
+            lines[i] = issue.getLineNumber();
+            titles[i] = intern(issue.getTitle(), strings, dictionary);
+            descriptions[i] = intern(issue.getDescription(), strings, dictionary);
+            suggestions[i] = intern(issue.getSuggestion(), strings, dictionary);
+            categories[i] = intern(issue.getCategory() != null ? issue.getCategory().name() : null, strings, dictionary);
+            severities[i] = intern(issue.getSeverity() != null ? issue.getSeverity().name() : null, strings, dictionary);
+            if (issue.getOccurrences() != null) {
+                aggregated = true;
+                occurrences[i] = issue.getOccurrences();
+                endLines[i] = issue.getEndLineNumber() != null ? issue.getEndLineNumber() : lines[i];
+                ranges[i] = intern(issue.getLineRanges(), strings, dictionary);
+            } else {
+                occurrences[i] = 1;
+                endLines[i] = lines[i];
+                ranges[i] = -1;
+            }
+        }
+        c.setStrings(strings);
+        c.setIds(ids);
+        c.setLineNumbers(lines);
+        c.setTitles(titles);
+        c.setDescriptions(descriptions);
+        c.setSuggestions(suggestions);
+        c.setCategories(categories);
+        c.setSeverities(severities);
+        if (aggregated) {
+            c.setOccurrences(occurrences);
+            c.setEndLineNumbers(endLines);
+            c.setLineRanges(ranges);
+        }
+    }
+
+    // -1 stands for null
+    private static int intern(String s, List<String> strings, Map<String, Integer> dictionary) {
+        if (s == null) return -1;
+        Integer index = dictionary.get(s);
+        if (index == null) {
+            index = strings.size();
+            strings.add(s);
+            dictionary.put(s, index);
+        }
+        return index;
+    }
+}
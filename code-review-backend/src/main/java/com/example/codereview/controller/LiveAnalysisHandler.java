@@ -0,0 +1,157 @@
+package com.example.codereview.controller;
+
+import com.example.codereview.dto.AnalyzeResponse;
+import com.example.codereview.dto.LiveAnalysisUpdate;
+import com.example.codereview.dto.LiveClientMessage;
+import com.example.codereview.service.live.LiveAnalysisService;
+import com.example.codereview.service.live.LiveDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Live analysis socket ({@code /api/live}). Each connection edits one document; see
+ * {@link LiveClientMessage} for what clients send. The server answers with {@code analysis}
+ * messages ({@link LiveAnalysisUpdate}), {@code saved} messages carrying the persisted review,
+ * and {@code error} messages. Malformed messages are reported and the connection stays open.
+ */
+@Component
+public class LiveAnalysisHandler extends TextWebSocketHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveAnalysisHandler.class);
+    private static final String DOCUMENT = "liveDocument";
+    private static final String SENDER = "liveSender";
+    // Pushes to a slow client beyond this are dropped by closing the connection
+    private static final int SEND_TIME_LIMIT_MS = 10_000;
+    private static final int SEND_BUFFER_BYTES = 4 * 1024 * 1024;
+
+    private final LiveAnalysisService liveAnalysis;
+    private final ObjectMapper mapper;
+    private final int maxMessageBytes;
+
+    public LiveAnalysisHandler(LiveAnalysisService liveAnalysis, ObjectMapper mapper,
+                               @Value("${codereview.live.max-message-bytes:4194304}") int maxMessageBytes) {
+        this.liveAnalysis = liveAnalysis;
+        this.mapper = mapper;
+        this.maxMessageBytes = maxMessageBytes;
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        LiveClientMessage msg;
+        try {
+            msg = mapper.readValue(message.getPayload(), LiveClientMessage.class);
+        } catch (JacksonException e) {
+            send(session, error(null, "Malformed message: " + e.getOriginalMessage()));
+            return;
+        }
+        LiveDocument document = (LiveDocument) session.getAttributes().get(DOCUMENT);
+        String type = msg.getType() != null ? msg.getType() : "";
+        try {
+            switch (type) {
+                case "open":
+                    if (document != null) liveAnalysis.close(document);
+                    session.getAttributes().put(DOCUMENT, liveAnalysis.open(msg.getFilename(), msg.getCode(),
+                            msg.getCompilerTier(), msg.getVersion(), new Publisher(session)));
+                    break;
+                case "edit":
+                    requireOpen(document);
+                    liveAnalysis.retarget(document, msg.getFilename(), msg.getCompilerTier());
+                    if (msg.getChanges() != null) {
+                        liveAnalysis.edit(document, msg.getVersion(), msg.getChanges());
+                    } else {
+                        liveAnalysis.replace(document, msg.getVersion(), msg.getCode());
+                    }
+                    break;
+                case "save":
+                    requireOpen(document);
+                    liveAnalysis.save(document);
+                    break;
+                default:
+                    send(session, error(msg.getVersion(), "Unknown message type '" + type + "'"));
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            send(session, error(msg.getVersion(), e.getMessage()));
+        }
+    }
+
+    private static void requireOpen(LiveDocument document) {
+        if (document == null) {
+            throw new IllegalStateException("Send an 'open' message first");
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        LiveDocument document = (LiveDocument) session.getAttributes().remove(DOCUMENT);
+        if (document != null) {
+            liveAnalysis.close(document);
+        }
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        // The container default (8 KB) is too small for an "open" message carrying a whole file
+        session.setTextMessageSizeLimit(maxMessageBytes);
+        // Analysis workers push concurrently with replies from the socket thread
+        session.getAttributes().put(SENDER,
+                new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, SEND_BUFFER_BYTES));
+    }
+
+    private void send(WebSocketSession session, Object body) {
+        WebSocketSession sender = (WebSocketSession) session.getAttributes().get(SENDER);
+        if (sender == null || !sender.isOpen()) return;
+        try {
+            sender.sendMessage(new TextMessage(mapper.writeValueAsString(body)));
+        } catch (IOException | RuntimeException e) {
+            log.debug("Dropping live analysis message for session {}: {}", session.getId(), e.toString());
+        }
+    }
+
+    private static Map<String, Object> error(Long version, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("type", "error");
+        body.put("version", version);
+        body.put("message", message);
+        return body;
+    }
+
+    private final class Publisher implements LiveDocument.Listener {
+        private final WebSocketSession session;
+
+        Publisher(WebSocketSession session) {
+            this.session = session;
+        }
+
+        @Override
+        public void analyzed(LiveAnalysisUpdate update) {
+            send(session, update);
+        }
+
+        @Override
+        public void saved(long version, AnalyzeResponse review) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("type", "saved");
+            body.put("version", version);
+            body.put("review", review);
+            send(session, body);
+        }
+
+        @Override
+        public void failed(long version, String message) {
+            send(session, error(version, message));
+        }
+    }
+}
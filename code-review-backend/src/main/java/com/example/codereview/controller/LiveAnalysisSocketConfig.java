@@ -0,0 +1,22 @@
+package com.example.codereview.controller;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class LiveAnalysisSocketConfig implements WebSocketConfigurer {
+
+    private final LiveAnalysisHandler handler;
+
+    public LiveAnalysisSocketConfig(LiveAnalysisHandler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(handler, "/api/live").setAllowedOrigins("http://localhost:3000");
+    }
+}
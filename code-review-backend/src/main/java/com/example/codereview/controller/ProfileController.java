@@ -0,0 +1,34 @@
+package com.example.codereview.controller;
+
+import com.example.codereview.service.profile.JfrRecorder;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/api/profiles")
+public class ProfileController {
+
+    private final JfrRecorder jfrRecorder;
+
+    public ProfileController(JfrRecorder jfrRecorder) {
+        this.jfrRecorder = jfrRecorder;
+    }
+
+    // Download the JFR recording taken for an /api/analyze?jfr=true request
+    @GetMapping("/{id}/recording")
+    public ResponseEntity<Resource> recording(@PathVariable String id) {
+        Path file = jfrRecorder.find(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No recording " + id));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header("Content-Disposition", "attachment; filename=\"analysis-" + id + ".jfr\"")
+                .body(new FileSystemResource(file));
+    }
+}
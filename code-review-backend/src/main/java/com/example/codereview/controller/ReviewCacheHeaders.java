@@ -0,0 +1,117 @@
+package com.example.codereview.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * HTTP caching for reads of stored reviews, which never change once saved. A representation's
+ * strong ETag is derived from the review id and the representation alone, so a matching
+ * {@code If-None-Match} is answered with 304 before any database access. The ETag also carries
+ * the server's start time: ids are only unique within one database (the default one is
+ * in-memory), and a new build may render a review differently.
+ *
+ * <p>Reviews are served as JSON, CBOR or Smile. The format is chosen here from the
+ * {@code Accept} header, named in the ETag and then fixed as the response's content type, so
+ * one validator never covers two representations.
+ */
+@Component
+public class ReviewCacheHeaders {
+
+    private static final List<MediaType> FORMATS =
+            List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, CompactResponseAdvice.SMILE);
+    private static final List<String> FORMAT_TOKENS = List.of("json", "cbor", "smile");
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final CacheControl cacheControl;
+
+    public ReviewCacheHeaders(@Value("${codereview.reviews.cache-max-age-seconds:31536000}") long maxAgeSeconds) {
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePrivate().immutable();
+    }
+
+    /** Strong ETag for one representation of review {@code reviewId}, e.g. {@code ("html")}. */
+    public String etag(long reviewId, String... representation) {
+        StringBuilder sb = new StringBuilder("\"").append(epoch).append('-').append(reviewId);
+        for (String part : representation) {
+            sb.append('-').append(part);
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * True if an {@code If-None-Match} header value lists {@code etag}. {@code *} is not honoured,
+     * since answering it would need to know whether the review exists.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // If-None-Match uses the weak comparison, so a W/ prefix does not matter
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * The review format {@code accept} selects: the one with the highest quality, where a format's
+     * quality is that of the most specific range that includes it; ties go to JSON, then CBOR. A
+     * missing or malformed header selects JSON; null if no format is acceptable.
+     */
+    public static MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) return MediaType.APPLICATION_JSON;
+        List<MediaType> ranges;
+        try {
+            ranges = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MediaType best = null;
+        double bestQuality = 0;
+        for (MediaType format : FORMATS) {
+            int specificity = -1;
+            double quality = 0;
+            for (MediaType range : ranges) {
+                if (!range.includes(format)) continue;
+                int s = range.isWildcardType() ? 0 : range.isWildcardSubtype() ? 1 : 2;
+                if (s > specificity) {
+                    specificity = s;
+                    quality = range.getQualityValue();
+                }
+            }
+            if (quality > bestQuality) {
+                best = format;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    /** ETag token for a format from {@link #negotiate}: json, cbor, smile, or none. */
+    public static String token(MediaType format) {
+        int i = format != null ? FORMATS.indexOf(format) : -1;
+        return i >= 0 ? FORMAT_TOKENS.get(i) : "none";
+    }
+
+    public <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+    }
+
+    public ResponseEntity.BodyBuilder ok(String etag) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
+    /** {@link #ok(String)} with {@code format} from {@link #negotiate} as the content type, if there is one. */
+    public ResponseEntity.BodyBuilder ok(String etag, MediaType format) {
+        ResponseEntity.BodyBuilder builder = ok(etag);
+        return format != null ? builder.contentType(format) : builder;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.codereview.dto;
+
+import java.util.List;
+
+/** Per-phase breakdown returned by {@code /api/analyze?profile=true}. */
+public class AnalysisProfile {
+
+    private double wallMillis;
+    private List<ProfileSegment> segments;
+    /** Id of the JFR recording taken for the request, downloadable from /api/profiles/{id}/recording. */
+    private String recordingId;
+
+    // ---------------- GETTERS & SETTERS ----------------
+
+    public double getWallMillis() {
+        return wallMillis;
+    }
+
+    public void setWallMillis(double wallMillis) {
+        this.wallMillis = wallMillis;
+    }
+
+    public List<ProfileSegment> getSegments() {
+        return segments;
+    }
+
+    public void setSegments(List<ProfileSegment> segments) {
+        this.segments = segments;
+    }
+
+    public String getRecordingId() {
+        return recordingId;
+    }
+
+    public void setRecordingId(String recordingId) {
+        this.recordingId = recordingId;
+    }
+}
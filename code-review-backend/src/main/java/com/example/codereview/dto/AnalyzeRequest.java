@@ -4,6 +4,12 @@ public class AnalyzeRequest {
 
     private String code;
     private String filename;
+    // "none", "syntax" (parse only) or "full" (default)
+    private String compilerTier;
+    // gate mode, e.g. "severity>=HIGH count>=1": stop as soon as pass/fail is known
+    private String gate;
+    // gate mode only; full analyses are always saved
+    private boolean persist;
 
     public AnalyzeRequest() {}
 
@@ -22,4 +28,28 @@ public class AnalyzeRequest {
     public void setFilename(String filename){
         this.filename = filename;
     }
+
+    public String getCompilerTier() {
+        return compilerTier;
+    }
+
+    public void setCompilerTier(String compilerTier) {
+        this.compilerTier = compilerTier;
+    }
+
+    public String getGate() {
+        return gate;
+    }
+
+    public void setGate(String gate) {
+        this.gate = gate;
+    }
+
+    public boolean isPersist() {
+        return persist;
+    }
+
+    public void setPersist(boolean persist) {
+        this.persist = persist;
+    }
 }
@@ -1,5 +1,7 @@
 package com.example.codereview.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
 public class AnalyzeResponse {
@@ -14,6 +16,14 @@ public class AnalyzeResponse {
 
     private List<IssueDto> issues;
 
+    // only present for profile=true requests
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private AnalysisProfile profile;
+
+    // only present for gate-mode requests
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private GateResult gate;
+
     // ---------------- GETTERS & SETTERS ----------------
 
     public Long getReviewId() {
@@ -71,4 +81,20 @@ public class AnalyzeResponse {
     public void setIssues(List<IssueDto> issues) {
         this.issues = issues;
     }
+
+    public AnalysisProfile getProfile() {
+        return profile;
+    }
+
+    public void setProfile(AnalysisProfile profile) {
+        this.profile = profile;
+    }
+
+    public GateResult getGate() {
+        return gate;
+    }
+
+    public void setGate(GateResult gate) {
+        this.gate = gate;
+    }
 }
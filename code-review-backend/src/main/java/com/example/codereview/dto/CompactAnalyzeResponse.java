@@ -0,0 +1,90 @@
+package com.example.codereview.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * {@link AnalyzeResponse} as sent to clients that negotiate a binary format (CBOR or Smile), with
+ * its issues in {@link CompactIssueColumns}.
+ */
+public class CompactAnalyzeResponse extends CompactIssueColumns {
+
+    private Long reviewId;
+    private String filename;
+
+    private int errorCount;
+    private int warningCount;
+    private int optimizationCount;
+    private int securityCount;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private AnalysisProfile profile;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private GateResult gate;
+
+    // ---------------- GETTERS & SETTERS ----------------
+
+    public Long getReviewId() {
+        return reviewId;
+    }
+
+    public void setReviewId(Long reviewId) {
+        this.reviewId = reviewId;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    public void setErrorCount(int errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    public int getWarningCount() {
+        return warningCount;
+    }
+
+    public void setWarningCount(int warningCount) {
+        this.warningCount = warningCount;
+    }
+
+    public int getOptimizationCount() {
+        return optimizationCount;
+    }
+
+    public void setOptimizationCount(int optimizationCount) {
+        this.optimizationCount = optimizationCount;
+    }
+
+    public int getSecurityCount() {
+        return securityCount;
+    }
+
+    public void setSecurityCount(int securityCount) {
+        this.securityCount = securityCount;
+    }
+
+    public AnalysisProfile getProfile() {
+        return profile;
+    }
+
+    public void setProfile(AnalysisProfile profile) {
+        this.profile = profile;
+    }
+
+    public GateResult getGate() {
+        return gate;
+    }
+
+    public void setGate(GateResult gate) {
+        this.gate = gate;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.codereview.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Issues of a compact (CBOR or Smile) response, stored column by column. Every string column
+ * (title, description, suggestion, category, severity) holds indexes into {@link #strings}, so
+ * each distinct message is sent once per response no matter how many issues repeat it. Issue
+ * {@code i} is {@code strings[titles[i]]}, {@code lineNumbers[i]} and so on. The aggregate
+ * columns ({@code occurrences}, {@code endLineNumbers}, {@code lineRanges}) are only sent when at
+ * least one issue is an aggregate; plain issues have 1, their own line and -1 there.
+ */
+public class CompactIssueColumns {
+
+    private List<String> strings;
+
+    private long[] ids;
+    private int[] lineNumbers;
+    private int[] titles;
+    private int[] descriptions;
+    private int[] suggestions;
+    private int[] categories;
+    private int[] severities;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private int[] occurrences;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private int[] endLineNumbers;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private int[] lineRanges;
+
+    // ---------------- GETTERS & SETTERS ----------------
+
+    public List<String> getStrings() {
+        return strings;
+    }
+
+    public void setStrings(List<String> strings) {
+        this.strings = strings;
+    }
+
+    public long[] getIds() {
+        return ids;
+    }
+
+    public void setIds(long[] ids) {
+        this.ids = ids;
+    }
+
+    public int[] getLineNumbers() {
+        return lineNumbers;
+    }
+
+    public void setLineNumbers(int[] lineNumbers) {
+        this.lineNumbers = lineNumbers;
+    }
+
+    public int[] getTitles() {
+        return titles;
+    }
+
+    public void setTitles(int[] titles) {
+        this.titles = titles;
+    }
+
+    public int[] getDescriptions() {
+        return descriptions;
+    }
+
+    public void setDescriptions(int[] descriptions) {
+        this.descriptions = descriptions;
+    }
+
+    public int[] getSuggestions() {
+        return suggestions;
+    }
+
+    public void setSuggestions(int[] suggestions) {
+        this.suggestions = suggestions;
+    }
+
+    public int[] getCategories() {
+        return categories;
+    }
+
+    public void setCategories(int[] categories) {
+        this.categories = categories;
+    }
+
+    public int[] getSeverities() {
+        return severities;
+    }
+
+    public void setSeverities(int[] severities) {
+        this.severities = severities;
+    }
+
+    public int[] getOccurrences() {
+        return occurrences;
+    }
+
+    public void setOccurrences(int[] occurrences) {
+        this.occurrences = occurrences;
+    }
+
+    public int[] getEndLineNumbers() {
+        return endLineNumbers;
+    }
+
+    public void setEndLineNumbers(int[] endLineNumbers) {
+        this.endLineNumbers = endLineNumbers;
+    }
+
+    public int[] getLineRanges() {
+        return lineRanges;
+    }
+
+    public void setLineRanges(int[] lineRanges) {
+        this.lineRanges = lineRanges;
+    }
+}
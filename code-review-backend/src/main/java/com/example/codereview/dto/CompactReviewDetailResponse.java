@@ -0,0 +1,95 @@
+package com.example.codereview.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * {@link ReviewDetailResponse} as sent to clients that negotiate a binary format (CBOR or Smile),
+ * with its issues in {@link CompactIssueColumns}.
+ */
+public class CompactReviewDetailResponse extends CompactIssueColumns {
+
+    private Long id;
+    private String filename;
+    private String code;
+    private LocalDateTime createdAt;
+
+    private int errorCount;
+    private int warningCount;
+    private int optimizationCount;
+    private int securityCount;
+    private boolean partial;
+
+    // ---------------- GETTERS & SETTERS ----------------
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    public void setErrorCount(int errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    public int getWarningCount() {
+        return warningCount;
+    }
+
+    public void setWarningCount(int warningCount) {
+        this.warningCount = warningCount;
+    }
+
+    public int getOptimizationCount() {
+        return optimizationCount;
+    }
+
+    public void setOptimizationCount(int optimizationCount) {
+        this.optimizationCount = optimizationCount;
+    }
+
+    public int getSecurityCount() {
+        return securityCount;
+    }
+
+    public void setSecurityCount(int securityCount) {
+        this.securityCount = securityCount;
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.codereview.dto;
+
+/** Verdict of a gate-mode analysis. */
+public class GateResult {
+
+    private String expression;
+    private boolean passed;
+    /** Counted issues among those found before the verdict; one rule can take it past the threshold. */
+    private int matchedIssues;
+    private int threshold;
+    /** True if rules or the compile were cancelled because the verdict was already known. */
+    private boolean stoppedEarly;
+    private int rulesRun;
+    /** Rules that could not change the verdict, matched no prefilter keyword, or were cancelled. */
+    private int rulesSkipped;
+    /** "skipped", "cancelled" or "completed". */
+    private String compile;
+
+    // ---------------- GETTERS & SETTERS ----------------
+
+    public String getExpression() {
+        return expression;
+    }
+
+    public void setExpression(String expression) {
+        this.expression = expression;
+    }
+
+    public boolean isPassed() {
+        return passed;
+    }
+
+    public void setPassed(boolean passed) {
+        this.passed = passed;
+    }
+
+    public int getMatchedIssues() {
+        return matchedIssues;
+    }
+
+    public void setMatchedIssues(int matchedIssues) {
+        this.matchedIssues = matchedIssues;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(int threshold) {
+        this.threshold = threshold;
+    }
+
+    public boolean isStoppedEarly() {
+        return stoppedEarly;
+    }
+
+    public void setStoppedEarly(boolean stoppedEarly) {
+        this.stoppedEarly = stoppedEarly;
+    }
+
+    public int getRulesRun() {
+        return rulesRun;
+    }
+
+    public void setRulesRun(int rulesRun) {
+        this.rulesRun = rulesRun;
+    }
+
+    public int getRulesSkipped() {
+        return rulesSkipped;
+    }
+
+    public void setRulesSkipped(int rulesSkipped) {
+        this.rulesSkipped = rulesSkipped;
+    }
+
+    public String getCompile() {
+        return compile;
+    }
+
+    public void setCompile(String compile) {
+        this.compile = compile;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.codereview.dto;
 
 import com.example.codereview.model.IssueCategory;
 import com.example.codereview.model.Severity;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 public class IssueDto {
 
@@ -13,6 +14,15 @@ public class IssueDto {
     private IssueCategory category;
     private Severity severity;
 
+    // only present on aggregated issues: the same finding on several lines
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer occurrences;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer endLineNumber;
+    /** e.g. "3-7,9,12-40"; ends in ",..." when there were too many ranges to list. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String lineRanges;
+
     // GETTERS & SETTERS
 
     public Long getId() {
@@ -70,4 +80,28 @@ public class IssueDto {
     public void setSeverity(Severity severity) {
         this.severity = severity;
     }
+
+    public Integer getOccurrences() {
+        return occurrences;
+    }
+
+    public void setOccurrences(Integer occurrences) {
+        this.occurrences = occurrences;
+    }
+
+    public Integer getEndLineNumber() {
+        return endLineNumber;
+    }
+
+    public void setEndLineNumber(Integer endLineNumber) {
+        this.endLineNumber = endLineNumber;
+    }
+
+    public String getLineRanges() {
+        return lineRanges;
+    }
+
+    public void setLineRanges(String lineRanges) {
+        this.lineRanges = lineRanges;
+    }
 }
@@ -0,0 +1,58 @@
+package com.example.codereview.dto;
+
+import java.util.List;
+
+/**
+ * One page of the individual occurrences behind an aggregated issue
+ * ({@code GET /api/reviews/{id}/issues/{issueId}/occurrences}), in line order.
+ */
+public class IssueOccurrencesResponse {
+
+    private Long reviewId;
+    private Long issueId;
+    private int total;
+    private int offset;
+    private List<IssueDto> issues;
+
+    // ---------------- GETTERS & SETTERS ----------------
+
+    public Long getReviewId() {
+        return reviewId;
+    }
+
+    public void setReviewId(Long reviewId) {
+        this.reviewId = reviewId;
+    }
+
+    public Long getIssueId() {
+        return issueId;
+    }
+
+    public void setIssueId(Long issueId) {
+        this.issueId = issueId;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    public List<IssueDto> getIssues() {
+        return issues;
+    }
+
+    public void setIssues(List<IssueDto> issues) {
+        this.issues = issues;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.codereview.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+public class JobStatusResponse {
+
+    private String jobId;
+    private String status;
+    private String phase;
+    private int priority;
+    private int rulesCompleted;
+    private int rulesTotal;
+    private Map<String, String> ruleStates;
+    private Map<String, Integer> ruleIssueCounts;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+    private AnalyzeResponse result;
+
+    // ---------------- GETTERS & SETTERS ----------------
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public void setPhase(String phase) {
+        this.phase = phase;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    public int getRulesCompleted() {
+        return rulesCompleted;
+    }
+
+    public void setRulesCompleted(int rulesCompleted) {
+        this.rulesCompleted = rulesCompleted;
+    }
+
+    public int getRulesTotal() {
+        return rulesTotal;
+    }
+
+    public void setRulesTotal(int rulesTotal) {
+        this.rulesTotal = rulesTotal;
+    }
+
+    public Map<String, String> getRuleStates() {
+        return ruleStates;
+    }
+
+    public void setRuleStates(Map<String, String> ruleStates) {
+        this.ruleStates = ruleStates;
+    }
+
+    public Map<String, Integer> getRuleIssueCounts() {
+        return ruleIssueCounts;
+    }
+
+    public void setRuleIssueCounts(Map<String, Integer> ruleIssueCounts) {
+        this.ruleIssueCounts = ruleIssueCounts;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public AnalyzeResponse getResult() {
+        return result;
+    }
+
+    public void setResult(AnalyzeResponse result) {
+        this.result = result;
+    }
+}
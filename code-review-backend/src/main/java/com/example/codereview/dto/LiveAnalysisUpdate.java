@@ -0,0 +1,112 @@
+package com.example.codereview.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Issue delta pushed to a live editor after each analysis. Issue ids are session-local: an
+ * issue keeps its id while its text (and that of its line) is unchanged, even if edits above it
+ * move it to another line, in which case {@code moved} maps its id to the new line number.
+ */
+public class LiveAnalysisUpdate {
+
+    private final String type = "analysis";
+    private long version;
+    private List<IssueDto> added;
+    private Map<Long, Integer> moved;
+    private List<Long> removed;
+
+    private int errorCount;
+    private int warningCount;
+    private int optimizationCount;
+    private int securityCount;
+    private long elapsedMillis;
+    // Tier the compiler issues in this update come from; a SYNTAX update may be followed by a FULL one
+    private String compilerTier;
+
+    // ---------------- GETTERS & SETTERS ----------------
+
+    public String getType() {
+        return type;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public List<IssueDto> getAdded() {
+        return added;
+    }
+
+    public void setAdded(List<IssueDto> added) {
+        this.added = added;
+    }
+
+    public Map<Long, Integer> getMoved() {
+        return moved;
+    }
+
+    public void setMoved(Map<Long, Integer> moved) {
+        this.moved = moved;
+    }
+
+    public List<Long> getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(List<Long> removed) {
+        this.removed = removed;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    public void setErrorCount(int errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    public int getWarningCount() {
+        return warningCount;
+    }
+
+    public void setWarningCount(int warningCount) {
+        this.warningCount = warningCount;
+    }
+
+    public int getOptimizationCount() {
+        return optimizationCount;
+    }
+
+    public void setOptimizationCount(int optimizationCount) {
+        this.optimizationCount = optimizationCount;
+    }
+
+    public int getSecurityCount() {
+        return securityCount;
+    }
+
+    public void setSecurityCount(int securityCount) {
+        this.securityCount = securityCount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getCompilerTier() {
+        return compilerTier;
+    }
+
+    public void setCompilerTier(String compilerTier) {
+        this.compilerTier = compilerTier;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.codereview.dto;
+
+import java.util.List;
+
+/**
+ * A message from an editor on the live analysis socket ({@code /api/live}):
+ * <ul>
+ *   <li>{@code open} – start a document with {@code code}, {@code filename} and {@code compilerTier}</li>
+ *   <li>{@code edit} – apply {@code changes} in order, or replace the whole text with {@code code}</li>
+ *   <li>{@code save} – run a full analysis of the current text and persist it as a review</li>
+ * </ul>
+ * {@code version} is chosen by the client and echoed in the updates computed from that text.
+ */
+public class LiveClientMessage {
+
+    private String type;
+    private Long version;
+    private String filename;
+    private String compilerTier;
+    private String code;
+    private List<LiveTextChange> changes;
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public String getCompilerTier() {
+        return compilerTier;
+    }
+
+    public void setCompilerTier(String compilerTier) {
+        this.compilerTier = compilerTier;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public List<LiveTextChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<LiveTextChange> changes) {
+        this.changes = changes;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.codereview.dto;
+
+/** One edit of a live document: replace {@code deleteCount} chars at {@code offset} with {@code text}. */
+public class LiveTextChange {
+
+    private int offset;
+    private int deleteCount;
+    private String text;
+
+    public LiveTextChange() {}
+
+    public LiveTextChange(int offset, int deleteCount, String text) {
+        this.offset = offset;
+        this.deleteCount = deleteCount;
+        this.text = text;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    public int getDeleteCount() {
+        return deleteCount;
+    }
+
+    public void setDeleteCount(int deleteCount) {
+        this.deleteCount = deleteCount;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.codereview.dto;
+
+/** Resources used by one measured part of an analysis. */
+public class ProfileSegment {
+
+    /** "phase", "rule" or "background" (work done on another thread, e.g. javac). */
+    private String kind;
+    private String name;
+    private String thread;
+    private double wallMillis;
+    /** -1 when the JVM does not report thread CPU time, or the rule ran chunk-parallel. */
+    private double cpuMillis;
+    /** -1 when the JVM does not report per-thread allocation, or the rule ran chunk-parallel. */
+    private long allocatedBytes;
+
+    // ---------------- GETTERS & SETTERS ----------------
+
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getThread() {
+        return thread;
+    }
+
+    public void setThread(String thread) {
+        this.thread = thread;
+    }
+
+    public double getWallMillis() {
+        return wallMillis;
+    }
+
+    public void setWallMillis(double wallMillis) {
+        this.wallMillis = wallMillis;
+    }
+
+    public double getCpuMillis() {
+        return cpuMillis;
+    }
+
+    public void setCpuMillis(double cpuMillis) {
+        this.cpuMillis = cpuMillis;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public void setAllocatedBytes(long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+    }
+}
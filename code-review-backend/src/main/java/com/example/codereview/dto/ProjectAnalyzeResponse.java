@@ -0,0 +1,74 @@
+package com.example.codereview.dto;
+
+import java.util.List;
+
+public class ProjectAnalyzeResponse {
+
+    private int fileCount;
+    private int compiledFileCount;
+    private int errorCount;
+    private int warningCount;
+    private int optimizationCount;
+    private int securityCount;
+
+    private List<AnalyzeResponse> files;
+
+    // ---------------- GETTERS & SETTERS ----------------
+
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    public void setFileCount(int fileCount) {
+        this.fileCount = fileCount;
+    }
+
+    /** Files javac actually attributed; the rest reused cached diagnostics. */
+    public int getCompiledFileCount() {
+        return compiledFileCount;
+    }
+
+    public void setCompiledFileCount(int compiledFileCount) {
+        this.compiledFileCount = compiledFileCount;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    public void setErrorCount(int errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    public int getWarningCount() {
+        return warningCount;
+    }
+
+    public void setWarningCount(int warningCount) {
+        this.warningCount = warningCount;
+    }
+
+    public int getOptimizationCount() {
+        return optimizationCount;
+    }
+
+    public void setOptimizationCount(int optimizationCount) {
+        this.optimizationCount = optimizationCount;
+    }
+
+    public int getSecurityCount() {
+        return securityCount;
+    }
+
+    public void setSecurityCount(int securityCount) {
+        this.securityCount = securityCount;
+    }
+
+    public List<AnalyzeResponse> getFiles() {
+        return files;
+    }
+
+    public void setFiles(List<AnalyzeResponse> files) {
+        this.files = files;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.codereview.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** {@code GET /api/reviews/{id}}: a review with its issues, detached from the JPA entities. */
+public class ReviewDetailResponse {
+
+    private Long id;
+    private String filename;
+    private String code;
+    private LocalDateTime createdAt;
+
+    private int errorCount;
+    private int warningCount;
+    private int optimizationCount;
+    private int securityCount;
+    private boolean partial;
+
+    private List<IssueDto> issues;
+
+    // ---------------- GETTERS & SETTERS ----------------
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    public void setErrorCount(int errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    public int getWarningCount() {
+        return warningCount;
+    }
+
+    public void setWarningCount(int warningCount) {
+        this.warningCount = warningCount;
+    }
+
+    public int getOptimizationCount() {
+        return optimizationCount;
+    }
+
+    public void setOptimizationCount(int optimizationCount) {
+        this.optimizationCount = optimizationCount;
+    }
+
+    public int getSecurityCount() {
+        return securityCount;
+    }
+
+    public void setSecurityCount(int securityCount) {
+        this.securityCount = securityCount;
+    }
+
+    public List<IssueDto> getIssues() {
+        return issues;
+    }
+
+    public void setIssues(List<IssueDto> issues) {
+        this.issues = issues;
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+}
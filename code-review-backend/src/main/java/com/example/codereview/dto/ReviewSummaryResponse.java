@@ -0,0 +1,99 @@
+package com.example.codereview.dto;
+
+import java.time.LocalDateTime;
+
+/** One row of {@code GET /api/reviews}; built by a projection query, without loading issues. */
+public class ReviewSummaryResponse {
+
+    private Long id;
+    private String filename;
+    private LocalDateTime createdAt;
+
+    private int errorCount;
+    private int warningCount;
+    private int optimizationCount;
+    private int securityCount;
+    private boolean partial;
+
+    public ReviewSummaryResponse() {
+    }
+
+    public ReviewSummaryResponse(Long id, String filename, LocalDateTime createdAt,
+                                 int errorCount, int warningCount, int optimizationCount, int securityCount,
+                                 boolean partial) {
+        this.id = id;
+        this.filename = filename;
+        this.createdAt = createdAt;
+        this.errorCount = errorCount;
+        this.warningCount = warningCount;
+        this.optimizationCount = optimizationCount;
+        this.securityCount = securityCount;
+        this.partial = partial;
+    }
+
+    // ---------------- GETTERS & SETTERS ----------------
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    public void setErrorCount(int errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    public int getWarningCount() {
+        return warningCount;
+    }
+
+    public void setWarningCount(int warningCount) {
+        this.warningCount = warningCount;
+    }
+
+    public int getOptimizationCount() {
+        return optimizationCount;
+    }
+
+    public void setOptimizationCount(int optimizationCount) {
+        this.optimizationCount = optimizationCount;
+    }
+
+    public int getSecurityCount() {
+        return securityCount;
+    }
+
+    public void setSecurityCount(int securityCount) {
+        this.securityCount = securityCount;
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+}
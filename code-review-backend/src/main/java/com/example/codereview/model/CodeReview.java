@@ -1,11 +1,19 @@
 package com.example.codereview.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+// A review is never modified once saved: it and its issues are immutable and cached read-only
 @Entity
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "reviews")
 public class CodeReview {
 
     @Id
@@ -14,7 +22,7 @@ public class CodeReview {
 
     private String filename;
 
-    @Column(length = 10000)
+    @Lob
     private String code;
 
     private LocalDateTime createdAt;
@@ -24,7 +32,16 @@ public class CodeReview {
     private int optimizationCount;
     private int securityCount;
 
+    // Saved from a gate-mode run that skipped or cancelled checks: issues and counts are incomplete
+    private boolean partial;
+
+    // CompilerTier the compiler issues came from; null if they came from a whole-project compile
+    private String compilerTier;
+
     @OneToMany(mappedBy = "codeReview", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @Immutable
+    @Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "review-issues")
     private List<Issue> issues = new ArrayList<>();
 
     // ---------------- GETTERS & SETTERS ----------------
@@ -100,4 +117,20 @@ public class CodeReview {
     public void setIssues(List<Issue> issues) {
         this.issues = issues;
     }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+
+    public String getCompilerTier() {
+        return compilerTier;
+    }
+
+    public void setCompilerTier(String compilerTier) {
+        this.compilerTier = compilerTier;
+    }
 }
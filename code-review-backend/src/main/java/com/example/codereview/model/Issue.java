@@ -1,8 +1,14 @@
 package com.example.codereview.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 
 @Entity
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "issues")
 public class Issue {
 
     @Id
@@ -11,6 +17,16 @@ public class Issue {
 
     private int lineNumber;
 
+    // Aggregated issues: one row for the same finding on many lines (see IssueAggregator)
+    private int occurrences = 1;
+    private Integer endLineNumber;
+    @Column(length = 8000)
+    private String lineRanges;
+    // true when the folded occurrences differ in description; the description is then a summary
+    private boolean variedDetails;
+
+    private String ruleName;
+
     private String title;
 
     @Column(length = 2000)
@@ -94,4 +110,44 @@ public class Issue {
     public void setCodeReview(CodeReview codeReview) {
         this.codeReview = codeReview;
     }
+
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+    public void setOccurrences(int occurrences) {
+        this.occurrences = occurrences;
+    }
+
+    public Integer getEndLineNumber() {
+        return endLineNumber;
+    }
+
+    public void setEndLineNumber(Integer endLineNumber) {
+        this.endLineNumber = endLineNumber;
+    }
+
+    public String getLineRanges() {
+        return lineRanges;
+    }
+
+    public void setLineRanges(String lineRanges) {
+        this.lineRanges = lineRanges;
+    }
+
+    public boolean isVariedDetails() {
+        return variedDetails;
+    }
+
+    public void setVariedDetails(boolean variedDetails) {
+        this.variedDetails = variedDetails;
+    }
+
+    public String getRuleName() {
+        return ruleName;
+    }
+
+    public void setRuleName(String ruleName) {
+        this.ruleName = ruleName;
+    }
 }
@@ -1,9 +1,29 @@
 package com.example.codereview.repository;
 
+import com.example.codereview.dto.ReviewSummaryResponse;
 import com.example.codereview.model.CodeReview;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface CodeReviewRepository extends JpaRepository<CodeReview, Long> {
+
+    // Review and issues in one join instead of a second lazy-load query
+    @EntityGraph(attributePaths = "issues")
+    Optional<CodeReview> findWithIssuesById(Long id);
+
+    @Query("select new com.example.codereview.dto.ReviewSummaryResponse(r.id, r.filename, r.createdAt, "
+            + "r.errorCount, r.warningCount, r.optimizationCount, r.securityCount, r.partial) "
+            + "from CodeReview r order by r.createdAt desc, r.id desc")
+    List<ReviewSummaryResponse> findSummaries();
+
+    @Query("select count(r) as reviews, coalesce(sum(r.errorCount), 0) as errors, "
+            + "coalesce(sum(r.warningCount), 0) as warnings, coalesce(sum(r.optimizationCount), 0) as optimizations, "
+            + "coalesce(sum(r.securityCount), 0) as security from CodeReview r where r.partial = false")
+    ReviewTotals totals();
 }
@@ -0,0 +1,15 @@
+package com.example.codereview.repository;
+
+/** Aggregate counts over all complete (non-partial) reviews, computed by the database. */
+public interface ReviewTotals {
+
+    long getReviews();
+
+    long getErrors();
+
+    long getWarnings();
+
+    long getOptimizations();
+
+    long getSecurity();
+}
@@ -0,0 +1,118 @@
+package com.example.codereview.service;
+
+import com.example.codereview.service.admission.AdmissionRejectedException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Executors used for the internal fan-out of an analysis.
+ *
+ * <p>{@link #cpu()} is a fixed pool of platform threads sized to the core count. It is kept
+ * separate from the virtual-thread carrier pool so CPU-heavy work (javac, rules) stays bounded
+ * no matter how many request threads are waiting on it. When request handling runs on virtual
+ * threads ({@code spring.threads.virtual.enabled}, Java 21+) the rule phase is also moved onto
+ * this pool so a virtual thread never monopolizes a carrier while analyzing. A full queue rejects
+ * the submission with 503 rather than running it on the caller, which would put the work back on
+ * a carrier outside the bound.
+ *
+ * <p>{@link #forkJoin()} runs the chunks of a single very large file in parallel. It is a
+ * dedicated pool rather than the common pool so parallel streams elsewhere cannot starve it.
+ */
+@Component
+public class AnalysisExecutors {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisExecutors.class);
+
+    private final ThreadPoolExecutor cpu;
+    private final ForkJoinPool forkJoin;
+    private final boolean offloadRules;
+
+    public AnalysisExecutors(@Value("${codereview.executor.cpu-threads:0}") int cpuThreads,
+                             @Value("${codereview.executor.cpu-queue:256}") int cpuQueue,
+                             @Value("${codereview.executor.parallel-threads:0}") int parallelThreads,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        int threads = cpuThreads > 0 ? cpuThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger ids = new AtomicInteger();
+        this.cpu = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(cpuQueue),
+                r -> {
+                    Thread t = new Thread(r, "analysis-cpu-" + ids.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                (r, executor) -> {
+                    throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE,
+                            "Analysis capacity is exhausted; retry shortly.", 1);
+                });
+        int parallelism = parallelThreads > 0 ? parallelThreads : Runtime.getRuntime().availableProcessors();
+        this.forkJoin = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            t.setName("analysis-fj-" + t.getPoolIndex());
+            return t;
+        }, null, false);
+        this.offloadRules = virtualThreads && Runtime.version().feature() >= 21;
+        if (virtualThreads && !offloadRules) {
+            log.warn("Virtual threads requested but Java {} does not support them", Runtime.version());
+        }
+    }
+
+    public ExecutorService cpu() {
+        return cpu;
+    }
+
+    public ForkJoinPool forkJoin() {
+        return forkJoin;
+    }
+
+    /**
+     * Runs CPU-bound work for the current request: inline on platform threads, on the CPU pool
+     * when requests are served by virtual threads.
+     */
+    public <T> T runCpuBound(Supplier<T> task) {
+        if (!offloadRules) {
+            return task.get();
+        }
+        return await(cpu.submit(task::get));
+    }
+
+    /**
+     * Waits for {@code future}, cancelling it if the waiting thread is interrupted.
+     * Failures of the task are rethrown unwrapped.
+     */
+    public static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Analysis cancelled");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        cpu.shutdownNow();
+        forkJoin.shutdownNow();
+    }
+}
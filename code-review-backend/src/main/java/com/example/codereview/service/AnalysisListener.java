@@ -0,0 +1,35 @@
+package com.example.codereview.service;
+
+/**
+ * Callbacks fired by {@link CodeAnalysisService} as an analysis moves through its phases.
+ * Listeners run on the analyzing thread and should return quickly.
+ */
+public interface AnalysisListener {
+
+    AnalysisListener NONE = new AnalysisListener() {};
+
+    /**
+     * May throw {@link java.util.concurrent.CancellationException} to stop the analysis before
+     * the phase begins; for {@link AnalysisPhase#PERSIST} that means nothing is saved.
+     */
+    default void phaseStarted(AnalysisPhase phase) {}
+
+    default void phaseFinished(AnalysisPhase phase) {}
+
+    default void ruleStarted(String ruleName) {}
+
+    default void ruleFinished(String ruleName, int issueCount) {}
+
+    /**
+     * A rule that ran off the analyzing thread, split across the chunks of a very large file;
+     * {@code nanos} is its run time summed over all chunks. Listeners that time rules themselves
+     * should use it instead of the start/finish pair this defaults to.
+     */
+    default void ruleCompleted(String ruleName, int issueCount, long nanos) {
+        ruleStarted(ruleName);
+        ruleFinished(ruleName, issueCount);
+    }
+
+    /** The rule was not run because its prefilter keywords do not occur in the file. */
+    default void ruleSkipped(String ruleName) {}
+}
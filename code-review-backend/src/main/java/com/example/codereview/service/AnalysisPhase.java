@@ -0,0 +1,11 @@
+package com.example.codereview.service;
+
+public enum AnalysisPhase {
+    // line index and member blocks
+    SPLIT,
+    RULES,
+    COMPILE,
+    PERSIST,
+    // entities to response DTOs
+    MAP
+}
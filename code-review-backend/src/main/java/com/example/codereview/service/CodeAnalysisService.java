@@ -1,82 +1,266 @@
 package com.example.codereview.service;
 
+import com.example.codereview.dto.AnalysisProfile;
 import com.example.codereview.dto.AnalyzeRequest;
 import com.example.codereview.dto.AnalyzeResponse;
+import com.example.codereview.dto.GateResult;
 import com.example.codereview.dto.IssueDto;
 import com.example.codereview.model.*;
 import com.example.codereview.repository.CodeReviewRepository;
+import com.example.codereview.service.compiler.CompileDiagnostic;
+import com.example.codereview.service.compiler.CompilerTier;
+import com.example.codereview.service.compiler.JavaCompilerDiagnostics;
+import com.example.codereview.service.gate.AnalysisGate;
+import com.example.codereview.service.gate.RuleCostModel;
+import com.example.codereview.service.profile.AnalysisProfiler;
+import com.example.codereview.service.profile.JfrRecorder;
 import com.example.codereview.service.rules.AnalysisContext;
 import com.example.codereview.service.rules.AnalysisRule;
+import com.example.codereview.service.rules.IssueAggregator;
+import com.example.codereview.service.rules.IssueSink;
 import com.example.codereview.service.rules.RuleRegistry;
+import com.example.codereview.service.rules.RuleResultCache;
+import com.example.codereview.service.source.SourceText;
+import jdk.jfr.Recording;
 import org.springframework.stereotype.Service;
 
-import javax.tools.Diagnostic;
-import javax.tools.DiagnosticCollector;
-import javax.tools.JavaCompiler;
-import javax.tools.JavaFileObject;
-import javax.tools.SimpleJavaFileObject;
-import javax.tools.ToolProvider;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
-import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
 
 @Service
 public class CodeAnalysisService {
 
     private final CodeReviewRepository codeReviewRepository;
     private final RuleRegistry ruleRegistry;
+    private final AnalysisExecutors executors;
+    private final JavaCompilerDiagnostics compiler;
+    private final RuleResultCache ruleResultCache;
+    private final JfrRecorder jfrRecorder;
+    private final ParallelRuleRunner parallelRules;
+    private final RuleCostModel costModel;
+    private final IssueAggregator aggregator;
 
-    public CodeAnalysisService(CodeReviewRepository codeReviewRepository, RuleRegistry ruleRegistry) {
+    public CodeAnalysisService(CodeReviewRepository codeReviewRepository, RuleRegistry ruleRegistry,
+                               AnalysisExecutors executors, JavaCompilerDiagnostics compiler,
+                               RuleResultCache ruleResultCache, JfrRecorder jfrRecorder,
+                               ParallelRuleRunner parallelRules, RuleCostModel costModel,
+                               IssueAggregator aggregator) {
         this.codeReviewRepository = codeReviewRepository;
         this.ruleRegistry = ruleRegistry;
+        this.executors = executors;
+        this.compiler = compiler;
+        this.ruleResultCache = ruleResultCache;
+        this.jfrRecorder = jfrRecorder;
+        this.parallelRules = parallelRules;
+        this.costModel = costModel;
+        this.aggregator = aggregator;
     }
 
     public AnalyzeResponse analyze(AnalyzeRequest request) {
-        String code = request.getCode();
-        String[] lines = code.split("\n");
+        return analyze(request, AnalysisListener.NONE);
+    }
 
-        CodeReview review = new CodeReview();
-        review.setFilename(request.getFilename() != null ? request.getFilename() : "inline.java");
-        review.setCode(code);
-        review.setCreatedAt(LocalDateTime.now());
+    /**
+     * Runs the analysis, reporting progress to {@code listener}. If the calling thread is
+     * interrupted the analysis stops between rules or inside javac with a
+     * {@link CancellationException} and nothing is persisted. Requests with a gate expression
+     * run in gate mode, see {@link #analyzeGated}.
+     */
+    public AnalyzeResponse analyze(AnalyzeRequest request, AnalysisListener listener) {
+        if (request.getGate() != null) {
+            return analyzeGated(request, AnalysisGate.parse(request.getGate()), listener);
+        }
+        return analyze(request.getFilename(), SourceText.of(request.getCode()), listener,
+                CompilerTier.fromRequest(request.getCompilerTier()));
+    }
 
-        List<Issue> issueEntities = new ArrayList<>();
-        List<IssueDto> issueDtos = new ArrayList<>();
-
-        int errors = 0, warnings = 0, optimizations = 0, security = 0;
-
-        // Run pluggable rules
-        AnalysisContext context = new AnalysisContext(review, code, lines);
-        for (AnalysisRule rule : ruleRegistry.getEnabledRules()) {
-            List<Issue> produced = rule.apply(context);
-            for (Issue issue : produced) {
-                issueEntities.add(issue);
-                issueDtos.add(toDto(issue));
-                if (issue.getCategory() == IssueCategory.ERROR) errors++;
-                else if (issue.getCategory() == IssueCategory.WARNING) warnings++;
-                else if (issue.getCategory() == IssueCategory.OPTIMIZATION) optimizations++;
-                else if (issue.getCategory() == IssueCategory.SECURITY) security++;
+    /**
+     * Runs the analysis with an {@link AnalysisProfiler} attached and returns the per-phase and
+     * per-rule breakdown in {@link AnalyzeResponse#getProfile()}, optionally with a JFR recording
+     * of the request.
+     */
+    public AnalyzeResponse analyzeProfiled(AnalyzeRequest request, boolean recordJfr) {
+        AnalysisProfiler profiler = new AnalysisProfiler(AnalysisListener.NONE);
+        Recording recording = recordJfr ? jfrRecorder.start() : null;
+        String recordingId = null;
+        AnalyzeResponse response;
+        try {
+            response = analyze(request, profiler);
+        } finally {
+            if (recording != null) {
+                recordingId = jfrRecorder.finish(recording);
             }
         }
+        AnalysisProfile profile = profiler.toProfile();
+        profile.setRecordingId(recordingId);
+        response.setProfile(profile);
+        return response;
+    }
 
-        // Java compiler diagnostics for real syntax/type errors (best-effort)
-        List<Issue> compilerIssues = runJavaCompilerDiagnostics(review, request.getFilename(), code);
-        for (Issue issue : compilerIssues) {
-            issueEntities.add(issue);
-            issueDtos.add(toDto(issue));
-            errors++;
+    public AnalyzeResponse analyze(String filename, SourceText source, AnalysisListener listener) {
+        return analyze(filename, source, listener, CompilerTier.FULL);
+    }
+
+    public AnalyzeResponse analyze(String filename, SourceText source, AnalysisListener listener, CompilerTier tier) {
+        // javac is the most expensive step, so it runs on the CPU pool while the rules run here
+        return analyze(filename, source, listener, submitCompile(filename, source, listener, tier), tier, true);
+    }
+
+    /**
+     * Same analysis as {@link #analyze(String, SourceText, AnalysisListener, CompilerTier)}, but
+     * nothing is saved: the response has no review id and its issues have no ids. Used for
+     * previews such as live editor analysis.
+     */
+    public AnalyzeResponse analyzeTransient(String filename, SourceText source, AnalysisListener listener, CompilerTier tier) {
+        return analyze(filename, source, listener, submitCompile(filename, source, listener, tier), tier, false);
+    }
+
+    /**
+     * Gate mode: runs only until the pass/fail verdict of {@code gate} is known. Rules that
+     * cannot report an issue the gate counts are skipped and the rest run in the order chosen by
+     * {@link RuleCostModel}, sequentially even for very large files. javac runs alongside them
+     * only if the gate counts compile errors. Once the gate has failed, the remaining rules and
+     * the compile are cancelled. The response carries the issues found up to then and a
+     * {@link GateResult}; the review is saved only if the request asks for it, and is then marked
+     * partial unless every applicable check ran.
+     */
+    public AnalyzeResponse analyzeGated(AnalyzeRequest request, AnalysisGate gate, AnalysisListener listener) {
+        String filename = request.getFilename();
+        SourceText source = SourceText.of(request.getCode());
+        CompilerTier tier = CompilerTier.fromRequest(request.getCompilerTier());
+        CodeReview review = newReview(filename, tier);
+        GateRun run = new GateRun(gate);
+
+        Future<List<CompileDiagnostic>> compile = tier != CompilerTier.NONE && gate.countsCompileErrors()
+                ? submitCompile(filename, source, listener, tier)
+                : null;
+        IssueSink issues;
+        try {
+            listener.phaseStarted(AnalysisPhase.SPLIT);
+            AnalysisContext context = new AnalysisContext(review, source);
+            context.getBlocks();
+            listener.phaseFinished(AnalysisPhase.SPLIT);
+
+            listener.phaseStarted(AnalysisPhase.RULES);
+            issues = executors.runCpuBound(() -> runGateRules(context, run, compile, listener));
+            listener.phaseFinished(AnalysisPhase.RULES);
+
+            checkCancelled();
+            if (compile != null && !run.compileCounted && !run.failed()) {
+                listener.phaseStarted(AnalysisPhase.COMPILE);
+                run.countCompile(issues, AnalysisExecutors.await(compile));
+                listener.phaseFinished(AnalysisPhase.COMPILE);
+            }
+        } finally {
+            if (compile != null) {
+                compile.cancel(true);
+            }
         }
+        checkCancelled();
 
+        // A saved review that not every check contributed to must not pass for a full one
+        review.setPartial(!run.complete(tier));
+        AnalyzeResponse response = complete(review, source, issues, request.isPersist(), listener);
+        response.setGate(run.toResult(compile != null));
+        return response;
+    }
+
+    private Future<List<CompileDiagnostic>> submitCompile(String filename, SourceText source,
+                                                          AnalysisListener listener, CompilerTier tier) {
+        Callable<List<CompileDiagnostic>> task = () -> compiler.compile(filename, source, tier);
+        if (listener instanceof AnalysisProfiler) {
+            task = ((AnalysisProfiler) listener).measured("javac", task);
+        }
+        return executors.cpu().submit(task);
+    }
+
+    /**
+     * Runs the rules over {@code source} and combines them with compiler diagnostics that are
+     * produced elsewhere, e.g. by a whole-project compilation. {@code compile} is cancelled if
+     * the analysis is abandoned before it completes.
+     */
+    public AnalyzeResponse analyze(String filename, SourceText source, AnalysisListener listener,
+                                   Future<List<CompileDiagnostic>> compile) {
+        return analyze(filename, source, listener, compile, null, true);
+    }
+
+    // tier is null when the diagnostics come from elsewhere and cannot be reproduced for this file alone
+    private AnalyzeResponse analyze(String filename, SourceText source, AnalysisListener listener,
+                                    Future<List<CompileDiagnostic>> compile, CompilerTier tier, boolean persist) {
+        CodeReview review = newReview(filename, tier);
+
+        IssueSink issues;
+        List<CompileDiagnostic> compilerDiagnostics;
+        try {
+            listener.phaseStarted(AnalysisPhase.SPLIT);
+            AnalysisContext context = new AnalysisContext(review, source);
+            context.getBlocks();
+            listener.phaseFinished(AnalysisPhase.SPLIT);
+
+            // Run pluggable rules
+            listener.phaseStarted(AnalysisPhase.RULES);
+            issues = executors.runCpuBound(() -> runRules(context, listener));
+            listener.phaseFinished(AnalysisPhase.RULES);
+
+            // Java compiler diagnostics for real syntax/type errors (best-effort)
+            checkCancelled();
+            listener.phaseStarted(AnalysisPhase.COMPILE);
+            compilerDiagnostics = AnalysisExecutors.await(compile);
+        } finally {
+            // no-op once the compile has completed; stops javac if we bailed out early
+            compile.cancel(true);
+        }
+        addCompileErrors(issues, compilerDiagnostics);
+        listener.phaseFinished(AnalysisPhase.COMPILE);
+        checkCancelled();
+
+        return complete(review, source, issues, persist, listener);
+    }
+
+    // The code is only copied into the review when it is saved, see complete()
+    private static CodeReview newReview(String filename, CompilerTier tier) {
+        CodeReview review = new CodeReview();
+        review.setFilename(filename != null ? filename : "inline.java");
+        review.setCompilerTier(tier != null ? tier.name() : null);
+        review.setCreatedAt(LocalDateTime.now());
+        return review;
+    }
+
+    /**
+     * Counts, optionally saves and maps the finished review. Only a saved review gets the code:
+     * a memory-mapped upload is materialized as a String here, once, and never for transient or
+     * gate-only runs.
+     */
+    private AnalyzeResponse complete(CodeReview review, SourceText source, IssueSink issues, boolean persist,
+                                     AnalysisListener listener) {
+        int errors = issues.count(IssueCategory.ERROR);
+        int warnings = issues.count(IssueCategory.WARNING);
+        int optimizations = issues.count(IssueCategory.OPTIMIZATION);
+        int security = issues.count(IssueCategory.SECURITY);
         review.setErrorCount(errors);
         review.setWarningCount(warnings);
         review.setOptimizationCount(optimizations);
         review.setSecurityCount(security);
+        // Entities are only created here, for persistence; repeated issues become one ranged issue
+        List<Issue> issueEntities = aggregator.toEntities(issues, review);
         review.getIssues().addAll(issueEntities);
 
-        review = codeReviewRepository.save(review);
+        if (persist) {
+            listener.phaseStarted(AnalysisPhase.PERSIST);
+            review.setCode(source.asString());
+            review = codeReviewRepository.save(review);
+            listener.phaseFinished(AnalysisPhase.PERSIST);
+        }
 
+        listener.phaseStarted(AnalysisPhase.MAP);
+        List<IssueDto> issueDtos = new ArrayList<>(issueEntities.size());
+        for (Issue issue : issueEntities) {
+            issueDtos.add(toDto(issue));
+        }
         AnalyzeResponse response = new AnalyzeResponse();
         response.setReviewId(review.getId());
         response.setFilename(review.getFilename());
@@ -85,74 +269,160 @@ public class CodeAnalysisService {
         response.setOptimizationCount(optimizations);
         response.setSecurityCount(security);
         response.setIssues(issueDtos);
+        listener.phaseFinished(AnalysisPhase.MAP);
 
         return response;
     }
 
-    private List<Issue> runJavaCompilerDiagnostics(CodeReview review, String originalFilename, String code) {
-        List<Issue> out = new ArrayList<>();
-        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-        if (compiler == null) {
-            // JRE detected (no compiler available) - skip
-            return out;
-        }
-        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-        String className = derivePrimaryClassName(originalFilename, code);
-        JavaFileObject file = new InMemoryJavaSource(className, code);
-        List<String> options = List.of("--release", "17");
-        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null, List.of(file));
-        Boolean success = task.call();
-        if (Boolean.TRUE.equals(success)) {
-            return out;
-        }
-        for (Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics()) {
-            if (d.getKind() == Diagnostic.Kind.ERROR) {
-                int line = (int) d.getLineNumber();
-                String message = d.getMessage(Locale.getDefault());
-                Issue issue = makeIssue(review, Math.max(line, 0),
-                        "Compile error",
-                        message,
-                        "Fix the compilation error reported by the Java compiler.",
-                        IssueCategory.ERROR, Severity.HIGH);
-                out.add(issue);
+    private IssueSink runRules(AnalysisContext context, AnalysisListener listener) {
+        // One keyword scan rules out everything that cannot match this file
+        List<AnalysisRule> skipped = new ArrayList<>();
+        List<AnalysisRule> applicable = ruleRegistry.getApplicableRules(context.getSource(), skipped);
+        for (AnalysisRule rule : skipped) {
+            listener.ruleSkipped(rule.name());
+        }
+        // Huge files: block-local rules run chunk-parallel
+        if (parallelRules.appliesTo(context)) {
+            return parallelRules.run(context, applicable, listener);
+        }
+        IssueSink sink = new IssueSink();
+        for (AnalysisRule rule : applicable) {
+            checkCancelled();
+            listener.ruleStarted(rule.name());
+            int before = sink.size();
+            sink.beginRule(rule.name());
+            long start = System.nanoTime();
+            // Block-local rules reuse results for member blocks seen before
+            ruleResultCache.apply(rule, context, sink);
+            costModel.record(rule.name(), System.nanoTime() - start, severityMask(sink, before));
+            listener.ruleFinished(rule.name(), sink.size() - before);
+        }
+        return sink;
+    }
+
+    private IssueSink runGateRules(AnalysisContext context, GateRun run,
+                                   Future<List<CompileDiagnostic>> compile, AnalysisListener listener) {
+        List<AnalysisRule> skipped = new ArrayList<>();
+        List<AnalysisRule> candidates = new ArrayList<>();
+        for (AnalysisRule rule : ruleRegistry.getApplicableRules(context.getSource(), skipped)) {
+            if (run.gate.countsAny(rule.reportedSeverities())) {
+                candidates.add(rule);
+            } else {
+                skipped.add(rule);
+                run.rulesOutOfGate++;
             }
         }
-        return out;
+        List<AnalysisRule> ordered = costModel.order(candidates, run.gate);
+        IssueSink sink = new IssueSink();
+        int next = 0;
+        while (next < ordered.size() && !run.failed()) {
+            checkCancelled();
+            AnalysisRule rule = ordered.get(next++);
+            listener.ruleStarted(rule.name());
+            int before = sink.size();
+            sink.beginRule(rule.name());
+            long start = System.nanoTime();
+            ruleResultCache.apply(rule, context, sink);
+            costModel.record(rule.name(), System.nanoTime() - start, severityMask(sink, before));
+            listener.ruleFinished(rule.name(), sink.size() - before);
+            run.count(sink, before);
+            // A compile that finished early can decide the gate before the remaining rules run
+            if (compile != null && compile.isDone() && !run.compileCounted && !run.failed()) {
+                run.countCompile(sink, AnalysisExecutors.await(compile));
+            }
+        }
+        skipped.addAll(ordered.subList(next, ordered.size()));
+        for (AnalysisRule rule : skipped) {
+            listener.ruleSkipped(rule.name());
+        }
+        run.rulesRun = next;
+        run.rulesSkipped = skipped.size();
+        run.rulesCancelled = ordered.size() - next;
+        return sink;
+    }
+
+    /** Bit {@code s.ordinal()} set for every severity {@code s} among the issues from index {@code from}. */
+    static int severityMask(IssueSink sink, int from) {
+        int mask = 0;
+        for (int i = from; i < sink.size(); i++) {
+            mask |= 1 << sink.severity(i).ordinal();
+        }
+        return mask;
+    }
+
+    /** Title of every issue that comes from javac. */
+    public static final String COMPILE_ERROR_TITLE = "Compile error";
+
+    /** Adds javac errors to {@code sink} as ERROR issues under the pseudo-rule "javac". */
+    public static void addCompileErrors(IssueSink sink, List<CompileDiagnostic> diagnostics) {
+        sink.beginRule("javac");
+        for (CompileDiagnostic d : diagnostics) {
+            sink.add(d.getLineNumber(),
+                    COMPILE_ERROR_TITLE,
+                    d.getMessage(),
+                    "Fix the compilation error reported by the Java compiler.",
+                    IssueCategory.ERROR, Severity.HIGH);
+        }
     }
 
-    private String derivePrimaryClassName(String filename, String code) {
-        if (filename != null && filename.endsWith(".java")) {
-            String nameOnly = filename.substring(0, filename.length() - 5);
-            if (!nameOnly.isBlank()) return nameOnly;
+    /** Progress of one gate-mode analysis. */
+    private static final class GateRun {
+        final AnalysisGate gate;
+        int matched;
+        int rulesRun;
+        int rulesSkipped;
+        int rulesCancelled;
+        // applicable rules not run because they cannot report anything the gate counts
+        int rulesOutOfGate;
+        boolean compileCounted;
+
+        GateRun(AnalysisGate gate) {
+            this.gate = gate;
+        }
+
+        boolean failed() {
+            return matched >= gate.getThreshold();
+        }
+
+        void count(IssueSink sink, int from) {
+            for (int i = from; i < sink.size(); i++) {
+                if (gate.counts(sink.category(i), sink.severity(i))) matched++;
+            }
+        }
+
+        void countCompile(IssueSink sink, List<CompileDiagnostic> diagnostics) {
+            int before = sink.size();
+            addCompileErrors(sink, diagnostics);
+            count(sink, before);
+            compileCounted = true;
         }
-        // Fallback: try find 'class X' in the code
-        String marker = "class ";
-        int idx = code.indexOf(marker);
-        if (idx >= 0) {
-            int start = idx + marker.length();
-            int end = start;
-            while (end < code.length() && Character.isJavaIdentifierPart(code.charAt(end))) end++;
-            String candidate = code.substring(start, end).trim();
-            if (!candidate.isBlank()) return candidate;
+
+        /** True if every applicable check ran to completion, as in a full analysis. */
+        boolean complete(CompilerTier tier) {
+            return rulesCancelled == 0 && rulesOutOfGate == 0 && (tier == CompilerTier.NONE || compileCounted);
+        }
+
+        GateResult toResult(boolean compileStarted) {
+            GateResult result = new GateResult();
+            result.setExpression(gate.getExpression());
+            result.setPassed(!failed());
+            result.setMatchedIssues(matched);
+            result.setThreshold(gate.getThreshold());
+            result.setRulesRun(rulesRun);
+            result.setRulesSkipped(rulesSkipped);
+            result.setCompile(compileCounted ? "completed" : compileStarted ? "cancelled" : "skipped");
+            result.setStoppedEarly(rulesCancelled > 0 || (compileStarted && !compileCounted));
+            return result;
         }
-        return "InlineClass";
     }
 
-    private Issue makeIssue(CodeReview review, int lineNumber,
-                            String title, String description, String suggestion,
-                            IssueCategory category, Severity severity) {
-        Issue issue = new Issue();
-        issue.setCodeReview(review);
-        issue.setLineNumber(lineNumber);
-        issue.setTitle(title);
-        issue.setDescription(description);
-        issue.setSuggestion(suggestion);
-        issue.setCategory(category);
-        issue.setSeverity(severity);
-        return issue;
+    private static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Analysis cancelled");
+        }
     }
 
-    private IssueDto toDto(Issue issue) {
+    static IssueDto toDto(Issue issue) {
         IssueDto dto = new IssueDto();
         dto.setId(issue.getId());
         dto.setLineNumber(issue.getLineNumber());
@@ -161,19 +431,11 @@ public class CodeAnalysisService {
         dto.setSuggestion(issue.getSuggestion());
         dto.setCategory(issue.getCategory());
         dto.setSeverity(issue.getSeverity());
-        return dto;
-    }
-
-    static class InMemoryJavaSource extends SimpleJavaFileObject {
-        private final String source;
-        InMemoryJavaSource(String className, String source) {
-            super(java.net.URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension),
-                    JavaFileObject.Kind.SOURCE);
-            this.source = Objects.requireNonNull(source);
-        }
-        @Override
-        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
-            return source;
+        if (issue.getOccurrences() > 1) {
+            dto.setOccurrences(issue.getOccurrences());
+            dto.setEndLineNumber(issue.getEndLineNumber());
+            dto.setLineRanges(issue.getLineRanges());
         }
+        return dto;
     }
 }
@@ -0,0 +1,102 @@
+package com.example.codereview.service;
+
+import com.example.codereview.dto.IssueDto;
+import com.example.codereview.dto.IssueOccurrencesResponse;
+import com.example.codereview.model.CodeReview;
+import com.example.codereview.model.Issue;
+import com.example.codereview.repository.IssueRepository;
+import com.example.codereview.service.compiler.CompilerTier;
+import com.example.codereview.service.compiler.JavaCompilerDiagnostics;
+import com.example.codereview.service.rules.AnalysisContext;
+import com.example.codereview.service.rules.AnalysisRule;
+import com.example.codereview.service.rules.IssueSink;
+import com.example.codereview.service.rules.RuleRegistry;
+import com.example.codereview.service.source.SourceText;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Lists the individual occurrences behind an aggregated issue. They are not stored; the rule
+ * that reported the issue is re-run on the review's code and its findings are filtered down to
+ * the aggregate's message and line span, so storage stays bounded however repetitive a file is.
+ * Compiler issues are re-derived with the {@link CompilerTier} the review was analyzed with.
+ * Callers admit this work on the batch lane.
+ */
+@Service
+@Transactional(readOnly = true)
+public class IssueExpansionService {
+
+    private final IssueRepository issueRepository;
+    private final RuleRegistry ruleRegistry;
+    private final JavaCompilerDiagnostics compiler;
+
+    public IssueExpansionService(IssueRepository issueRepository, RuleRegistry ruleRegistry,
+                                 JavaCompilerDiagnostics compiler) {
+        this.issueRepository = issueRepository;
+        this.ruleRegistry = ruleRegistry;
+        this.compiler = compiler;
+    }
+
+    /** Empty if the review has no such issue. */
+    public Optional<IssueOccurrencesResponse> occurrences(Long reviewId, Long issueId, int offset, int limit) {
+        Optional<Issue> found = issueRepository.findById(issueId)
+                .filter(issue -> Objects.equals(issue.getCodeReview().getId(), reviewId));
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        Issue aggregate = found.get();
+        List<IssueDto> all = expand(aggregate);
+
+        int from = Math.min(Math.max(offset, 0), all.size());
+        int to = Math.min(from + Math.max(limit, 0), all.size());
+        IssueOccurrencesResponse response = new IssueOccurrencesResponse();
+        response.setReviewId(reviewId);
+        response.setIssueId(issueId);
+        response.setTotal(all.size());
+        response.setOffset(from);
+        response.setIssues(new ArrayList<>(all.subList(from, to)));
+        return Optional.of(response);
+    }
+
+    private List<IssueDto> expand(Issue aggregate) {
+        if (aggregate.getOccurrences() <= 1 || aggregate.getRuleName() == null) {
+            return List.of(CodeAnalysisService.toDto(aggregate));
+        }
+        CodeReview review = aggregate.getCodeReview();
+        SourceText source = SourceText.of(review.getCode());
+        IssueSink sink = new IssueSink();
+        if ("javac".equals(aggregate.getRuleName())) {
+            if (review.getCompilerTier() == null) {
+                // From a whole-project compile, which this file alone would not reproduce
+                return List.of(CodeAnalysisService.toDto(aggregate));
+            }
+            CodeAnalysisService.addCompileErrors(sink,
+                    compiler.compile(review.getFilename(), source, CompilerTier.valueOf(review.getCompilerTier())));
+        } else {
+            Optional<AnalysisRule> rule = ruleRegistry.findRule(aggregate.getRuleName());
+            if (rule.isEmpty()) {
+                return List.of(CodeAnalysisService.toDto(aggregate));
+            }
+            rule.get().apply(new AnalysisContext(review, source), sink);
+        }
+
+        int endLine = aggregate.getEndLineNumber() != null ? aggregate.getEndLineNumber() : aggregate.getLineNumber();
+        List<IssueDto> out = new ArrayList<>();
+        for (int i = 0; i < sink.size(); i++) {
+            int line = sink.line(i);
+            if (line < aggregate.getLineNumber() || line > endLine) continue;
+            if (!Objects.equals(sink.template(i).getTitle(), aggregate.getTitle())) continue;
+            if (!aggregate.isVariedDetails()
+                    && !Objects.equals(sink.template(i).getDescription(), aggregate.getDescription())) continue;
+            out.add(CodeAnalysisService.toDto(sink.toEntity(i, review)));
+        }
+        out.sort(Comparator.comparingInt(IssueDto::getLineNumber));
+        return out;
+    }
+}
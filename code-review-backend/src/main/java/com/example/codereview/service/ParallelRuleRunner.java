@@ -0,0 +1,185 @@
+package com.example.codereview.service;
+
+import com.example.codereview.service.gate.RuleCostModel;
+import com.example.codereview.service.rules.AnalysisContext;
+import com.example.codereview.service.rules.AnalysisRule;
+import com.example.codereview.service.rules.IssueSink;
+import com.example.codereview.service.rules.RuleResultCache;
+import com.example.codereview.service.source.BlockPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs the rules of one very large file with intra-file parallelism. The file's top-level
+ * member blocks are grouped into chunks of roughly equal line count; block-local rules run on
+ * every chunk in the fork-join pool while whole-file rules run once on the calling thread.
+ * Results are merged back in rule order with file line numbers, so the output is identical to
+ * a sequential run.
+ *
+ * <p>Listener callbacks stay on the calling thread: block-local rules are reported as they are
+ * merged, after the parallel phase, through {@link AnalysisListener#ruleCompleted} with their
+ * run time summed over the chunks. The same sums feed the {@link RuleCostModel}.
+ */
+@Component
+public class ParallelRuleRunner {
+
+    private final AnalysisExecutors executors;
+    private final RuleResultCache ruleResultCache;
+    private final RuleCostModel costModel;
+    private final int minLines;
+    private final int minChunkLines;
+
+    public ParallelRuleRunner(AnalysisExecutors executors, RuleResultCache ruleResultCache, RuleCostModel costModel,
+                              @Value("${codereview.rules.parallel-min-lines:20000}") int minLines,
+                              @Value("${codereview.rules.parallel-chunk-lines:2000}") int minChunkLines) {
+        this.executors = executors;
+        this.ruleResultCache = ruleResultCache;
+        this.costModel = costModel;
+        this.minLines = minLines;
+        this.minChunkLines = Math.max(1, minChunkLines);
+    }
+
+    /** True if {@code context} is large enough, and splits into enough blocks, to be worth forking. */
+    public boolean appliesTo(AnalysisContext context) {
+        return minLines > 0
+                && context.getLineCount() >= minLines
+                && context.getBlocks().blockCount() > 1
+                && executors.forkJoin().getParallelism() > 1;
+    }
+
+    public IssueSink run(AnalysisContext context, List<AnalysisRule> rules, AnalysisListener listener) {
+        List<AnalysisRule> local = new ArrayList<>();
+        for (AnalysisRule rule : rules) {
+            if (rule.isBlockLocal()) local.add(rule);
+        }
+        int[] chunkStarts = chunk(context.getBlocks(), context.getLineCount());
+        int chunks = chunkStarts.length - 1;
+        // results[chunk][rule] and nanos[chunk][rule]: every leaf writes only its own row
+        IssueSink[][] results = new IssueSink[chunks][];
+        long[][] nanos = new long[chunks][];
+        ChunkTask root = new ChunkTask(context, local, chunkStarts, results, nanos, 0, chunks);
+        ForkJoinTask<Void> parallel = executors.forkJoin().submit(root);
+
+        IssueSink sink = new IssueSink();
+        try {
+            // Whole-file rules run here while the pool works through the chunks
+            List<IssueSink> wholeFile = new ArrayList<>();
+            for (AnalysisRule rule : rules) {
+                if (rule.isBlockLocal()) continue;
+                checkCancelled();
+                listener.ruleStarted(rule.name());
+                IssueSink ruleSink = new IssueSink();
+                long start = System.nanoTime();
+                rule.apply(context, ruleSink);
+                costModel.record(rule.name(), System.nanoTime() - start, CodeAnalysisService.severityMask(ruleSink, 0));
+                listener.ruleFinished(rule.name(), ruleSink.size());
+                wholeFile.add(ruleSink);
+            }
+            AnalysisExecutors.await(parallel);
+
+            int nextLocal = 0, nextWholeFile = 0;
+            for (AnalysisRule rule : rules) {
+                sink.beginRule(rule.name());
+                if (rule.isBlockLocal()) {
+                    int r = nextLocal++;
+                    int before = sink.size();
+                    long ruleNanos = 0;
+                    for (int c = 0; c < chunks; c++) {
+                        sink.addAll(results[c][r], 0);
+                        ruleNanos += nanos[c][r];
+                    }
+                    costModel.record(rule.name(), ruleNanos, CodeAnalysisService.severityMask(sink, before));
+                    listener.ruleCompleted(rule.name(), sink.size() - before, ruleNanos);
+                } else {
+                    sink.addAll(wholeFile.get(nextWholeFile++), 0);
+                }
+            }
+        } finally {
+            // Leaves poll this between rules; a no-op once the pool has finished
+            root.cancelled = true;
+        }
+        return sink;
+    }
+
+    /** Groups consecutive blocks into chunks of at least ~lines/(4 x parallelism) lines. */
+    private int[] chunk(BlockPartition blocks, int lineCount) {
+        int target = Math.max(minChunkLines, lineCount / (4 * executors.forkJoin().getParallelism()));
+        List<Integer> starts = new ArrayList<>();
+        starts.add(0);
+        int chunkStartLine = 0;
+        for (int b = 1; b < blocks.blockCount(); b++) {
+            if (blocks.startLine(b) - chunkStartLine >= target) {
+                starts.add(b);
+                chunkStartLine = blocks.startLine(b);
+            }
+        }
+        int[] out = new int[starts.size() + 1];
+        for (int i = 0; i < starts.size(); i++) out[i] = starts.get(i);
+        out[starts.size()] = blocks.blockCount();
+        return out;
+    }
+
+    private static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Analysis cancelled");
+        }
+    }
+
+    private final class ChunkTask extends RecursiveAction {
+        private final AnalysisContext context;
+        private final List<AnalysisRule> rules;
+        private final int[] chunkStarts;
+        private final IssueSink[][] results;
+        private final long[][] nanos;
+        private final int from;
+        private final int to;
+        private final ChunkTask root;
+        volatile boolean cancelled;
+
+        ChunkTask(AnalysisContext context, List<AnalysisRule> rules, int[] chunkStarts,
+                  IssueSink[][] results, long[][] nanos, int from, int to) {
+            this(context, rules, chunkStarts, results, nanos, from, to, null);
+        }
+
+        private ChunkTask(AnalysisContext context, List<AnalysisRule> rules, int[] chunkStarts,
+                          IssueSink[][] results, long[][] nanos, int from, int to, ChunkTask root) {
+            this.context = context;
+            this.rules = rules;
+            this.chunkStarts = chunkStarts;
+            this.results = results;
+            this.nanos = nanos;
+            this.from = from;
+            this.to = to;
+            this.root = root != null ? root : this;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ChunkTask(context, rules, chunkStarts, results, nanos, from, mid, root),
+                        new ChunkTask(context, rules, chunkStarts, results, nanos, mid, to, root));
+                return;
+            }
+            IssueSink[] row = new IssueSink[rules.size()];
+            long[] times = new long[rules.size()];
+            for (int r = 0; r < rules.size(); r++) {
+                if (root.cancelled) {
+                    throw new CancellationException("Analysis cancelled");
+                }
+                row[r] = new IssueSink();
+                long start = System.nanoTime();
+                ruleResultCache.apply(rules.get(r), context, chunkStarts[from], chunkStarts[from + 1], row[r]);
+                times[r] = System.nanoTime() - start;
+            }
+            results[from] = row;
+            nanos[from] = times;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.codereview.service;
+
+import com.example.codereview.dto.AnalyzeResponse;
+import com.example.codereview.dto.ProjectAnalyzeResponse;
+import com.example.codereview.service.compiler.InMemoryJavaSource;
+import com.example.codereview.service.compiler.ProjectCompilationCache;
+import com.example.codereview.service.source.ProjectFile;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Analyzes a set of files as one project. All files are compiled together in a single javac
+ * invocation, so cross-file references resolve and javac starts once per project; its
+ * diagnostics are then split back into one {@code CodeReview} per file. Compilation goes
+ * through {@link ProjectCompilationCache}, so re-analysis only attributes what changed.
+ */
+@Service
+public class ProjectAnalysisService {
+
+    private final CodeAnalysisService analysisService;
+    private final ProjectCompilationCache compilationCache;
+    private final AnalysisExecutors executors;
+
+    public ProjectAnalysisService(CodeAnalysisService analysisService, ProjectCompilationCache compilationCache,
+                                  AnalysisExecutors executors) {
+        this.analysisService = analysisService;
+        this.compilationCache = compilationCache;
+        this.executors = executors;
+    }
+
+    /**
+     * @param projectId stable identifier used to find the project's compile cache; when null the
+     *                  cache is keyed by the set of file paths
+     */
+    public ProjectAnalyzeResponse analyzeProject(String projectId, List<ProjectFile> files, List<Path> classpath) {
+        List<InMemoryJavaSource> sources = new ArrayList<>();
+        for (ProjectFile file : files) {
+            sources.add(new InMemoryJavaSource(file.getPath(), file.getSource().content()));
+        }
+        // Compile once in the background while the rules run over each file
+        CompletableFuture<ProjectCompilationCache.Result> compile =
+                CompletableFuture.supplyAsync(() -> compilationCache.compile(projectId, sources, classpath), executors.cpu());
+
+        ProjectAnalyzeResponse response = new ProjectAnalyzeResponse();
+        List<AnalyzeResponse> perFile = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            ProjectFile file = files.get(i);
+            String path = sources.get(i).getPath();
+            AnalyzeResponse r = analysisService.analyze(file.getPath(), file.getSource(), AnalysisListener.NONE,
+                    compile.thenApply(result -> result.getDiagnostics().get(path)));
+            perFile.add(r);
+            response.setErrorCount(response.getErrorCount() + r.getErrorCount());
+            response.setWarningCount(response.getWarningCount() + r.getWarningCount());
+            response.setOptimizationCount(response.getOptimizationCount() + r.getOptimizationCount());
+            response.setSecurityCount(response.getSecurityCount() + r.getSecurityCount());
+        }
+        response.setFileCount(perFile.size());
+        response.setCompiledFileCount(compile.join().getCompiledPaths().size());
+        response.setFiles(perFile);
+        return response;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.codereview.service;
+
+import com.example.codereview.dto.DashboardSummary;
+import com.example.codereview.dto.IssueDto;
+import com.example.codereview.dto.ReviewDetailResponse;
+import com.example.codereview.dto.ReviewSummaryResponse;
+import com.example.codereview.model.CodeReview;
+import com.example.codereview.model.Issue;
+import com.example.codereview.repository.CodeReviewRepository;
+import com.example.codereview.repository.ReviewTotals;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.cache.spi.access.CollectionDataAccess;
+import org.hibernate.cache.spi.entry.CollectionCacheEntry;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read side of the review store. Every method issues a fixed number of queries (one each)
+ * regardless of how many reviews or issues exist, and returns DTOs rather than entities so
+ * nothing is lazily loaded during serialization. Reviews found in the second-level cache are
+ * read without any query.
+ *
+ * <p>Hibernate assembles a cached issue collection one element at a time, so an issue evicted
+ * from its region on its own would cost a SELECT per issue. A review is therefore only read
+ * from the cache when every one of its issues is cached as well.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ReviewQueryService {
+
+    private final CodeReviewRepository reviewRepository;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ReviewQueryService(CodeReviewRepository reviewRepository, EntityManagerFactory entityManagerFactory) {
+        this.reviewRepository = reviewRepository;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public Optional<ReviewDetailResponse> findDetail(Long id) {
+        // A cached review and its cached issue collection load without SQL; the entity-graph
+        // query would bypass the cache, so it is only used (and fills the cache) on a miss
+        Optional<CodeReview> review = isFullyCached(id)
+                ? reviewRepository.findById(id)
+                : reviewRepository.findWithIssuesById(id);
+        return review.map(ReviewQueryService::toDetail);
+    }
+
+    public List<ReviewSummaryResponse> listSummaries() {
+        return reviewRepository.findSummaries();
+    }
+
+    public DashboardSummary dashboard() {
+        ReviewTotals totals = reviewRepository.totals();
+        DashboardSummary summary = new DashboardSummary();
+        summary.setTotalReviews(totals.getReviews());
+        summary.setTotalErrors(totals.getErrors());
+        summary.setTotalWarnings(totals.getWarnings());
+        summary.setTotalOptimizations(totals.getOptimizations());
+        summary.setTotalSecurityIssues(totals.getSecurity());
+        summary.setTotalIssues(totals.getErrors() + totals.getWarnings()
+                + totals.getOptimizations() + totals.getSecurity());
+        return summary;
+    }
+
+    private boolean isFullyCached(Long id) {
+        Cache cache = entityManagerFactory.getCache();
+        if (!cache.contains(CodeReview.class, id)) {
+            return false;
+        }
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        CollectionPersister issues = session.getFactory().getMappingMetamodel()
+                .getCollectionDescriptor(CodeReview.class.getName() + ".issues");
+        CollectionDataAccess access = issues.getCacheAccessStrategy();
+        Object entry = access.get(session, access.generateCacheKey(id, issues, session.getFactory(), null));
+        if (!(entry instanceof CollectionCacheEntry)) {
+            return false;
+        }
+        for (Object issueId : ((CollectionCacheEntry) entry).getState()) {
+            if (!cache.contains(Issue.class, issueId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ReviewDetailResponse toDetail(CodeReview r) {
+        ReviewDetailResponse dto = new ReviewDetailResponse();
+        dto.setId(r.getId());
+        dto.setFilename(r.getFilename());
+        dto.setCode(r.getCode());
+        dto.setCreatedAt(r.getCreatedAt());
+        dto.setErrorCount(r.getErrorCount());
+        dto.setWarningCount(r.getWarningCount());
+        dto.setOptimizationCount(r.getOptimizationCount());
+        dto.setSecurityCount(r.getSecurityCount());
+        dto.setPartial(r.isPartial());
+        List<IssueDto> issues = new ArrayList<>(r.getIssues().size());
+        for (Issue issue : r.getIssues()) {
+            issues.add(CodeAnalysisService.toDto(issue));
+        }
+        dto.setIssues(issues);
+        return dto;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.codereview.service.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD concurrency limiter: the limit grows by roughly one slot per fully used window of
+ * fast completions and is cut multiplicatively whenever a request overshoots the latency target
+ * or fails because the system is overloaded.
+ * Callers beyond the limit wait in a bounded queue for at most {@code maxWaitMillis}.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final long latencyTargetNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private double avgLatencyNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      int maxQueue, long maxWaitMillis, long latencyTargetMillis) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMillis);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    public enum Outcome { ACQUIRED, QUEUE_FULL, TIMED_OUT }
+
+    public Outcome acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return Outcome.ACQUIRED;
+            }
+            if (waiting >= maxQueue) {
+                return Outcome.QUEUE_FULL;
+            }
+            waiting++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0L) {
+                        return Outcome.TIMED_OUT;
+                    }
+                    remaining = slotFreed.awaitNanos(remaining);
+                }
+                inFlight++;
+                return Outcome.ACQUIRED;
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees a slot and adjusts the limit. {@code overloaded} means the work failed for lack of
+     * capacity (e.g. a saturated executor); ordinary failures such as invalid input pass false.
+     */
+    public void release(long latencyNanos, boolean overloaded) {
+        lock.lock();
+        try {
+            boolean saturated = inFlight >= (int) limit;
+            inFlight--;
+            avgLatencyNanos = avgLatencyNanos == 0 ? latencyNanos : avgLatencyNanos * 0.8 + latencyNanos * 0.2;
+            if (overloaded || latencyNanos > latencyTargetNanos) {
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            } else if (saturated) {
+                // Only grow when the current limit was actually the bottleneck
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            slotFreed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees a slot without feeding the request into the limit, for work that was abandoned
+     * (cancelled or interrupted) rather than completed: its latency says nothing about load.
+     */
+    public void releaseNeutral() {
+        lock.lock();
+        try {
+            inFlight--;
+            slotFreed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Rough estimate of how long a rejected caller should wait before retrying. */
+    public long suggestedRetryAfterSeconds() {
+        lock.lock();
+        try {
+            double queueDepth = waiting + 1.0;
+            double perSlotNanos = avgLatencyNanos / Math.max(1.0, limit);
+            long seconds = (long) Math.ceil(queueDepth * perSlotNanos / 1_000_000_000.0);
+            return Math.max(1L, Math.min(60L, seconds));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
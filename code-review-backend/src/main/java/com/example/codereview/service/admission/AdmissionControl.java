@@ -0,0 +1,122 @@
+package com.example.codereview.service.admission;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Gatekeeper in front of {@code CodeAnalysisService}: enforces per-request size limits and
+ * runs admitted work under the adaptive limiter of the caller's lane. Rejections are fast and
+ * carry a Retry-After hint so the caller can back off instead of piling up threads.
+ */
+@Component
+public class AdmissionControl {
+
+    private final long maxBytes;
+    private final int maxLines;
+    private final Map<AdmissionLane, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(AdmissionLane.class);
+
+    public AdmissionControl(@Value("${codereview.admission.max-bytes:1048576}") long maxBytes,
+                            @Value("${codereview.admission.max-lines:50000}") int maxLines,
+                            @Value("${codereview.admission.latency-target-ms:2000}") long latencyTargetMs,
+                            @Value("${codereview.admission.interactive.initial-limit:8}") int interactiveInitial,
+                            @Value("${codereview.admission.interactive.max-limit:64}") int interactiveMax,
+                            @Value("${codereview.admission.interactive.queue:32}") int interactiveQueue,
+                            @Value("${codereview.admission.interactive.max-wait-ms:1000}") long interactiveWaitMs,
+                            @Value("${codereview.admission.batch.initial-limit:2}") int batchInitial,
+                            @Value("${codereview.admission.batch.max-limit:16}") int batchMax,
+                            @Value("${codereview.admission.batch.queue:64}") int batchQueue,
+                            @Value("${codereview.admission.batch.max-wait-ms:10000}") long batchWaitMs) {
+        this.maxBytes = maxBytes;
+        this.maxLines = maxLines;
+        limiters.put(AdmissionLane.INTERACTIVE, new AdaptiveConcurrencyLimiter(
+                interactiveInitial, 1, interactiveMax, interactiveQueue, interactiveWaitMs, latencyTargetMs));
+        limiters.put(AdmissionLane.BATCH, new AdaptiveConcurrencyLimiter(
+                batchInitial, 1, batchMax, batchQueue, batchWaitMs, latencyTargetMs));
+    }
+
+    /** Rejects a payload by its raw size before it is read into memory. */
+    public void checkBytes(long bytes) {
+        if (bytes > maxBytes) {
+            throw new AdmissionRejectedException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Submission is " + bytes + " bytes; the limit is " + maxBytes + " bytes.", 0);
+        }
+    }
+
+    public void checkSize(CharSequence code) {
+        if (code == null) {
+            return;
+        }
+        // chars are a lower bound on UTF-8 bytes, good enough to reject before analysis
+        checkBytes(code.length());
+        int lines = 1;
+        for (int i = 0, n = code.length(); i < n; i++) {
+            if (code.charAt(i) == '\n' && ++lines > maxLines) {
+                throw new AdmissionRejectedException(HttpStatus.PAYLOAD_TOO_LARGE,
+                        "Submission has more than " + maxLines + " lines.", 0);
+            }
+        }
+    }
+
+    public <T> T admit(AdmissionLane lane, CharSequence code, Supplier<T> work) {
+        checkSize(code);
+        AdaptiveConcurrencyLimiter limiter = limiters.get(lane);
+        AdaptiveConcurrencyLimiter.Outcome outcome;
+        try {
+            outcome = limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Interrupted while waiting for an analysis slot.", limiter.suggestedRetryAfterSeconds());
+        }
+        if (outcome == AdaptiveConcurrencyLimiter.Outcome.QUEUE_FULL) {
+            throw new AdmissionRejectedException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many pending " + lane.name().toLowerCase() + " analyses.", limiter.suggestedRetryAfterSeconds());
+        }
+        if (outcome == AdaptiveConcurrencyLimiter.Outcome.TIMED_OUT) {
+            throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Analyzer is saturated, try again later.", limiter.suggestedRetryAfterSeconds());
+        }
+        long start = System.nanoTime();
+        boolean overloaded = false;
+        boolean abandoned = false;
+        try {
+            return work.get();
+        } catch (CancellationException e) {
+            abandoned = true;
+            throw e;
+        } catch (RuntimeException | Error e) {
+            overloaded = isOverload(e);
+            throw e;
+        } finally {
+            // A cancelled or interrupted run (e.g. a superseded live analysis) is not a sign of overload
+            if (abandoned || Thread.currentThread().isInterrupted()) {
+                limiter.releaseNeutral();
+            } else {
+                limiter.release(System.nanoTime() - start, overloaded);
+            }
+        }
+    }
+
+    /**
+     * Failures that mean the server ran out of capacity. Anything else (invalid input, a bad gate
+     * expression, a missing review) says nothing about load; only its latency is counted.
+     */
+    static boolean isOverload(Throwable e) {
+        if (e instanceof AdmissionRejectedException) {
+            // a nested lane that is saturated, as opposed to a submission over the size limits
+            return ((AdmissionRejectedException) e).getStatus() != HttpStatus.PAYLOAD_TOO_LARGE;
+        }
+        return e instanceof RejectedExecutionException || e instanceof OutOfMemoryError;
+    }
+
+    public AdaptiveConcurrencyLimiter getLimiter(AdmissionLane lane) {
+        return limiters.get(lane);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.codereview.service.admission;
+
+/**
+ * Caller classes that are admitted through separate limiters so a burst of CI traffic
+ * cannot push out interactive editor requests.
+ */
+public enum AdmissionLane {
+    INTERACTIVE, BATCH;
+
+    public static AdmissionLane fromHeader(String value) {
+        if (value != null && value.trim().equalsIgnoreCase("batch")) {
+            return BATCH;
+        }
+        return INTERACTIVE;
+    }
+}
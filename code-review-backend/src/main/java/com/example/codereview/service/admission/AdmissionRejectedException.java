@@ -0,0 +1,28 @@
+package com.example.codereview.service.admission;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a request is refused before analysis starts, either because it exceeds the
+ * per-request size limits or because its lane is saturated.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(HttpStatus status, String message, long retryAfterSeconds) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /** Seconds the client should wait before retrying, or 0 when retrying will not help. */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
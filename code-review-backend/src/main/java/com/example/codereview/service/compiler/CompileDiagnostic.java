@@ -0,0 +1,27 @@
+package com.example.codereview.service.compiler;
+
+/** A compiler error, attributed to one source file of the compilation. */
+public class CompileDiagnostic {
+
+    private final String sourceName;
+    private final int lineNumber;
+    private final String message;
+
+    public CompileDiagnostic(String sourceName, int lineNumber, String message) {
+        this.sourceName = sourceName;
+        this.lineNumber = lineNumber;
+        this.message = message;
+    }
+
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.codereview.service.compiler;
+
+/**
+ * How much of javac to run for a submission. {@link #FULL} parses first and only goes on to
+ * attribution when the parse is clean, so syntax errors come back at {@link #SYNTAX} speed.
+ */
+public enum CompilerTier {
+    /** Skip the compiler entirely. */
+    NONE,
+    /** Parse only: reports syntax errors in a few milliseconds. */
+    SYNTAX,
+    /** Parse, then attribute and flow-analyze if there were no syntax errors. */
+    FULL;
+
+    public static CompilerTier fromRequest(String value) {
+        if (value == null || value.isBlank()) return FULL;
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return FULL;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.codereview.service.compiler;
+
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Objects;
+
+/** A compilation unit whose text lives in memory; {@code path} is its project-relative path. */
+public class InMemoryJavaSource extends SimpleJavaFileObject {
+    private final String path;
+    private final CharSequence source;
+
+    public InMemoryJavaSource(String path, CharSequence source) {
+        super(toUri(path), JavaFileObject.Kind.SOURCE);
+        this.path = path;
+        this.source = Objects.requireNonNull(source);
+    }
+
+    /** Source for a single file whose primary type is {@code className}. */
+    public static InMemoryJavaSource forClass(String className, CharSequence source) {
+        return new InMemoryJavaSource(className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension, source);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return source;
+    }
+
+    private static URI toUri(String path) {
+        StringBuilder clean = new StringBuilder();
+        for (String segment : path.replace('\\', '/').split("/")) {
+            if (segment.isEmpty() || segment.equals(".") || segment.equals("..")) continue;
+            clean.append('/').append(segment);
+        }
+        try {
+            return new URI("string", "", clean.toString(), null);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid source path: " + path, e);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.codereview.service.compiler;
+
+import com.example.codereview.service.source.SourceText;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+import org.springframework.stereotype.Component;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Runs javac over in-memory sources and reports its errors. Sources are parsed and, depending on
+ * the {@link CompilerTier}, attributed; no class files are generated. Compilation aborts with a
+ * {@link CancellationException} once the compiling thread is interrupted.
+ */
+@Component
+public class JavaCompilerDiagnostics {
+
+    private static final String RELEASE = "17";
+
+    /** Compiles one file in isolation against the application's own classpath. */
+    public List<CompileDiagnostic> compile(String filename, SourceText code) {
+        return compile(filename, code, CompilerTier.FULL);
+    }
+
+    public List<CompileDiagnostic> compile(String filename, SourceText code, CompilerTier tier) {
+        List<CompileDiagnostic> out = new ArrayList<>();
+        if (tier == CompilerTier.NONE) return out;
+        InMemoryJavaSource file = InMemoryJavaSource.forClass(derivePrimaryClassName(filename, code), code.content());
+        // Parsing resolves no types: skip the --release symbol tables and the application classpath,
+        // which cost tens of milliseconds per task, and set the parser's language level with -source
+        List<String> options = tier == CompilerTier.SYNTAX
+                ? List.of("-source", RELEASE, "-proc:none", "-classpath", "")
+                : List.of("--release", RELEASE, "-proc:none");
+        for (List<CompileDiagnostic> perFile : run(List.of(file), options, tier, true).values()) {
+            out.addAll(perFile);
+        }
+        return out;
+    }
+
+    /**
+     * Compiles all {@code sources} together in one javac invocation, so they share symbol tables
+     * and can reference each other. Only the given jars are on the classpath. The result maps each
+     * source path to its errors; files without errors map to an empty list.
+     */
+    public Map<String, List<CompileDiagnostic>> compileProject(List<InMemoryJavaSource> sources, List<Path> classpath) {
+        return run(sources, List.of("--release", RELEASE, "-proc:none", "-classpath", joinPaths(classpath)),
+                CompilerTier.FULL, true);
+    }
+
+    /**
+     * Attributes only {@code sources}; other project types are resolved from {@code sourcepath}
+     * as needed. Errors inside sourcepath files are not reported.
+     */
+    public Map<String, List<CompileDiagnostic>> compileSubset(List<InMemoryJavaSource> sources, List<Path> classpath,
+                                                              Path sourcepath) {
+        return run(sources, List.of("--release", RELEASE, "-proc:none", "-implicit:none",
+                "-classpath", joinPaths(classpath), "-sourcepath", sourcepath.toAbsolutePath().toString()),
+                CompilerTier.FULL, false);
+    }
+
+    private static String joinPaths(List<Path> paths) {
+        StringBuilder cp = new StringBuilder();
+        for (Path jar : paths) {
+            if (cp.length() > 0) cp.append(File.pathSeparatorChar);
+            cp.append(jar.toAbsolutePath());
+        }
+        return cp.toString();
+    }
+
+    private Map<String, List<CompileDiagnostic>> run(List<InMemoryJavaSource> sources, List<String> options,
+                                                     CompilerTier tier, boolean reportForeignOnFirstFile) {
+        Map<String, List<CompileDiagnostic>> out = new LinkedHashMap<>();
+        for (InMemoryJavaSource source : sources) {
+            out.put(source.getPath(), new ArrayList<>());
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            // JRE detected (no compiler available) - skip
+            return out;
+        }
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        JavacTask task = (JavacTask) compiler.getTask(null, null, diagnostics, options, null, sources);
+        task.addTaskListener(new CancellationTaskListener());
+        try {
+            task.parse();
+            if (tier == CompilerTier.FULL && !hasErrors(diagnostics)) {
+                // analyze() stops after attribution and flow analysis: no class files are written
+                task.analyze();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            // javac wraps exceptions thrown by task listeners
+            if (e.getCause() instanceof CancellationException) throw (CancellationException) e.getCause();
+            throw e;
+        }
+        Map<JavaFileObject, String> pathsByFile = new IdentityHashMap<>();
+        for (InMemoryJavaSource source : sources) {
+            pathsByFile.put(source, source.getPath());
+        }
+        for (Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics()) {
+            if (d.getKind() != Diagnostic.Kind.ERROR) continue;
+            String path = d.getSource() != null ? pathsByFile.get(d.getSource()) : null;
+            if (path == null) {
+                // Not tied to one of our files (e.g. a broken classpath entry): report on the first file
+                if (!reportForeignOnFirstFile || sources.isEmpty()) continue;
+                path = sources.get(0).getPath();
+            }
+            int line = (int) d.getLineNumber();
+            out.get(path).add(new CompileDiagnostic(path, Math.max(line, 0), d.getMessage(Locale.getDefault())));
+        }
+        return out;
+    }
+
+    private static boolean hasErrors(DiagnosticCollector<JavaFileObject> diagnostics) {
+        for (Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics()) {
+            if (d.getKind() == Diagnostic.Kind.ERROR) return true;
+        }
+        return false;
+    }
+
+    public static String derivePrimaryClassName(String filename, SourceText code) {
+        if (filename != null && filename.endsWith(".java")) {
+            String nameOnly = filename.substring(0, filename.length() - 5);
+            if (!nameOnly.isBlank()) return nameOnly;
+        }
+        // Fallback: try find 'class X' in the code
+        String marker = "class ";
+        int idx = code.indexOf(marker, 0);
+        if (idx >= 0) {
+            int start = idx + marker.length();
+            int end = start;
+            CharSequence content = code.content();
+            while (end < content.length() && Character.isJavaIdentifierPart(content.charAt(end))) end++;
+            String candidate = content.subSequence(start, end).toString().trim();
+            if (!candidate.isBlank()) return candidate;
+        }
+        return "InlineClass";
+    }
+
+    static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Analysis cancelled");
+        }
+    }
+
+    /** Aborts javac between compilation events once the compiling thread has been interrupted. */
+    static class CancellationTaskListener implements TaskListener {
+        @Override
+        public void started(TaskEvent e) {
+            checkCancelled();
+        }
+
+        @Override
+        public void finished(TaskEvent e) {
+            checkCancelled();
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.example.codereview.service.compiler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Incremental front end for project compilation. For every project it remembers each file's
+ * content hash, declared and referenced type names and last diagnostics, persisted as JSON under
+ * {@code codereview.compile-cache.dir} so the cache survives restarts. The directory is created
+ * owner-only, and a directory owned by another user is not used.
+ *
+ * <p>On re-analysis only changed files and the files that (transitively) reference types they
+ * declare, or used to declare, are attributed again; unchanged files are made available to
+ * javac through a temporary sourcepath and keep their cached diagnostics. A change to the
+ * classpath jars invalidates the whole project.
+ */
+@Component
+public class ProjectCompilationCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectCompilationCache.class);
+
+    private static final ObjectMapper JSON = JsonMapper.builder().build();
+    // Projects hash onto a fixed set of locks, so the lock table does not grow with projects seen
+    private static final int LOCK_STRIPES = 64;
+
+    private final JavaCompilerDiagnostics compiler;
+    private final Path cacheDir;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private volatile Boolean cacheDirUsable;
+
+    public ProjectCompilationCache(JavaCompilerDiagnostics compiler,
+                                   @Value("${codereview.compile-cache.dir:}") String cacheDir) {
+        this.compiler = compiler;
+        this.cacheDir = cacheDir.isBlank()
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "codereview-compile-cache")
+                : Paths.get(cacheDir);
+        for (int i = 0; i < locks.length; i++) locks[i] = new Object();
+    }
+
+    /** Outcome of an incremental compile: diagnostics for every file, and which files were attributed. */
+    public static class Result {
+        private final Map<String, List<CompileDiagnostic>> diagnostics;
+        private final Set<String> compiledPaths;
+
+        Result(Map<String, List<CompileDiagnostic>> diagnostics, Set<String> compiledPaths) {
+            this.diagnostics = diagnostics;
+            this.compiledPaths = compiledPaths;
+        }
+
+        public Map<String, List<CompileDiagnostic>> getDiagnostics() {
+            return diagnostics;
+        }
+
+        public Set<String> getCompiledPaths() {
+            return compiledPaths;
+        }
+    }
+
+    public Result compile(String projectKey, List<InMemoryJavaSource> sources, List<Path> classpath) {
+        String key = projectKey != null && !projectKey.isBlank() ? sha256(projectKey) : defaultKey(sources);
+        synchronized (locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)]) {
+            return compileLocked(key, sources, classpath);
+        }
+    }
+
+    private Result compileLocked(String key, List<InMemoryJavaSource> sources, List<Path> classpath) {
+        String classpathHash = classpathHash(classpath);
+        ProjectState previous = load(key);
+        if (previous != null && !previous.classpathHash.equals(classpathHash)) {
+            previous = null;
+        }
+
+        Map<String, FileState> current = new LinkedHashMap<>();
+        Map<String, InMemoryJavaSource> byPath = new LinkedHashMap<>();
+        Set<String> changedTypes = new HashSet<>();
+        Set<String> dirty = new TreeSet<>();
+        for (InMemoryJavaSource source : sources) {
+            CharSequence text = source.getCharContent(true);
+            String hash = sha256(text.toString());
+            FileState old = previous != null ? previous.files.get(source.getPath()) : null;
+            FileState state;
+            if (old != null && old.hash.equals(hash)) {
+                state = old;
+            } else {
+                state = new FileState(hash, SourceDependencies.packageName(text),
+                        SourceDependencies.declaredTypes(text), SourceDependencies.referencedTypeNames(text));
+                dirty.add(source.getPath());
+                changedTypes.addAll(state.declaredTypes);
+                if (old != null) changedTypes.addAll(old.declaredTypes);
+            }
+            current.put(source.getPath(), state);
+            byPath.put(source.getPath(), source);
+        }
+        if (previous != null) {
+            for (Map.Entry<String, FileState> e : previous.files.entrySet()) {
+                if (!current.containsKey(e.getKey())) changedTypes.addAll(e.getValue().declaredTypes);
+            }
+        }
+        addDependents(current, changedTypes, dirty);
+
+        Map<String, List<CompileDiagnostic>> fresh;
+        if (previous == null || dirty.size() == current.size()) {
+            dirty.addAll(current.keySet());
+            fresh = compiler.compileProject(sources, classpath);
+        } else if (dirty.isEmpty()) {
+            fresh = Map.of();
+        } else {
+            fresh = compileDirty(byPath, current, dirty, classpath);
+        }
+
+        Map<String, List<CompileDiagnostic>> diagnostics = new LinkedHashMap<>();
+        for (Map.Entry<String, FileState> e : current.entrySet()) {
+            String path = e.getKey();
+            if (dirty.contains(path)) {
+                List<CompileDiagnostic> d = fresh.getOrDefault(path, List.of());
+                e.getValue().diagnostics = toCached(d);
+                diagnostics.put(path, d);
+            } else {
+                diagnostics.put(path, fromCached(path, e.getValue().diagnostics));
+            }
+        }
+        store(key, new ProjectState(classpathHash, new HashMap<>(current)));
+        log.debug("Project {}: attributed {} of {} files", key, dirty.size(), current.size());
+        return new Result(diagnostics, dirty);
+    }
+
+    /** Expands {@code dirty} with every file that references one of {@code changedTypes}, transitively. */
+    private static void addDependents(Map<String, FileState> files, Set<String> changedTypes, Set<String> dirty) {
+        Deque<String> pendingTypes = new ArrayDeque<>(changedTypes);
+        Set<String> seenTypes = new HashSet<>(changedTypes);
+        while (!pendingTypes.isEmpty()) {
+            String type = pendingTypes.poll();
+            for (Map.Entry<String, FileState> e : files.entrySet()) {
+                FileState f = e.getValue();
+                if (!dirty.contains(e.getKey()) && f.referencedTypes.contains(type) && !f.declaredTypes.contains(type)) {
+                    dirty.add(e.getKey());
+                    for (String t : f.declaredTypes) {
+                        if (seenTypes.add(t)) pendingTypes.add(t);
+                    }
+                }
+            }
+        }
+    }
+
+    private Map<String, List<CompileDiagnostic>> compileDirty(Map<String, InMemoryJavaSource> byPath,
+                                                              Map<String, FileState> states,
+                                                              Set<String> dirty, List<Path> classpath) {
+        Path sourcepath = null;
+        try {
+            sourcepath = Files.createTempDirectory("codereview-sourcepath-");
+            // Lay out the clean files by package so javac can find their types on demand
+            for (Map.Entry<String, InMemoryJavaSource> e : byPath.entrySet()) {
+                if (dirty.contains(e.getKey())) continue;
+                Path target = sourcepathTarget(sourcepath, states.get(e.getKey()).packageName, e.getKey());
+                Files.createDirectories(target.getParent());
+                Files.writeString(target, e.getValue().getCharContent(true), StandardCharsets.UTF_8);
+            }
+            List<InMemoryJavaSource> units = new ArrayList<>();
+            for (String path : dirty) units.add(byPath.get(path));
+            return compiler.compileSubset(units, classpath, sourcepath);
+        } catch (IOException | InvalidPathException e) {
+            log.warn("Incremental compile failed, recompiling the whole project", e);
+            return compiler.compileProject(new ArrayList<>(byPath.values()), classpath);
+        } finally {
+            deleteRecursively(sourcepath);
+        }
+    }
+
+    /**
+     * Where a clean file goes on the temporary sourcepath: {@code <package dirs>/<Name>.java}.
+     * Package and file name come from the upload, so anything that is not a plain qualified name
+     * and a bare {@code .java} file name, or that would land outside {@code sourcepath}, is refused.
+     */
+    static Path sourcepathTarget(Path sourcepath, String packageName, String sourcePath) throws IOException {
+        if (!packageName.isEmpty() && !SourceDependencies.isQualifiedName(packageName)) {
+            throw new IOException("Invalid package name '" + packageName + "' in " + sourcePath);
+        }
+        String fileName = sourcePath.substring(Math.max(sourcePath.lastIndexOf('/'), sourcePath.lastIndexOf('\\')) + 1);
+        String baseName = fileName.endsWith(".java") ? fileName.substring(0, fileName.length() - ".java".length()) : "";
+        boolean identifier = SourceDependencies.isQualifiedName(baseName) && baseName.indexOf('.') < 0;
+        if (!identifier && !baseName.equals("package-info") && !baseName.equals("module-info")) {
+            throw new IOException("Invalid source file name '" + sourcePath + "'");
+        }
+        Path root = sourcepath.toAbsolutePath().normalize();
+        Path dir = packageName.isEmpty() ? root : root.resolve(packageName.replace('.', '/'));
+        Path target = dir.resolve(fileName).normalize();
+        if (!target.startsWith(root)) {
+            throw new IOException("Source file '" + sourcePath + "' resolves outside the sourcepath");
+        }
+        return target;
+    }
+
+    // ---------------- persistence ----------------
+
+    /** Creates the cache directory owner-only; false if it belongs to someone else or cannot be made. */
+    private boolean cacheDirUsable() {
+        Boolean usable = cacheDirUsable;
+        if (usable != null) return usable;
+        try {
+            boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+            if (!Files.isDirectory(cacheDir)) {
+                if (posix) {
+                    Files.createDirectories(cacheDir, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+                } else {
+                    Files.createDirectories(cacheDir);
+                }
+            }
+            String owner = Files.getOwner(cacheDir).getName();
+            usable = owner.equals(System.getProperty("user.name"));
+            if (usable && posix) {
+                Files.setPosixFilePermissions(cacheDir, PosixFilePermissions.fromString("rwx------"));
+            } else if (!usable) {
+                log.warn("Compile cache directory {} is owned by {}; incremental state will not be persisted", cacheDir, owner);
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("Compile cache directory {} is unusable; incremental state will not be persisted", cacheDir, e);
+            usable = false;
+        }
+        cacheDirUsable = usable;
+        return usable;
+    }
+
+    private ProjectState load(String key) {
+        if (!cacheDirUsable()) return null;
+        Path file = cacheDir.resolve(key + ".json");
+        if (!Files.isRegularFile(file)) return null;
+        try {
+            return JSON.readValue(file.toFile(), ProjectState.class);
+        } catch (JacksonException e) {
+            log.warn("Discarding unreadable compile cache {}", file, e);
+            return null;
+        }
+    }
+
+    private void store(String key, ProjectState state) {
+        if (!cacheDirUsable()) return;
+        try {
+            Path tmp = Files.createTempFile(cacheDir, key, ".tmp");
+            try {
+                JSON.writeValue(tmp.toFile(), state);
+                Files.move(tmp, cacheDir.resolve(key + ".json"), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException | JacksonException e) {
+            log.warn("Could not write compile cache for project {}", key, e);
+        }
+    }
+
+    private static String defaultKey(List<InMemoryJavaSource> sources) {
+        TreeSet<String> paths = new TreeSet<>();
+        for (InMemoryJavaSource s : sources) paths.add(s.getPath());
+        return sha256(String.join("\n", paths));
+    }
+
+    private static String classpathHash(List<Path> classpath) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            for (Path jar : classpath) {
+                md.update(Files.readAllBytes(jar));
+            }
+            return HexFormat.of().formatHex(md.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            // Unhashable classpath: use a value that never matches a cached one
+            return "unhashable-" + System.nanoTime();
+        }
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String[]> toCached(List<CompileDiagnostic> diagnostics) {
+        List<String[]> out = new ArrayList<>();
+        for (CompileDiagnostic d : diagnostics) {
+            out.add(new String[] {Integer.toString(d.getLineNumber()), d.getMessage()});
+        }
+        return out;
+    }
+
+    private static List<CompileDiagnostic> fromCached(String path, List<String[]> cached) {
+        List<CompileDiagnostic> out = new ArrayList<>();
+        for (String[] d : cached) {
+            out.add(new CompileDiagnostic(path, Integer.parseInt(d[0]), d[1]));
+        }
+        return out;
+    }
+
+    private static void deleteRecursively(Path dir) {
+        if (dir == null) return;
+        try (var walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            log.debug("Could not clean up {}", dir, e);
+        }
+    }
+
+    @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+    private static class ProjectState {
+        String classpathHash;
+        Map<String, FileState> files;
+
+        ProjectState() {
+        }
+
+        ProjectState(String classpathHash, Map<String, FileState> files) {
+            this.classpathHash = classpathHash;
+            this.files = files;
+        }
+    }
+
+    @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+    private static class FileState {
+        String hash;
+        String packageName;
+        Set<String> declaredTypes;
+        Set<String> referencedTypes;
+        List<String[]> diagnostics = new ArrayList<>();
+
+        FileState() {
+        }
+
+        FileState(String hash, String packageName, Set<String> declaredTypes, Set<String> referencedTypes) {
+            this.hash = hash;
+            this.packageName = packageName;
+            this.declaredTypes = declaredTypes;
+            this.referencedTypes = referencedTypes;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.codereview.service.compiler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Cheap lexical facts about a source file used to build the project dependency graph: the
+ * package, the type names it declares and the capitalized identifiers it mentions. Comments
+ * and string literals are not skipped, which can only add dependencies, never lose one.
+ */
+final class SourceDependencies {
+
+    private static final Pattern QUALIFIED_NAME = Pattern.compile(
+            "\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*(\\.\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*)*");
+
+    private SourceDependencies() {}
+
+    /** The declared package, or "" if there is none or it is not a well-formed qualified name. */
+    static String packageName(CharSequence src) {
+        int i = skipToToken(src, 0, "package");
+        if (i < 0) return "";
+        int start = skipWhitespace(src, i);
+        int end = start;
+        while (end < src.length() && (Character.isJavaIdentifierPart(src.charAt(end)) || src.charAt(end) == '.')) end++;
+        String name = src.subSequence(start, end).toString();
+        return isQualifiedName(name) ? name : "";
+    }
+
+    /** True for {@code a.b.C}-style names; rejects empty segments such as a leading dot. */
+    static boolean isQualifiedName(String name) {
+        return QUALIFIED_NAME.matcher(name).matches();
+    }
+
+    /** Names following class/interface/enum/record keywords. */
+    static Set<String> declaredTypes(CharSequence src) {
+        Set<String> out = new LinkedHashSet<>();
+        String previous = null;
+        for (String word : identifiers(src, false)) {
+            if ("class".equals(previous) || "interface".equals(previous)
+                    || "enum".equals(previous) || "record".equals(previous)) {
+                out.add(word);
+            }
+            previous = word;
+        }
+        return out;
+    }
+
+    /** Identifiers starting with an upper-case letter, i.e. everything that may name a type. */
+    static Set<String> referencedTypeNames(CharSequence src) {
+        return new LinkedHashSet<>(identifiers(src, true));
+    }
+
+    private static List<String> identifiers(CharSequence src, boolean capitalizedOnly) {
+        List<String> out = new ArrayList<>();
+        int n = src.length();
+        int i = 0;
+        while (i < n) {
+            char c = src.charAt(i);
+            if (Character.isJavaIdentifierStart(c)) {
+                int start = i;
+                while (i < n && Character.isJavaIdentifierPart(src.charAt(i))) i++;
+                if (!capitalizedOnly || Character.isUpperCase(c)) {
+                    out.add(src.subSequence(start, i).toString());
+                }
+            } else {
+                i++;
+            }
+        }
+        return out;
+    }
+
+    private static int skipToToken(CharSequence src, int from, String token) {
+        int n = src.length();
+        for (int i = from; i + token.length() <= n; i++) {
+            if (src.charAt(i) == token.charAt(0) && src.subSequence(i, i + token.length()).toString().equals(token)
+                    && (i == 0 || !Character.isJavaIdentifierPart(src.charAt(i - 1)))
+                    && (i + token.length() == n || Character.isWhitespace(src.charAt(i + token.length())))) {
+                return i + token.length();
+            }
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(CharSequence src, int i) {
+        while (i < src.length() && Character.isWhitespace(src.charAt(i))) i++;
+        return i;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.codereview.service.export;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Rendered review exports on disk, one file per review and format. Reviews never change, so a
+ * file is valid for as long as its review exists and is served without touching the database.
+ * Review ids are only unique within one database (the default one is in-memory), so every
+ * instance writes to its own new directory, created under {@code codereview.export.cache-dir}
+ * (or the system temp directory), and removes only that directory and the files it wrote, on
+ * shutdown. At most {@code codereview.export.cache-max-files} files are kept; the oldest go first.
+ */
+@Component
+public class ReviewExportCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewExportCache.class);
+
+    private final Path cacheDir;
+    private final int maxFiles;
+    private final Set<Path> cached = ConcurrentHashMap.newKeySet();
+    private final Queue<Path> writeOrder = new ConcurrentLinkedQueue<>();
+
+    public ReviewExportCache(@Value("${codereview.export.cache-dir:}") String cacheDir,
+                             @Value("${codereview.export.cache-max-files:10000}") int maxFiles) throws IOException {
+        Path parent = cacheDir.isBlank() ? Paths.get(System.getProperty("java.io.tmpdir")) : Paths.get(cacheDir);
+        Files.createDirectories(parent);
+        this.cacheDir = Files.createTempDirectory(parent, "codereview-exports-");
+        this.maxFiles = Math.max(1, maxFiles);
+    }
+
+    /**
+     * The export of review {@code reviewId} in {@code extension} format, rendered by
+     * {@code render} and written to disk on the first request. Exceptions from {@code render}
+     * propagate and nothing is cached.
+     */
+    public Path get(long reviewId, String extension, Supplier<String> render) throws IOException {
+        Path file = cacheDir.resolve("review-" + reviewId + "." + extension);
+        if (cached.contains(file) && Files.exists(file)) {
+            return file;
+        }
+        // Concurrent misses both render; the atomic move makes the last one win with the same content
+        Path tmp = Files.createTempFile(cacheDir, "export-", ".tmp");
+        try {
+            Files.writeString(tmp, render.get(), StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        if (cached.add(file)) {
+            writeOrder.add(file);
+            evict();
+        }
+        return file;
+    }
+
+    private void evict() {
+        while (cached.size() > maxFiles) {
+            Path oldest = writeOrder.poll();
+            if (oldest == null) return;
+            cached.remove(oldest);
+            try {
+                Files.deleteIfExists(oldest);
+            } catch (IOException e) {
+                log.warn("Could not delete cached export {}: {}", oldest, e.toString());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Path file : cached) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.debug("Could not delete cached export {}", file, e);
+            }
+        }
+        try {
+            Files.deleteIfExists(cacheDir);
+        } catch (IOException e) {
+            log.debug("Could not delete export cache directory {}", cacheDir, e);
+        }
+    }
+}
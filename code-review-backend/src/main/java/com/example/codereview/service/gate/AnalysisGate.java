@@ -0,0 +1,172 @@
+package com.example.codereview.service.gate;
+
+import com.example.codereview.model.IssueCategory;
+import com.example.codereview.model.Severity;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pass/fail condition of a gate-mode analysis, e.g. {@code "severity>=HIGH count>=1"} or
+ * {@code "category=SECURITY,ERROR count>5"}. Terms are separated by whitespace and all are
+ * optional:
+ * <ul>
+ *   <li>{@code severity>=S}, {@code severity>S} or {@code severity=S} – which severities count
+ *       (default: all)</li>
+ *   <li>{@code category=C[,C...]} – which categories count (default: all)</li>
+ *   <li>{@code count>=N} or {@code count>N} – how many counted issues fail the gate
+ *       (default: {@code count>=1})</li>
+ * </ul>
+ * The gate fails as soon as the threshold is reached, which is what lets the analysis stop early;
+ * it passes only when every check that could still report a counted issue has run.
+ */
+public final class AnalysisGate {
+
+    private static final int MAX_LENGTH = 200;
+    private static final Pattern TERM = Pattern.compile("\\s*([A-Za-z]+)\\s*(>=|>|=)\\s*([A-Za-z0-9_,]+)\\s*");
+
+    private final String expression;
+    private final Set<Severity> severities;
+    private final Set<IssueCategory> categories;
+    private final int threshold;
+
+    private AnalysisGate(String expression, Set<Severity> severities, Set<IssueCategory> categories, int threshold) {
+        this.expression = expression;
+        this.severities = severities;
+        this.categories = categories;
+        this.threshold = threshold;
+    }
+
+    /** Parses {@code expression}; a blank one means "any issue fails". */
+    public static AnalysisGate parse(String expression) {
+        String text = expression == null ? "" : expression.trim();
+        if (text.length() > MAX_LENGTH) {
+            throw new InvalidGateException("Gate expression is longer than " + MAX_LENGTH + " characters");
+        }
+        Set<Severity> severities = EnumSet.allOf(Severity.class);
+        Set<IssueCategory> categories = EnumSet.allOf(IssueCategory.class);
+        int threshold = 1;
+        Matcher m = TERM.matcher(text);
+        int pos = 0;
+        while (pos < text.length()) {
+            if (!m.find(pos) || m.start() != pos) {
+                throw new InvalidGateException("Cannot parse gate expression at '" + text.substring(pos) + "'");
+            }
+            String key = m.group(1).toLowerCase(Locale.ROOT);
+            String op = m.group(2);
+            String value = m.group(3);
+            switch (key) {
+                case "severity":
+                    severities = severities(op, value);
+                    break;
+                case "category":
+                    categories = categories(op, value);
+                    break;
+                case "count":
+                    threshold = threshold(op, value);
+                    break;
+                default:
+                    throw new InvalidGateException("Unknown gate term '" + m.group(1) + "'");
+            }
+            pos = m.end();
+        }
+        return new AnalysisGate(text, severities, categories, threshold);
+    }
+
+    private static Set<Severity> severities(String op, String value) {
+        Severity bound;
+        try {
+            bound = Severity.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidGateException("Unknown severity '" + value + "'");
+        }
+        // Declared from most to least severe, so "at least" means "ordinal at most"
+        Set<Severity> out = EnumSet.noneOf(Severity.class);
+        for (Severity s : Severity.values()) {
+            if (op.equals("=") ? s == bound
+                    : op.equals(">") ? s.ordinal() < bound.ordinal()
+                    : s.ordinal() <= bound.ordinal()) {
+                out.add(s);
+            }
+        }
+        if (out.isEmpty()) {
+            throw new InvalidGateException("No severity is " + op + " " + bound);
+        }
+        return out;
+    }
+
+    private static Set<IssueCategory> categories(String op, String value) {
+        if (!op.equals("=")) {
+            throw new InvalidGateException("Categories can only be compared with '='");
+        }
+        Set<IssueCategory> out = EnumSet.noneOf(IssueCategory.class);
+        for (String name : value.split(",")) {
+            if (name.isEmpty()) continue;
+            try {
+                out.add(IssueCategory.valueOf(name.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidGateException("Unknown category '" + name + "'");
+            }
+        }
+        if (out.isEmpty()) {
+            throw new InvalidGateException("Empty category list");
+        }
+        return out;
+    }
+
+    private static int threshold(String op, String value) {
+        int n;
+        try {
+            n = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidGateException("Count '" + value + "' is not a number");
+        }
+        if (op.equals("=")) {
+            // "exactly N" is never known before the end, which defeats the point of a gate
+            throw new InvalidGateException("Counts can only be compared with '>=' or '>'");
+        }
+        int threshold = op.equals(">") ? n + 1 : n;
+        if (threshold < 1) {
+            throw new InvalidGateException("Count threshold must be at least 1");
+        }
+        return threshold;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /** Number of counted issues at which the gate fails. */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public boolean countsSeverity(Severity severity) {
+        return severities.contains(severity);
+    }
+
+    public boolean counts(IssueCategory category, Severity severity) {
+        return severities.contains(severity) && categories.contains(category);
+    }
+
+    /** False if none of {@code reported} is counted, i.e. a rule reporting only those cannot change the verdict. */
+    public boolean countsAny(Set<Severity> reported) {
+        for (Severity s : reported) {
+            if (severities.contains(s)) return true;
+        }
+        return false;
+    }
+
+    /** Compile errors are reported as HIGH-severity ERROR issues. */
+    public boolean countsCompileErrors() {
+        return counts(IssueCategory.ERROR, Severity.HIGH);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.codereview.service.gate;
+
+/** The gate expression of a request could not be parsed; reported to the client as 400. */
+public class InvalidGateException extends IllegalArgumentException {
+
+    public InvalidGateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.codereview.service.gate;
+
+import com.example.codereview.model.Severity;
+import com.example.codereview.service.rules.AnalysisRule;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-rule running statistics: how long a rule takes and how often it reports an issue of each
+ * severity. Every analysis feeds it. Gate-mode analyses use it to run the rules in the order
+ * that reaches a failing verdict soonest on average.
+ *
+ * <p>When each check fails independently with probability {@code p} at cost {@code c}, checking
+ * in increasing order of {@code c / p} minimizes the expected cost to the first failure. Hit rates
+ * are smoothed ({@code (hits + 1) / (runs + 2)}) so a rule that has never fired is still tried, and
+ * rules that have never been timed sort first, which gets them measured.
+ */
+@Component
+public class RuleCostModel {
+
+    // Weight of the latest run in the moving average of a rule's cost
+    private static final double ALPHA = 0.2;
+    private static final Severity[] SEVERITIES = Severity.values();
+
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Records one run of {@code rule}. {@code severityMask} has bit {@code s.ordinal()} set for
+     * every severity {@code s} the run reported.
+     */
+    public void record(String rule, long nanos, int severityMask) {
+        stats.computeIfAbsent(rule, k -> new Stats()).record(nanos, severityMask);
+    }
+
+    /** {@code rules} in the order a gate-mode analysis should run them for {@code gate}. */
+    public List<AnalysisRule> order(List<AnalysisRule> rules, AnalysisGate gate) {
+        List<AnalysisRule> out = new ArrayList<>(rules);
+        Map<AnalysisRule, Double> scores = new IdentityHashMap<>();
+        for (AnalysisRule rule : rules) {
+            Stats s = stats.get(rule.name());
+            scores.put(rule, s == null ? 0.0 : s.score(gate));
+        }
+        // Stable, so untimed rules keep their registration order
+        out.sort(Comparator.comparingDouble(scores::get));
+        return out;
+    }
+
+    private static final class Stats {
+        private long runs;
+        private double averageNanos;
+        private final long[] hits = new long[SEVERITIES.length];
+
+        synchronized void record(long nanos, int severityMask) {
+            averageNanos = runs == 0 ? nanos : averageNanos + ALPHA * (nanos - averageNanos);
+            runs++;
+            for (int s = 0; s < hits.length; s++) {
+                if ((severityMask & (1 << s)) != 0) hits[s]++;
+            }
+        }
+
+        /** Expected cost per counted hit; lower runs first. */
+        synchronized double score(AnalysisGate gate) {
+            // Rules report few severities (usually one), so the likeliest counted one stands in for the union
+            long best = 0;
+            for (Severity s : SEVERITIES) {
+                if (gate.countsSeverity(s)) best = Math.max(best, hits[s.ordinal()]);
+            }
+            double p = (best + 1.0) / (runs + 2.0);
+            return averageNanos / p;
+        }
+    }
+}
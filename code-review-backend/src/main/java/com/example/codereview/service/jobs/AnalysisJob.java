@@ -0,0 +1,196 @@
+package com.example.codereview.service.jobs;
+
+import com.example.codereview.dto.AnalyzeRequest;
+import com.example.codereview.dto.AnalyzeResponse;
+import com.example.codereview.service.AnalysisListener;
+import com.example.codereview.service.AnalysisPhase;
+
+import java.time.Instant;
+import java.util.concurrent.CancellationException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A queued or running analysis. Progress is written by the worker thread through the
+ * {@link AnalysisListener} callbacks and read by pollers, so all state access is synchronized.
+ */
+public class AnalysisJob implements AnalysisListener {
+
+    public static final String RULE_PENDING = "PENDING";
+    public static final String RULE_RUNNING = "RUNNING";
+    public static final String RULE_DONE = "DONE";
+    public static final String RULE_SKIPPED = "SKIPPED";
+
+    private final String id;
+    private final int priority;
+    private final long sequence;
+    // Dropped once the job is terminal so retained jobs do not keep the submitted code alive
+    private AnalyzeRequest request;
+    private final Instant createdAt = Instant.now();
+
+    private JobStatus status = JobStatus.QUEUED;
+    private AnalysisPhase phase;
+    private final Map<String, String> ruleStates = new LinkedHashMap<>();
+    private final Map<String, Integer> ruleIssueCounts = new LinkedHashMap<>();
+    private Instant startedAt;
+    private Instant finishedAt;
+    private AnalyzeResponse result;
+    private String error;
+    private Thread worker;
+    // Set once the review is being saved; from then on the job can no longer be cancelled
+    private boolean persisting;
+
+    AnalysisJob(String id, int priority, long sequence, AnalyzeRequest request, List<String> ruleNames) {
+        this.id = id;
+        this.priority = priority;
+        this.sequence = sequence;
+        this.request = request;
+        for (String name : ruleNames) {
+            ruleStates.put(name, RULE_PENDING);
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    synchronized AnalyzeRequest getRequest() {
+        return request;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    // ---------------- progress callbacks ----------------
+
+    /**
+     * Entering {@link AnalysisPhase#PERSIST} is the commit point, decided atomically with
+     * {@link #cancel()}: a job cancelled before it throws here and is never saved, and a job
+     * past it can no longer be cancelled.
+     */
+    @Override
+    public synchronized void phaseStarted(AnalysisPhase phase) {
+        if (phase == AnalysisPhase.PERSIST) {
+            if (status == JobStatus.CANCELLED) {
+                throw new CancellationException("Analysis job cancelled");
+            }
+            persisting = true;
+        }
+        this.phase = phase;
+    }
+
+    @Override
+    public synchronized void ruleStarted(String ruleName) {
+        ruleStates.put(ruleName, RULE_RUNNING);
+    }
+
+    @Override
+    public synchronized void ruleFinished(String ruleName, int issueCount) {
+        ruleStates.put(ruleName, RULE_DONE);
+        ruleIssueCounts.put(ruleName, issueCount);
+    }
+
+    @Override
+    public synchronized void ruleSkipped(String ruleName) {
+        ruleStates.put(ruleName, RULE_SKIPPED);
+        ruleIssueCounts.put(ruleName, 0);
+    }
+
+    // ---------------- lifecycle ----------------
+
+    /**
+     * Claims the job for the current thread and hands over its request; returns null if it was
+     * cancelled while queued.
+     */
+    synchronized AnalyzeRequest start() {
+        if (status != JobStatus.QUEUED) return null;
+        status = JobStatus.RUNNING;
+        startedAt = Instant.now();
+        worker = Thread.currentThread();
+        return request;
+    }
+
+    // The terminal transitions return false when the job had already finished, e.g. was cancelled
+
+    synchronized boolean succeed(AnalyzeResponse response) {
+        if (!finish(JobStatus.SUCCEEDED)) return false;
+        this.result = response;
+        return true;
+    }
+
+    synchronized boolean fail(String message) {
+        if (!finish(JobStatus.FAILED)) return false;
+        this.error = message;
+        return true;
+    }
+
+    synchronized boolean markCancelled() {
+        return finish(JobStatus.CANCELLED);
+    }
+
+    /**
+     * Cancels the job, interrupting the worker if the analysis is already running. Returns false,
+     * leaving the job to finish, if it is already terminal or its review is being saved.
+     */
+    synchronized boolean cancel() {
+        if (status.isTerminal() || persisting) return false;
+        if (status == JobStatus.RUNNING && worker != null) {
+            worker.interrupt();
+        }
+        finish(JobStatus.CANCELLED);
+        return true;
+    }
+
+    private boolean finish(JobStatus terminal) {
+        if (status.isTerminal()) return false;
+        status = terminal;
+        finishedAt = Instant.now();
+        worker = null;
+        request = null;
+        return true;
+    }
+
+    // ---------------- snapshot accessors ----------------
+
+    public synchronized JobStatus getStatus() {
+        return status;
+    }
+
+    public synchronized AnalysisPhase getPhase() {
+        return phase;
+    }
+
+    public synchronized Map<String, String> getRuleStates() {
+        return new LinkedHashMap<>(ruleStates);
+    }
+
+    public synchronized Map<String, Integer> getRuleIssueCounts() {
+        return new LinkedHashMap<>(ruleIssueCounts);
+    }
+
+    public synchronized Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public synchronized Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public synchronized AnalyzeResponse getResult() {
+        return result;
+    }
+
+    public synchronized String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.codereview.service.jobs;
+
+import com.example.codereview.dto.AnalyzeRequest;
+import com.example.codereview.service.CodeAnalysisService;
+import com.example.codereview.service.admission.AdmissionRejectedException;
+import com.example.codereview.service.rules.AnalysisRule;
+import com.example.codereview.service.rules.RuleRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs analyses off the request thread. Jobs wait in a bounded priority queue (higher priority
+ * first, then submission order) and are executed by a fixed pool of workers. Finished jobs stay
+ * pollable until more than {@code codereview.jobs.retained} are held; the oldest finished go first.
+ */
+@Service
+public class AnalysisJobService {
+
+    private final CodeAnalysisService analysisService;
+    private final RuleRegistry ruleRegistry;
+    private final int queueCapacity;
+    private final int retainedJobs;
+
+    private final ThreadPoolExecutor workers;
+    private final Map<String, AnalysisJob> jobs = new ConcurrentHashMap<>();
+    // Ids of terminal jobs in the order they finished, each added exactly once
+    private final ConcurrentLinkedQueue<String> finished = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public AnalysisJobService(CodeAnalysisService analysisService,
+                              RuleRegistry ruleRegistry,
+                              @Value("${codereview.jobs.workers:0}") int workerCount,
+                              @Value("${codereview.jobs.queue-capacity:200}") int queueCapacity,
+                              @Value("${codereview.jobs.retained:1000}") int retainedJobs) {
+        this.analysisService = analysisService;
+        this.ruleRegistry = ruleRegistry;
+        this.queueCapacity = queueCapacity;
+        this.retainedJobs = retainedJobs;
+        int threads = workerCount > 0 ? workerCount : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIds = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "analysis-job-" + threadIds.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    public AnalysisJob submit(AnalyzeRequest request, int priority) {
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            throw new AdmissionRejectedException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Analysis job queue is full.", 5);
+        }
+        evictFinishedJobs();
+        List<String> ruleNames = new ArrayList<>();
+        for (AnalysisRule rule : ruleRegistry.getEnabledRules()) {
+            ruleNames.add(rule.name());
+        }
+        AnalysisJob job = new AnalysisJob(UUID.randomUUID().toString(), priority,
+                sequence.incrementAndGet(), request, ruleNames);
+        jobs.put(job.getId(), job);
+        workers.execute(new JobTask(job));
+        return job;
+    }
+
+    public Optional<AnalysisJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public Optional<AnalysisJob> cancel(String id) {
+        AnalysisJob job = jobs.get(id);
+        if (job == null) return Optional.empty();
+        if (job.cancel()) {
+            finished.add(id);
+        }
+        return Optional.of(job);
+    }
+
+    private void run(AnalysisJob job) {
+        queued.decrementAndGet();
+        AnalyzeRequest request = job.start();
+        if (request == null) {
+            return;
+        }
+        boolean terminal;
+        try {
+            terminal = job.succeed(analysisService.analyze(request, job));
+        } catch (CancellationException e) {
+            terminal = job.markCancelled();
+        } catch (RuntimeException e) {
+            terminal = job.fail(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            // The job is terminal now, so a late cancel() cannot interrupt us; clear any pending interrupt
+            Thread.interrupted();
+        }
+        // false means cancel() finished it first and already recorded it
+        if (terminal) {
+            finished.add(job.getId());
+        }
+    }
+
+    private void evictFinishedJobs() {
+        while (jobs.size() >= retainedJobs) {
+            String id = finished.poll();
+            if (id == null) return;
+            jobs.remove(id);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private final class JobTask implements Runnable, Comparable<JobTask> {
+        private final AnalysisJob job;
+
+        JobTask(AnalysisJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public void run() {
+            AnalysisJobService.this.run(job);
+        }
+
+        @Override
+        public int compareTo(JobTask other) {
+            int byPriority = Integer.compare(other.job.getPriority(), job.getPriority());
+            return byPriority != 0 ? byPriority : Long.compare(job.getSequence(), other.job.getSequence());
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.codereview.service.live;
+
+import com.example.codereview.dto.AnalyzeResponse;
+import com.example.codereview.dto.IssueDto;
+import com.example.codereview.dto.LiveAnalysisUpdate;
+import com.example.codereview.dto.LiveTextChange;
+import com.example.codereview.service.AnalysisListener;
+import com.example.codereview.service.CodeAnalysisService;
+import com.example.codereview.service.admission.AdmissionControl;
+import com.example.codereview.service.admission.AdmissionLane;
+import com.example.codereview.service.compiler.CompilerTier;
+import com.example.codereview.service.source.SourceText;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Analyzes documents open in live editors. Every edit restarts a short debounce timer, so a burst
+ * of keystrokes costs one analysis; an edit that arrives while an analysis is running interrupts
+ * it, and a result for text that has changed since is dropped rather than sent. Analyses are not
+ * persisted, run through the interactive admission lane, and reuse {@link
+ * com.example.codereview.service.rules.RuleResultCache} entries for every member block the edit
+ * did not touch. Only {@link #save} stores a review.
+ *
+ * <p>Documents analyzed at the {@link CompilerTier#SYNTAX} tier get their syntax errors within
+ * milliseconds. When that parse is clean and the document then stays unchanged for {@code
+ * attribute-after-ms}, a follow-up {@link CompilerTier#FULL} analysis of the same version runs on
+ * the batch lane and pushes the attribution errors as a further update; the next edit supersedes
+ * it like any other pending analysis.
+ */
+@Service
+public class LiveAnalysisService {
+
+    private final CodeAnalysisService analysisService;
+    private final AdmissionControl admissionControl;
+    private final long debounceMillis;
+    private final CompilerTier defaultTier;
+    private final long attributeAfterMillis;
+    private final ScheduledThreadPoolExecutor executor;
+
+    private final Counter edits;
+    private final Counter published;
+    private final Counter superseded;
+    private final Counter failures;
+
+    public LiveAnalysisService(CodeAnalysisService analysisService, AdmissionControl admissionControl,
+                               MeterRegistry meters,
+                               @Value("${codereview.live.debounce-ms:200}") long debounceMillis,
+                               @Value("${codereview.live.compiler-tier:syntax}") String defaultTier,
+                               @Value("${codereview.live.attribute-after-ms:1000}") long attributeAfterMillis,
+                               @Value("${codereview.live.workers:0}") int workerCount) {
+        this.analysisService = analysisService;
+        this.admissionControl = admissionControl;
+        this.debounceMillis = debounceMillis;
+        this.defaultTier = CompilerTier.fromRequest(defaultTier);
+        this.attributeAfterMillis = attributeAfterMillis;
+        int threads = workerCount > 0 ? workerCount : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(threads, r -> {
+            Thread t = new Thread(r, "live-analysis-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        // Superseded timers would otherwise stay queued until their delay expires
+        executor.setRemoveOnCancelPolicy(true);
+
+        this.edits = meters.counter("codereview.live.edits");
+        this.published = meters.counter("codereview.live.analyses", "outcome", "published");
+        this.superseded = meters.counter("codereview.live.analyses", "outcome", "superseded");
+        this.failures = meters.counter("codereview.live.analyses", "outcome", "failed");
+    }
+
+    /** Starts a document and schedules its first analysis. */
+    public LiveDocument open(String filename, String code, String compilerTier, Long version,
+                             LiveDocument.Listener listener) {
+        LiveDocument document = new LiveDocument(filename != null ? filename : "inline.java",
+                compilerTier != null ? CompilerTier.fromRequest(compilerTier) : defaultTier, listener);
+        document.replace(version, code != null ? code : "");
+        schedule(document, 0, null);
+        return document;
+    }
+
+    /** Applies {@code changes}; see {@link LiveDocument#apply}. */
+    public void edit(LiveDocument document, Long version, List<LiveTextChange> changes) {
+        document.apply(version, changes);
+        edited(document);
+    }
+
+    public void replace(LiveDocument document, Long version, String code) {
+        document.replace(version, code != null ? code : "");
+        edited(document);
+    }
+
+    public void retarget(LiveDocument document, String filename, String compilerTier) {
+        document.retarget(filename, compilerTier != null ? CompilerTier.fromRequest(compilerTier) : null);
+    }
+
+    private void edited(LiveDocument document) {
+        edits.increment();
+        schedule(document, debounceMillis, null);
+    }
+
+    // tier overrides the document's tier for this one analysis; null keeps it
+    private void schedule(LiveDocument document, long delayMillis, CompilerTier tier) {
+        Future<?> next = executor.schedule(() -> analyze(document, tier), delayMillis, TimeUnit.MILLISECONDS);
+        Future<?> previous = document.supersede(next);
+        // Drops a waiting timer; interrupts an analysis already running on older text
+        if (previous != null && previous.cancel(true)) {
+            superseded.increment();
+        }
+    }
+
+    private void analyze(LiveDocument document, CompilerTier tierOverride) {
+        LiveDocument.Snapshot current = document.snapshot();
+        LiveDocument.Snapshot snapshot = tierOverride != null ? current.withTier(tierOverride) : current;
+        // The deferred attribution pass is background work; what the user is waiting for is the parse
+        AdmissionLane lane = tierOverride != null ? AdmissionLane.BATCH : AdmissionLane.INTERACTIVE;
+        long start = System.nanoTime();
+        try (SourceText source = SourceText.of(snapshot.text)) {
+            AnalyzeResponse result = admissionControl.admit(lane, snapshot.text,
+                    () -> analysisService.analyzeTransient(snapshot.filename, source, AnalysisListener.NONE, snapshot.tier));
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            LiveAnalysisUpdate update = document.diff(snapshot, source.lineIndex(), result, elapsed);
+            if (update != null) {
+                published.increment();
+                document.listener().analyzed(update);
+                if (snapshot.tier == CompilerTier.SYNTAX && attributeAfterMillis > 0 && parsed(result)) {
+                    attributeLater(document, snapshot.version);
+                }
+            }
+        } catch (CancellationException e) {
+            // superseded by a newer edit, which has scheduled its own analysis
+        } catch (Exception e) {
+            if (document.isCurrent(snapshot.version)) {
+                failures.increment();
+                document.listener().failed(snapshot.version, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            }
+        }
+    }
+
+    private static boolean parsed(AnalyzeResponse result) {
+        for (IssueDto issue : result.getIssues()) {
+            if (CodeAnalysisService.COMPILE_ERROR_TITLE.equals(issue.getTitle())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Schedules the FULL pass for {@code version}. It is installed as the document's pending
+     * analysis without cancelling the one currently running, which is the caller, and is
+     * dropped if the document has changed in the meantime.
+     */
+    private void attributeLater(LiveDocument document, long version) {
+        Future<?> next = executor.schedule(() -> analyze(document, CompilerTier.FULL),
+                attributeAfterMillis, TimeUnit.MILLISECONDS);
+        if (!document.followUp(version, next)) {
+            next.cancel(false);
+        }
+    }
+
+    /**
+     * Runs a full analysis of the current text and persists it as a review; the result goes to
+     * {@link LiveDocument.Listener#saved}. Pending live analyses are not affected.
+     */
+    public void save(LiveDocument document) {
+        LiveDocument.Snapshot snapshot = document.snapshot();
+        executor.execute(() -> {
+            try (SourceText source = SourceText.of(snapshot.text)) {
+                AnalyzeResponse review = admissionControl.admit(AdmissionLane.INTERACTIVE, snapshot.text,
+                        () -> analysisService.analyze(snapshot.filename, source, AnalysisListener.NONE, CompilerTier.FULL));
+                document.listener().saved(snapshot.version, review);
+            } catch (Exception e) {
+                document.listener().failed(snapshot.version, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            }
+        });
+    }
+
+    /** Stops any pending or running analysis of {@code document}. */
+    public void close(LiveDocument document) {
+        Future<?> pending = document.close();
+        if (pending != null) {
+            pending.cancel(true);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
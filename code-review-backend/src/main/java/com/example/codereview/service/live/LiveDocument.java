@@ -0,0 +1,197 @@
+package com.example.codereview.service.live;
+
+import com.example.codereview.dto.AnalyzeResponse;
+import com.example.codereview.dto.IssueDto;
+import com.example.codereview.dto.LiveAnalysisUpdate;
+import com.example.codereview.dto.LiveTextChange;
+import com.example.codereview.service.compiler.CompilerTier;
+import com.example.codereview.service.source.LineIndex;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+/**
+ * Server-side state of one document open in a live editor: its current text and version, the
+ * pending or running analysis, and the issues last published to the client, from which the next
+ * update is computed as a delta. Editing threads and analysis workers share it; all state is
+ * guarded by the instance lock.
+ */
+public final class LiveDocument {
+
+    /** Receives what the analysis of a document produces; called on analysis worker threads. */
+    public interface Listener {
+        void analyzed(LiveAnalysisUpdate update);
+
+        void saved(long version, AnalyzeResponse review);
+
+        void failed(long version, String message);
+    }
+
+    private final Listener listener;
+    private final StringBuilder text = new StringBuilder();
+    private String filename;
+    private CompilerTier tier;
+    private long version;
+    private Future<?> pending;
+    private boolean closed;
+
+    // Published issues by identity key; several issues may share one (same message on identical lines)
+    private Map<String, Deque<IssueDto>> published = new HashMap<>();
+    private long nextIssueId = 1;
+
+    LiveDocument(String filename, CompilerTier tier, Listener listener) {
+        this.filename = filename;
+        this.tier = tier;
+        this.listener = listener;
+    }
+
+    Listener listener() {
+        return listener;
+    }
+
+    synchronized void replace(Long newVersion, String code) {
+        text.setLength(0);
+        text.append(code);
+        bump(newVersion);
+    }
+
+    /**
+     * Applies {@code changes} in order. A change that does not fit the current text leaves the
+     * document unchanged and throws, so the client can resynchronize with a full replace.
+     */
+    synchronized void apply(Long newVersion, List<LiveTextChange> changes) {
+        StringBuilder edited = new StringBuilder(text);
+        for (LiveTextChange change : changes) {
+            int offset = change.getOffset();
+            int end = offset + change.getDeleteCount();
+            if (offset < 0 || change.getDeleteCount() < 0 || end > edited.length()) {
+                throw new IllegalArgumentException("Edit at " + offset + "+" + change.getDeleteCount()
+                        + " is outside the document (" + edited.length() + " chars); resend the full text");
+            }
+            edited.replace(offset, end, change.getText() != null ? change.getText() : "");
+        }
+        text.setLength(0);
+        text.append(edited);
+        bump(newVersion);
+    }
+
+    synchronized void retarget(String newFilename, CompilerTier newTier) {
+        if (newFilename != null) filename = newFilename;
+        if (newTier != null) tier = newTier;
+    }
+
+    private void bump(Long newVersion) {
+        version = newVersion != null ? newVersion : version + 1;
+    }
+
+    synchronized Snapshot snapshot() {
+        return new Snapshot(version, filename, tier, text.toString());
+    }
+
+    synchronized boolean isCurrent(long analyzedVersion) {
+        return !closed && analyzedVersion == version;
+    }
+
+    /** Installs the next scheduled analysis and returns the one it supersedes, or null. */
+    synchronized Future<?> supersede(Future<?> next) {
+        Future<?> previous = pending;
+        pending = closed ? null : next;
+        return previous;
+    }
+
+    /**
+     * Installs {@code next} as the pending analysis if the document is still at {@code
+     * analyzedVersion}, without returning the analysis it replaces for cancellation. Returns
+     * false, installing nothing, if the document has been edited or closed since.
+     */
+    synchronized boolean followUp(long analyzedVersion, Future<?> next) {
+        if (!isCurrent(analyzedVersion)) return false;
+        pending = next;
+        return true;
+    }
+
+    synchronized Future<?> close() {
+        closed = true;
+        Future<?> previous = pending;
+        pending = null;
+        return previous;
+    }
+
+    /**
+     * Turns the analysis of {@code snapshot} into a delta against the issues published so far
+     * and records the new set as published. Returns null if the document has changed since the
+     * snapshot, in which case a newer analysis is already scheduled.
+     */
+    synchronized LiveAnalysisUpdate diff(Snapshot snapshot, LineIndex lines, AnalyzeResponse result, long elapsedMillis) {
+        if (!isCurrent(snapshot.version)) {
+            return null;
+        }
+        Map<String, Deque<IssueDto>> next = new HashMap<>();
+        List<IssueDto> added = new ArrayList<>();
+        Map<Long, Integer> moved = new LinkedHashMap<>();
+        for (IssueDto issue : result.getIssues()) {
+            String key = key(issue, lines);
+            Deque<IssueDto> previous = published.get(key);
+            IssueDto match = previous != null ? previous.pollFirst() : null;
+            if (match == null) {
+                issue.setId(nextIssueId++);
+                added.add(issue);
+            } else {
+                issue.setId(match.getId());
+                if (match.getLineNumber() != issue.getLineNumber()) moved.put(issue.getId(), issue.getLineNumber());
+            }
+            next.computeIfAbsent(key, k -> new ArrayDeque<>()).add(issue);
+        }
+        List<Long> removed = new ArrayList<>();
+        for (Deque<IssueDto> leftover : published.values()) {
+            for (IssueDto issue : leftover) removed.add(issue.getId());
+        }
+        published = next;
+
+        LiveAnalysisUpdate update = new LiveAnalysisUpdate();
+        update.setVersion(snapshot.version);
+        update.setAdded(added);
+        update.setMoved(moved);
+        update.setRemoved(removed);
+        update.setErrorCount(result.getErrorCount());
+        update.setWarningCount(result.getWarningCount());
+        update.setOptimizationCount(result.getOptimizationCount());
+        update.setSecurityCount(result.getSecurityCount());
+        update.setElapsedMillis(elapsedMillis);
+        update.setCompilerTier(snapshot.tier.name());
+        return update;
+    }
+
+    /** Identity of an issue across edits: what it says and the text of the line it is on, not the line number. */
+    private static String key(IssueDto issue, LineIndex lines) {
+        int line = issue.getLineNumber() - 1;
+        CharSequence lineText = line >= 0 && line < lines.lineCount() ? lines.line(line) : "";
+        return issue.getCategory() + "\u0000" + issue.getSeverity() + "\u0000" + issue.getTitle()
+                + "\u0000" + issue.getDescription() + "\u0000" + lineText.toString().strip();
+    }
+
+    /** The text and settings one analysis runs on. */
+    static final class Snapshot {
+        final long version;
+        final String filename;
+        final CompilerTier tier;
+        final String text;
+
+        Snapshot(long version, String filename, CompilerTier tier, String text) {
+            this.version = version;
+            this.filename = filename;
+            this.tier = tier;
+            this.text = text;
+        }
+
+        Snapshot withTier(CompilerTier other) {
+            return new Snapshot(version, filename, other, text);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.codereview.service.profile;
+
+import com.example.codereview.dto.AnalysisProfile;
+import com.example.codereview.dto.ProfileSegment;
+import com.example.codereview.service.AnalysisListener;
+import com.example.codereview.service.AnalysisPhase;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Listener that records wall time, thread CPU time and allocated bytes for every phase and
+ * rule of one analysis. Each segment is measured on the thread that runs it, so rules offloaded
+ * to the CPU pool are still attributed correctly; work the analysis starts on another thread
+ * (javac) is measured through {@link #measured(String, Callable)}.
+ */
+public class AnalysisProfiler implements AnalysisListener {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS;
+
+    static {
+        try {
+            if (THREADS.isCurrentThreadCpuTimeSupported() && !THREADS.isThreadCpuTimeEnabled()) {
+                THREADS.setThreadCpuTimeEnabled(true);
+            }
+        } catch (UnsupportedOperationException | SecurityException ignored) {
+            // CPU time is reported as -1
+        }
+        com.sun.management.ThreadMXBean allocations = null;
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            allocations = (com.sun.management.ThreadMXBean) THREADS;
+            try {
+                if (allocations.isThreadAllocatedMemorySupported() && !allocations.isThreadAllocatedMemoryEnabled()) {
+                    allocations.setThreadAllocatedMemoryEnabled(true);
+                }
+                if (!allocations.isThreadAllocatedMemoryEnabled()) allocations = null;
+            } catch (UnsupportedOperationException | SecurityException e) {
+                allocations = null;
+            }
+        }
+        ALLOCATIONS = allocations;
+    }
+
+    // Thread name of rules that ran chunk-parallel on the fork-join pool
+    static final String CHUNKED_THREAD = "fork-join (chunks)";
+
+    private final AnalysisListener delegate;
+    private final long startedNanos = System.nanoTime();
+    private final Map<String, Snapshot> open = new HashMap<>();
+    private final List<ProfileSegment> segments = new ArrayList<>();
+
+    public AnalysisProfiler(AnalysisListener delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void phaseStarted(AnalysisPhase phase) {
+        begin("phase:" + phase.name());
+        delegate.phaseStarted(phase);
+    }
+
+    @Override
+    public void phaseFinished(AnalysisPhase phase) {
+        delegate.phaseFinished(phase);
+        end("phase", phase.name().toLowerCase(), "phase:" + phase.name());
+    }
+
+    @Override
+    public void ruleStarted(String ruleName) {
+        begin("rule:" + ruleName);
+        delegate.ruleStarted(ruleName);
+    }
+
+    @Override
+    public void ruleFinished(String ruleName, int issueCount) {
+        delegate.ruleFinished(ruleName, issueCount);
+        end("rule", ruleName, "rule:" + ruleName);
+    }
+
+    /** Recorded as one segment whose wall time is the sum over the chunks the rule ran on. */
+    @Override
+    public void ruleCompleted(String ruleName, int issueCount, long nanos) {
+        delegate.ruleCompleted(ruleName, issueCount, nanos);
+        ProfileSegment s = new ProfileSegment();
+        s.setKind("rule");
+        s.setName(ruleName);
+        s.setThread(CHUNKED_THREAD);
+        s.setWallMillis(nanos / 1e6);
+        s.setCpuMillis(-1);
+        s.setAllocatedBytes(-1);
+        synchronized (this) {
+            segments.add(s);
+        }
+    }
+
+    @Override
+    public void ruleSkipped(String ruleName) {
+        delegate.ruleSkipped(ruleName);
+    }
+
+    /** Wraps work that runs on another thread so it shows up as a "background" segment. */
+    public <T> Callable<T> measured(String name, Callable<T> task) {
+        return () -> {
+            Snapshot start = Snapshot.take();
+            try {
+                return task.call();
+            } finally {
+                record("background", name, start);
+            }
+        };
+    }
+
+    public synchronized AnalysisProfile toProfile() {
+        AnalysisProfile profile = new AnalysisProfile();
+        profile.setWallMillis((System.nanoTime() - startedNanos) / 1e6);
+        profile.setSegments(new ArrayList<>(segments));
+        return profile;
+    }
+
+    private synchronized void begin(String key) {
+        open.put(key, Snapshot.take());
+    }
+
+    private void end(String kind, String name, String key) {
+        Snapshot start;
+        synchronized (this) {
+            start = open.remove(key);
+        }
+        if (start != null) {
+            record(kind, name, start);
+        }
+    }
+
+    private void record(String kind, String name, Snapshot start) {
+        Snapshot now = Snapshot.take();
+        ProfileSegment s = new ProfileSegment();
+        s.setKind(kind);
+        s.setName(name);
+        s.setThread(Thread.currentThread().getName());
+        s.setWallMillis((now.wallNanos - start.wallNanos) / 1e6);
+        s.setCpuMillis(start.cpuNanos < 0 || now.cpuNanos < 0 ? -1 : (now.cpuNanos - start.cpuNanos) / 1e6);
+        s.setAllocatedBytes(start.allocatedBytes < 0 || now.allocatedBytes < 0 ? -1 : now.allocatedBytes - start.allocatedBytes);
+        synchronized (this) {
+            segments.add(s);
+        }
+    }
+
+    private static final class Snapshot {
+        final long wallNanos;
+        final long cpuNanos;
+        final long allocatedBytes;
+
+        private Snapshot(long wallNanos, long cpuNanos, long allocatedBytes) {
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        static Snapshot take() {
+            long cpu = THREADS.isThreadCpuTimeEnabled() ? THREADS.getCurrentThreadCpuTime() : -1;
+            long allocated = ALLOCATIONS != null
+                    ? ALLOCATIONS.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+            return new Snapshot(System.nanoTime(), cpu, allocated);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.codereview.service.profile;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Takes JFR recordings around individual profiled analyses and keeps the most recent ones on
+ * disk for download. JFR records the whole JVM, so a recording also contains whatever else ran
+ * concurrently; it is meant for reproducing one slow input, not for busy production traffic.
+ */
+@Component
+public class JfrRecorder {
+
+    private final boolean enabled;
+    private final Path dir;
+    private final int retained;
+    private final Deque<String> recent = new ArrayDeque<>();
+
+    public JfrRecorder(@Value("${codereview.profile.jfr-enabled:false}") boolean enabled,
+                       @Value("${codereview.profile.jfr-dir:}") String dir,
+                       @Value("${codereview.profile.jfr-retained:20}") int retained) {
+        this.enabled = enabled;
+        this.dir = dir.isBlank()
+                ? Path.of(System.getProperty("java.io.tmpdir"), "codereview-jfr")
+                : Path.of(dir);
+        this.retained = Math.max(1, retained);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Recording start() {
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration("profile"));
+            recording.setName("codereview-analysis");
+            recording.setToDisk(true);
+            recording.start();
+            return recording;
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Could not start JFR recording", e);
+        }
+    }
+
+    /** Stops {@code recording}, writes it out and returns its id. */
+    public String finish(Recording recording) {
+        String id = UUID.randomUUID().toString();
+        try (recording) {
+            recording.stop();
+            Files.createDirectories(dir);
+            recording.dump(dir.resolve(id + ".jfr"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        synchronized (recent) {
+            recent.addLast(id);
+            while (recent.size() > retained) {
+                try {
+                    Files.deleteIfExists(dir.resolve(recent.removeFirst() + ".jfr"));
+                } catch (IOException ignored) {
+                    // best-effort cleanup
+                }
+            }
+        }
+        return id;
+    }
+
+    public Optional<Path> find(String id) {
+        try {
+            UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        Path file = dir.resolve(id + ".jfr");
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+}
@@ -1,16 +1,35 @@
 package com.example.codereview.service.rules;
 
 import com.example.codereview.model.CodeReview;
+import com.example.codereview.service.source.BlockPartition;
+import com.example.codereview.service.source.CharSlice;
+import com.example.codereview.service.source.LineIndex;
+import com.example.codereview.service.source.SourceText;
+import com.example.codereview.service.source.StructuralIndex;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * What a rule sees of one submission. Lines are addressed through a {@link LineIndex} over the
+ * single backing buffer; {@link #line(int)} is a zero-copy view, and Strings are only created
+ * for rules that ask for them via {@link #lineString(int)} or {@link #getLines()}.
+ */
 public class AnalysisContext {
 	private final CodeReview review;
-	private final String code;
-	private final String[] lines;
+	private final SourceText source;
+	private final LineIndex index;
+	private String[] lineStrings;
+	private BlockPartition blocks;
+	private volatile AtomicReferenceArray<byte[]> blockDigests;
+
+	public AnalysisContext(CodeReview review, String code) {
+		this(review, SourceText.of(code));
+	}
 
-	public AnalysisContext(CodeReview review, String code, String[] lines) {
+	public AnalysisContext(CodeReview review, SourceText source) {
 		this.review = review;
-		this.code = code;
-		this.lines = lines;
+		this.source = source;
+		this.index = source.lineIndex();
 	}
 
 	public CodeReview getReview() {
@@ -18,12 +37,93 @@ public class AnalysisContext {
 	}
 
 	public String getCode() {
-		return code;
+		return source.asString();
 	}
 
-	public String[] getLines() {
-		return lines;
+	/** The submission as a CharSequence, which may be a zero-copy view over an upload. */
+	public CharSequence getSource() {
+		return source.content();
 	}
-}
 
+	/** Line starts, brace depths and raw brace counts of the submission. */
+	public StructuralIndex getStructure() {
+		return source.structure();
+	}
 
+	public LineIndex getLineIndex() {
+		return index;
+	}
+
+	public int getLineCount() {
+		return index.lineCount();
+	}
+
+	/** Zero-copy view of the 0-based line, without its terminator. */
+	public CharSequence line(int i) {
+		return index.line(i);
+	}
+
+	/** The 0-based line as a String, materialized on first use and then reused. */
+	public String lineString(int i) {
+		if (lineStrings == null) {
+			lineStrings = new String[index.lineCount()];
+		}
+		String s = lineStrings[i];
+		if (s == null) {
+			s = index.line(i).toString();
+			lineStrings[i] = s;
+		}
+		return s;
+	}
+
+	/** Top-level member blocks of the file, computed on first use. */
+	public BlockPartition getBlocks() {
+		if (blocks == null) {
+			blocks = BlockPartition.of(source.structure());
+		}
+		return blocks;
+	}
+
+	/**
+	 * SHA-256 of the text of {@code block}, computed on first use and then shared by every rule
+	 * that looks it up. Safe to call from parallel chunk tasks once {@link #getBlocks()} has run.
+	 */
+	public byte[] blockDigest(int block) {
+		AtomicReferenceArray<byte[]> digests = blockDigests;
+		if (digests == null) {
+			synchronized (this) {
+				if (blockDigests == null) {
+					blockDigests = new AtomicReferenceArray<>(getBlocks().blockCount());
+				}
+				digests = blockDigests;
+			}
+		}
+		byte[] digest = digests.get(block);
+		if (digest == null) {
+			// Racing threads compute the same bytes; either result may be kept
+			digest = RuleResultCache.digest(source.content(), blocks.startOffset(block), blocks.endOffset(block));
+			digests.set(block, digest);
+		}
+		return digest;
+	}
+
+	/** A context that sees only the given block; its line 0 is the block's first line. */
+	public AnalysisContext forBlock(int block) {
+		return forBlocks(block, block + 1);
+	}
+
+	/** A context over the consecutive blocks {@code [fromBlock, toBlock)}, rebased to line 0. */
+	public AnalysisContext forBlocks(int fromBlock, int toBlock) {
+		BlockPartition b = getBlocks();
+		CharSlice text = new CharSlice(source.content(), b.startOffset(fromBlock), b.endOffset(toBlock - 1));
+		return new AnalysisContext(review, SourceText.wrap(text));
+	}
+
+	/** All lines as Strings, for rules written against the array form. */
+	public String[] getLines() {
+		for (int i = 0; i < index.lineCount(); i++) {
+			lineString(i);
+		}
+		return lineStrings;
+	}
+}
@@ -1,14 +1,55 @@
 package com.example.codereview.service.rules;
 
 import com.example.codereview.model.Issue;
+import com.example.codereview.model.Severity;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 public interface AnalysisRule {
+	/** Returns the findings as entities; kept for callers that want a standalone result. */
 	List<Issue> apply(AnalysisContext context);
+
+	/**
+	 * Writes the findings into {@code sink}. This is what the engine calls; the default adapts
+	 * rules that only implement {@link #apply(AnalysisContext)}.
+	 */
+	default void apply(AnalysisContext context, IssueSink sink) {
+		for (Issue issue : apply(context)) {
+			sink.add(issue);
+		}
+	}
 	String name();
 	boolean isEnabled();
 	void setEnabled(boolean enabled);
+
+	/**
+	 * Literal tokens, at least one of which must occur in a file (ignoring ASCII case) for this
+	 * rule to report anything. The engine skips the rule when none is present. An empty list
+	 * means the rule always runs.
+	 */
+	default List<String> prefilterKeywords() {
+		return List.of();
+	}
+
+	/**
+	 * True if the issues this rule reports for a span of lines depend only on the text of that
+	 * span, so the rule can be run on a top-level member block on its own and the result reused
+	 * whenever the same block text reappears. Rules that look across the whole file (brace
+	 * balance, imports vs. usages) must return false.
+	 */
+	default boolean isBlockLocal() {
+		return false;
+	}
+
+	/**
+	 * Every severity this rule can report. Gate-mode analyses skip rules whose issues the gate
+	 * would not count; the default claims all severities, so such a rule always runs.
+	 */
+	default Set<Severity> reportedSeverities() {
+		return EnumSet.allOf(Severity.class);
+	}
 }
 
 
@@ -1,28 +1,37 @@
 package com.example.codereview.service.rules;
 
-import com.example.codereview.model.Issue;
 import com.example.codereview.model.IssueCategory;
 import com.example.codereview.model.Severity;
+import com.example.codereview.service.source.Chars;
 
 import java.util.List;
+import java.util.Set;
 
 class ConsoleLoggingRule extends BaseRule {
+	private static final IssueTemplate CONSOLE_LOGGING = IssueTemplate.register(
+			"Console logging",
+			"System.out.println is used.",
+			"Use a proper logging framework instead of System.out.println in production code.",
+			IssueCategory.OPTIMIZATION, Severity.MEDIUM);
+
 	@Override
-	public List<Issue> apply(AnalysisContext context) {
-		List<Issue> out = list();
-		String[] lines = context.getLines();
-		for (int i = 0; i < lines.length; i++) {
-			if (lines[i].contains("System.out.println")) {
-				out.add(makeIssue(context.getReview(), i + 1,
-						"Console logging",
-						"System.out.println is used.",
-						"Use a proper logging framework instead of System.out.println in production code.",
-						IssueCategory.OPTIMIZATION, Severity.MEDIUM));
+	public void apply(AnalysisContext context, IssueSink sink) {
+		for (int i = 0, n = context.getLineCount(); i < n; i++) {
+			if (Chars.contains(context.line(i), "System.out.println")) {
+				sink.add(i + 1, CONSOLE_LOGGING);
 			}
 		}
-		return out;
 	}
 
+	@Override
+	public List<String> prefilterKeywords() { return List.of("System.out.println"); }
+
+	@Override
+	public boolean isBlockLocal() { return true; }
+
+	@Override
+	public Set<Severity> reportedSeverities() { return Set.of(Severity.MEDIUM); }
+
 	@Override
 	public String name() { return "console-logging"; }
 }
@@ -1,31 +1,40 @@
 package com.example.codereview.service.rules;
 
-import com.example.codereview.model.Issue;
 import com.example.codereview.model.IssueCategory;
 import com.example.codereview.model.Severity;
+import com.example.codereview.service.source.Chars;
 
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 class EmptyCatchBlockRule extends BaseRule {
-	private static final Pattern EMPTY_CATCH = Pattern.compile("catch\\s*\\([^)]*\\)\\s*\\{\\s*\\}");
+	private static final IssueTemplate EMPTY_CATCH_BLOCK = IssueTemplate.register(
+			"Empty catch block",
+			"Empty catch blocks hide exceptions and make debugging difficult.",
+			"Log the exception and/or handle it appropriately.",
+			IssueCategory.WARNING, Severity.MEDIUM);
+
+	private static final SafePattern EMPTY_CATCH = SafePattern.compile("catch\\s*\\([^)]*\\)\\s*\\{\\s*\\}");
 
 	@Override
-	public List<Issue> apply(AnalysisContext context) {
-		List<Issue> out = list();
-		String[] lines = context.getLines();
-		for (int i = 0; i < lines.length; i++) {
-			if (EMPTY_CATCH.matcher(lines[i]).find()) {
-				out.add(makeIssue(context.getReview(), i + 1,
-						"Empty catch block",
-						"Empty catch blocks hide exceptions and make debugging difficult.",
-						"Log the exception and/or handle it appropriately.",
-						IssueCategory.WARNING, Severity.MEDIUM));
+	public void apply(AnalysisContext context, IssueSink sink) {
+		for (int i = 0, n = context.getLineCount(); i < n; i++) {
+			CharSequence l = context.line(i);
+			if (Chars.contains(l, "catch") && EMPTY_CATCH.find(l)) {
+				sink.add(i + 1, EMPTY_CATCH_BLOCK);
 			}
 		}
-		return out;
 	}
 
+	@Override
+	public List<String> prefilterKeywords() { return List.of("catch"); }
+
+	@Override
+	public boolean isBlockLocal() { return true; }
+
+	@Override
+	public Set<Severity> reportedSeverities() { return Set.of(Severity.MEDIUM); }
+
 	@Override
 	public String name() { return "empty-catch"; }
 }
@@ -1,31 +1,43 @@
 package com.example.codereview.service.rules;
 
-import com.example.codereview.model.Issue;
 import com.example.codereview.model.IssueCategory;
 import com.example.codereview.model.Severity;
+import com.example.codereview.service.source.Chars;
 
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 class HardcodedSecretRule extends BaseRule {
-	private static final Pattern SECRET_PAT = Pattern.compile("(?i)(password\\s*=|api[_-]?key\\s*=|secret\\s*=|AKIA[0-9A-Z]{16})");
+	private static final IssueTemplate HARDCODED_SECRET = IssueTemplate.register(
+			"Hardcoded secret detected",
+			"Potentially sensitive credential detected in code.",
+			"Do not commit secrets. Use environment variables or a secrets manager.",
+			IssueCategory.SECURITY, Severity.HIGH);
+
+	private static final SafePattern SECRET_PAT = SafePattern.compile("(?i)(password\\s*=|api[_-]?key\\s*=|secret\\s*=|AKIA[0-9A-Z]{16})");
 
 	@Override
-	public List<Issue> apply(AnalysisContext context) {
-		List<Issue> out = list();
-		String[] lines = context.getLines();
-		for (int i = 0; i < lines.length; i++) {
-			if (SECRET_PAT.matcher(lines[i]).find()) {
-				out.add(makeIssue(context.getReview(), i + 1,
-						"Hardcoded secret detected",
-						"Potentially sensitive credential detected in code.",
-						"Do not commit secrets. Use environment variables or a secrets manager.",
-						IssueCategory.SECURITY, Severity.HIGH));
+	public void apply(AnalysisContext context, IssueSink sink) {
+		for (int i = 0, n = context.getLineCount(); i < n; i++) {
+			CharSequence l = context.line(i);
+			// Every alternative contains one of these literals; only candidate lines reach the automaton
+			if ((Chars.containsIgnoreCase(l, "password") || Chars.containsIgnoreCase(l, "key")
+					|| Chars.containsIgnoreCase(l, "secret") || Chars.containsIgnoreCase(l, "akia"))
+					&& SECRET_PAT.find(l)) {
+				sink.add(i + 1, HARDCODED_SECRET);
 			}
 		}
-		return out;
 	}
 
+	@Override
+	public List<String> prefilterKeywords() { return List.of("password", "api_key", "api-key", "apikey", "secret", "AKIA"); }
+
+	@Override
+	public boolean isBlockLocal() { return true; }
+
+	@Override
+	public Set<Severity> reportedSeverities() { return Set.of(Severity.HIGH); }
+
 	@Override
 	public String name() { return "hardcoded-secret"; }
 }
@@ -1,15 +1,42 @@
 package com.example.codereview.service.rules;
 
-import com.example.codereview.model.Issue;
 import com.example.codereview.model.IssueCategory;
 import com.example.codereview.model.Severity;
 
 import java.util.List;
+import java.util.Set;
 
 class InfiniteLoopRule extends BaseRule {
+	private static final IssueTemplate LOOP_REPEATS_IMMEDIATELY = IssueTemplate.register(
+			"Likely infinite loop",
+			"This loop appears unconditional and immediately repeats.",
+			"Ensure the loop has an exit condition or a break/return/throw path.",
+			IssueCategory.ERROR, Severity.HIGH);
+
+	private static final IssueTemplate STATEMENT_WITHOUT_EXIT = IssueTemplate.register(
+			"Likely infinite loop",
+			"This loop appears unconditional without an exit in its body.",
+			"Add a break/return/throw or a conditional exit.",
+			IssueCategory.ERROR, Severity.HIGH);
+
+	private static final IssueTemplate BODY_WITHOUT_EXIT = IssueTemplate.register(
+			"Likely infinite loop",
+			"This loop appears unconditional and the body lacks an exit path.",
+			"Add a break/return/throw or make the condition finite.",
+			IssueCategory.ERROR, Severity.HIGH);
+
+	private static final IssueTemplate DO_WHILE_WITHOUT_EXIT = IssueTemplate.register(
+			"Likely infinite loop",
+			"This do-while loop is unconditional and has no exit path.",
+			"Add a break/return/throw or make the condition finite.",
+			IssueCategory.ERROR, Severity.HIGH);
+
+	private static final SafePattern WHILE_TRUE = SafePattern.compile("^while\\s*\\(\\s*(?:(?i:true)|1\\s*==\\s*1|0\\s*==\\s*0)\\s*\\).*");
+	private static final SafePattern FOR_EVER = SafePattern.compile("^for\\s*\\(\\s*;\\s*;\\s*\\).*");
+	private static final SafePattern WHILE_TRUE_STATEMENT = SafePattern.compile("^while\\s*\\(\\s*(?:(?i:true)|1\\s*==\\s*1|0\\s*==\\s*0)\\s*\\)\\s*;.*");
+
 	@Override
-	public List<Issue> apply(AnalysisContext context) {
-		List<Issue> out = list();
+	public void apply(AnalysisContext context, IssueSink sink) {
 		String[] lines = context.getLines();
 
 		boolean inBlockComment = false;
@@ -29,10 +56,8 @@ class InfiniteLoopRule extends BaseRule {
 			String trimmed = l.trim();
 			if (trimmed.isEmpty()) continue;
 
-			boolean whileTrue = trimmed.matches("^while\\s*\\(\\s*(?i:true)\\s*\\).*")
-					|| trimmed.matches("^while\\s*\\(\\s*1\\s*==\\s*1\\s*\\).*")
-					|| trimmed.matches("^while\\s*\\(\\s*0\\s*==\\s*0\\s*\\).*");
-			boolean forEver = trimmed.matches("^for\\s*\\(\\s*;\\s*;\\s*\\).*");
+			boolean whileTrue = trimmed.startsWith("while") && WHILE_TRUE.matches(trimmed);
+			boolean forEver = trimmed.startsWith("for") && FOR_EVER.matches(trimmed);
 
 			// do { ... } while (true);
 			boolean doHeader = trimmed.startsWith("do");
@@ -40,11 +65,7 @@ class InfiniteLoopRule extends BaseRule {
 			if (whileTrue || forEver) {
 				// Case 1: Single-statement loop like 'while(true);'
 				if (trimmed.endsWith(";") && !trimmed.contains("{")) {
-					out.add(makeIssue(context.getReview(), i + 1,
-							"Likely infinite loop",
-							"This loop appears unconditional and immediately repeats.",
-							"Ensure the loop has an exit condition or a break/return/throw path.",
-							IssueCategory.ERROR, Severity.HIGH));
+					sink.add(i + 1, LOOP_REPEATS_IMMEDIATELY);
 					continue;
 				}
 				// Case 2: Block loop – scan the block for exit statements
@@ -53,19 +74,11 @@ class InfiniteLoopRule extends BaseRule {
 					// No block, but not semicolon – treat next statement
 					int stmtEnd = findStatementEnd(lines, i + 1);
 					if (!blockContainsExit(lines, i + 1, stmtEnd)) {
-						out.add(makeIssue(context.getReview(), i + 1,
-								"Likely infinite loop",
-								"This loop appears unconditional without an exit in its body.",
-								"Add a break/return/throw or a conditional exit.",
-								IssueCategory.ERROR, Severity.HIGH));
+						sink.add(i + 1, STATEMENT_WITHOUT_EXIT);
 					}
 				} else {
 					if (!blockContainsExit(lines, i + 1, end)) {
-						out.add(makeIssue(context.getReview(), i + 1,
-								"Likely infinite loop",
-								"This loop appears unconditional and the body lacks an exit path.",
-								"Add a break/return/throw or make the condition finite.",
-								IssueCategory.ERROR, Severity.HIGH));
+						sink.add(i + 1, BODY_WITHOUT_EXIT);
 					}
 					i = Math.max(i, end);
 				}
@@ -79,26 +92,28 @@ class InfiniteLoopRule extends BaseRule {
 					for (int k = i + 1; k <= Math.min(lines.length - 1, blockEnd + 2); k++) {
 						String t = stripLineComments(lines[k]).trim();
 						if (t.startsWith("while")) {
-							whileTrueAfter = t.matches("^while\\s*\\(\\s*(?i:true)\\s*\\)\\s*;.*")
-									|| t.matches("^while\\s*\\(\\s*1\\s*==\\s*1\\s*\\)\\s*;.*")
-									|| t.matches("^while\\s*\\(\\s*0\\s*==\\s*0\\s*\\)\\s*;.*");
+							whileTrueAfter = WHILE_TRUE_STATEMENT.matches(t);
 							break;
 						}
 					}
 					if (whileTrueAfter && !blockContainsExit(lines, i + 1, blockEnd)) {
-						out.add(makeIssue(context.getReview(), i + 1,
-								"Likely infinite loop",
-								"This do-while loop is unconditional and has no exit path.",
-								"Add a break/return/throw or make the condition finite.",
-								IssueCategory.ERROR, Severity.HIGH));
+						sink.add(i + 1, DO_WHILE_WITHOUT_EXIT);
 					}
 					i = blockEnd;
 				}
 			}
 		}
-		return out;
 	}
 
+	@Override
+	public List<String> prefilterKeywords() { return List.of("while", "for", "do"); }
+
+	@Override
+	public boolean isBlockLocal() { return true; }
+
+	@Override
+	public Set<Severity> reportedSeverities() { return Set.of(Severity.HIGH); }
+
 	@Override
 	public String name() { return "infinite-loop"; }
 
@@ -0,0 +1,150 @@
+package com.example.codereview.service.rules;
+
+import com.example.codereview.model.CodeReview;
+import com.example.codereview.model.Issue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns the issues of an analysis into entities, folding repetition so a generated or minified
+ * file cannot produce an unbounded number of rows:
+ * <ol>
+ *   <li>Within a rule, issues with the same message that occur at least {@code minOccurrences}
+ *       times become one issue spanning their lines, with {@code occurrences} and a compact
+ *       {@code lineRanges} list such as {@code "3-7,9,12-40"}.</li>
+ *   <li>If a rule still has more than {@code maxPerRule} issues (messages that name a variable or
+ *       an import differ on every line), all its issues with the same title are folded likewise,
+ *       with a summary description and {@code variedDetails} set.</li>
+ * </ol>
+ * At most {@code maxRanges} ranges are stored per issue. The individual occurrences are never
+ * lost: the review keeps its code, and expanding an aggregate re-runs its rule. Review counts
+ * are taken from the sink, so they still count every occurrence.
+ */
+@Component
+public class IssueAggregator {
+
+	// Issue.lineRanges column length, less room for the ",..." marker
+	private static final int MAX_RANGES_LENGTH = 8000 - 4;
+
+	private final int minOccurrences;
+	private final int maxPerRule;
+	private final int maxRanges;
+
+	public IssueAggregator(@Value("${codereview.issues.aggregate-min-occurrences:10}") int minOccurrences,
+	                       @Value("${codereview.issues.max-per-rule:100}") int maxPerRule,
+	                       @Value("${codereview.issues.max-line-ranges:500}") int maxRanges) {
+		this.minOccurrences = minOccurrences > 1 ? minOccurrences : Integer.MAX_VALUE;
+		this.maxPerRule = maxPerRule > 0 ? maxPerRule : Integer.MAX_VALUE;
+		this.maxRanges = Math.max(1, maxRanges);
+	}
+
+	public List<Issue> toEntities(IssueSink sink, CodeReview review) {
+		Map<String, List<Integer>> byRule = new LinkedHashMap<>();
+		for (int i = 0; i < sink.size(); i++) {
+			byRule.computeIfAbsent(String.valueOf(sink.ruleName(i)), k -> new ArrayList<>()).add(i);
+		}
+		List<Issue> out = new ArrayList<>(Math.min(sink.size(), byRule.size() * Math.min(maxPerRule, 1024)));
+		for (List<Integer> indices : byRule.values()) {
+			aggregateRule(sink, indices, review, out);
+		}
+		return out;
+	}
+
+	private void aggregateRule(IssueSink sink, List<Integer> indices, CodeReview review, List<Issue> out) {
+		if (indices.size() < minOccurrences && indices.size() <= maxPerRule) {
+			for (int i : indices) out.add(single(sink, i, review));
+			return;
+		}
+		Map<String, List<Integer>> byMessage = group(sink, indices, false);
+		int rows = 0;
+		for (List<Integer> group : byMessage.values()) {
+			rows += group.size() >= minOccurrences ? 1 : group.size();
+		}
+		boolean byTitle = rows > maxPerRule;
+		for (List<Integer> group : (byTitle ? group(sink, indices, true) : byMessage).values()) {
+			boolean varied = byTitle && !sameMessage(sink, group);
+			if (group.size() >= minOccurrences || (byTitle && group.size() > 1)) {
+				out.add(aggregate(sink, group, varied, review));
+			} else {
+				for (int i : group) out.add(single(sink, i, review));
+			}
+		}
+	}
+
+	/** {@code indices} grouped by message (or only by title), in order of first occurrence. */
+	private static Map<String, List<Integer>> group(IssueSink sink, List<Integer> indices, boolean titleOnly) {
+		Map<String, List<Integer>> groups = new LinkedHashMap<>();
+		for (int i : indices) {
+			groups.computeIfAbsent(titleOnly ? sink.template(i).getTitle() : messageKey(sink.template(i)),
+					k -> new ArrayList<>()).add(i);
+		}
+		return groups;
+	}
+
+	private static String messageKey(IssueTemplate t) {
+		return t.getId() >= 0 ? "#" + t.getId()
+				: t.getTitle() + '\u0000' + t.getDescription() + '\u0000' + t.getSuggestion()
+				+ '\u0000' + t.getCategory() + '\u0000' + t.getSeverity();
+	}
+
+	private static boolean sameMessage(IssueSink sink, List<Integer> group) {
+		String first = messageKey(sink.template(group.get(0)));
+		for (int i : group) {
+			if (!messageKey(sink.template(i)).equals(first)) return false;
+		}
+		return true;
+	}
+
+	private static Issue single(IssueSink sink, int i, CodeReview review) {
+		Issue issue = sink.toEntity(i, review);
+		issue.setRuleName(sink.ruleName(i));
+		return issue;
+	}
+
+	private Issue aggregate(IssueSink sink, List<Integer> group, boolean varied, CodeReview review) {
+		int[] lines = new int[group.size()];
+		for (int k = 0; k < lines.length; k++) lines[k] = sink.line(group.get(k));
+		Arrays.sort(lines);
+
+		Issue issue = single(sink, group.get(0), review);
+		issue.setLineNumber(lines[0]);
+		issue.setEndLineNumber(lines[lines.length - 1]);
+		issue.setOccurrences(lines.length);
+		issue.setLineRanges(ranges(lines, maxRanges));
+		if (varied) {
+			issue.setVariedDetails(true);
+			issue.setDescription(lines.length + " occurrences with differing details; expand the issue to list each one.");
+		}
+		return issue;
+	}
+
+	/** Sorted lines as "a-b,c,..." with at most {@code maxRanges} ranges, then ",..." if cut off. */
+	static String ranges(int[] sortedLines, int maxRanges) {
+		StringBuilder sb = new StringBuilder();
+		int count = 0;
+		int i = 0;
+		while (i < sortedLines.length) {
+			int start = sortedLines[i];
+			int end = start;
+			while (i < sortedLines.length && sortedLines[i] <= end + 1) {
+				end = Math.max(end, sortedLines[i]);
+				i++;
+			}
+			if (count == maxRanges || sb.length() + 24 > MAX_RANGES_LENGTH) {
+				sb.append(",...");
+				break;
+			}
+			if (count > 0) sb.append(',');
+			sb.append(start);
+			if (end > start) sb.append('-').append(end);
+			count++;
+		}
+		return sb.toString();
+	}
+}
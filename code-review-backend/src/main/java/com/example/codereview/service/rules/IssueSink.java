@@ -0,0 +1,142 @@
+package com.example.codereview.service.rules;
+
+import com.example.codereview.model.CodeReview;
+import com.example.codereview.model.Issue;
+import com.example.codereview.model.IssueCategory;
+import com.example.codereview.model.Severity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects the issues of one analysis in parallel primitive arrays (rule, line, template,
+ * category and severity ordinals) instead of one JPA entity per finding. Entities are only
+ * created by {@link #toEntities} when the review is persisted, so a file with tens of thousands
+ * of findings costs a few arrays on the rule path rather than an object graph per issue.
+ *
+ * <p>Not thread-safe: each analysis (and each block run by {@link RuleResultCache}) uses its own.
+ */
+public final class IssueSink {
+
+	private static final IssueCategory[] CATEGORIES = IssueCategory.values();
+	private static final Severity[] SEVERITIES = Severity.values();
+
+	private int size;
+	private int[] rules = new int[16];
+	private int[] lines = new int[16];
+	// >= 0: IssueTemplate registry id; < 0: -(index into adHoc) - 1
+	private int[] templates = new int[16];
+	private byte[] categories = new byte[16];
+	private byte[] severities = new byte[16];
+	private final int[] categoryCounts = new int[CATEGORIES.length];
+
+	private final List<String> ruleNames = new ArrayList<>();
+	private final List<IssueTemplate> adHoc = new ArrayList<>();
+	private int currentRule = -1;
+
+	/** Attributes the issues added from now on to {@code ruleName}. */
+	public void beginRule(String ruleName) {
+		ruleNames.add(ruleName);
+		currentRule = ruleNames.size() - 1;
+	}
+
+	public void add(int lineNumber, IssueTemplate template) {
+		int ref;
+		if (template.getId() >= 0) {
+			ref = template.getId();
+		} else {
+			adHoc.add(template);
+			ref = -adHoc.size();
+		}
+		if (size == lines.length) {
+			grow();
+		}
+		rules[size] = currentRule;
+		lines[size] = lineNumber;
+		templates[size] = ref;
+		categories[size] = (byte) template.getCategory().ordinal();
+		severities[size] = (byte) template.getSeverity().ordinal();
+		categoryCounts[template.getCategory().ordinal()]++;
+		size++;
+	}
+
+	/** For messages that differ per issue, e.g. ones naming a variable. */
+	public void add(int lineNumber, String title, String description, String suggestion,
+	                IssueCategory category, Severity severity) {
+		add(lineNumber, IssueTemplate.adHoc(title, description, suggestion, category, severity));
+	}
+
+	/** Adapter for rules that still build {@link Issue} entities. */
+	public void add(Issue issue) {
+		add(issue.getLineNumber(), issue.getTitle(), issue.getDescription(), issue.getSuggestion(),
+				issue.getCategory(), issue.getSeverity());
+	}
+
+	/** Appends every issue of {@code other} under the current rule, shifting lines by {@code lineOffset}. */
+	public void addAll(IssueSink other, int lineOffset) {
+		for (int i = 0; i < other.size; i++) {
+			add(other.lines[i] + lineOffset, other.template(i));
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int line(int i) {
+		return lines[i];
+	}
+
+	public IssueTemplate template(int i) {
+		int ref = templates[i];
+		return ref >= 0 ? IssueTemplate.byId(ref) : adHoc.get(-ref - 1);
+	}
+
+	public IssueCategory category(int i) {
+		return CATEGORIES[categories[i]];
+	}
+
+	public Severity severity(int i) {
+		return SEVERITIES[severities[i]];
+	}
+
+	/** Name of the rule that reported issue {@code i}, or null if none was begun. */
+	public String ruleName(int i) {
+		return rules[i] < 0 ? null : ruleNames.get(rules[i]);
+	}
+
+	public int count(IssueCategory category) {
+		return categoryCounts[category.ordinal()];
+	}
+
+	public Issue toEntity(int i, CodeReview review) {
+		IssueTemplate t = template(i);
+		Issue issue = new Issue();
+		issue.setCodeReview(review);
+		issue.setLineNumber(lines[i]);
+		issue.setTitle(t.getTitle());
+		issue.setDescription(t.getDescription());
+		issue.setSuggestion(t.getSuggestion());
+		issue.setCategory(category(i));
+		issue.setSeverity(severity(i));
+		return issue;
+	}
+
+	public List<Issue> toEntities(CodeReview review) {
+		List<Issue> out = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			out.add(toEntity(i, review));
+		}
+		return out;
+	}
+
+	private void grow() {
+		int capacity = lines.length * 2;
+		rules = Arrays.copyOf(rules, capacity);
+		lines = Arrays.copyOf(lines, capacity);
+		templates = Arrays.copyOf(templates, capacity);
+		categories = Arrays.copyOf(categories, capacity);
+		severities = Arrays.copyOf(severities, capacity);
+	}
+}
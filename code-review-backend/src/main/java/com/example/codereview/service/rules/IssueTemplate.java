@@ -0,0 +1,85 @@
+package com.example.codereview.service.rules;
+
+import com.example.codereview.model.IssueCategory;
+import com.example.codereview.model.Severity;
+
+import java.util.Arrays;
+
+/**
+ * The fixed part of an issue: everything except the line it is reported on. Rules register
+ * their templates once, as constants, and an {@link IssueSink} stores only the template id per
+ * issue. Messages that vary per issue use {@link #adHoc} templates, which are not registered
+ * and are owned by the sink that received them.
+ *
+ * <p>Registration happens a handful of times, when rule classes initialize, while lookups happen
+ * for every issue materialized; the registry is therefore copy-on-write and read without locking.
+ */
+public final class IssueTemplate {
+
+	private static final Object REGISTRATION_LOCK = new Object();
+	// Replaced, never modified, on registration, so readers see a complete array
+	private static volatile IssueTemplate[] registered = new IssueTemplate[0];
+
+	private final int id;
+	private final String title;
+	private final String description;
+	private final String suggestion;
+	private final IssueCategory category;
+	private final Severity severity;
+
+	private IssueTemplate(int id, String title, String description, String suggestion,
+	                      IssueCategory category, Severity severity) {
+		this.id = id;
+		this.title = title;
+		this.description = description;
+		this.suggestion = suggestion;
+		this.category = category;
+		this.severity = severity;
+	}
+
+	public static IssueTemplate register(String title, String description, String suggestion,
+	                                     IssueCategory category, Severity severity) {
+		synchronized (REGISTRATION_LOCK) {
+			IssueTemplate[] current = registered;
+			IssueTemplate t = new IssueTemplate(current.length, title, description, suggestion, category, severity);
+			IssueTemplate[] next = Arrays.copyOf(current, current.length + 1);
+			next[current.length] = t;
+			registered = next;
+			return t;
+		}
+	}
+
+	public static IssueTemplate adHoc(String title, String description, String suggestion,
+	                                  IssueCategory category, Severity severity) {
+		return new IssueTemplate(-1, title, description, suggestion, category, severity);
+	}
+
+	static IssueTemplate byId(int id) {
+		return registered[id];
+	}
+
+	/** Registry id, or -1 for an ad-hoc template. */
+	public int getId() {
+		return id;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public String getSuggestion() {
+		return suggestion;
+	}
+
+	public IssueCategory getCategory() {
+		return category;
+	}
+
+	public Severity getSeverity() {
+		return severity;
+	}
+}
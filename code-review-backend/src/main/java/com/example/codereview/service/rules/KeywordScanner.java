@@ -0,0 +1,96 @@
+package com.example.codereview.service.rules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton over the prefilter keywords of all rules. One pass over a file reports
+ * which keywords occur anywhere in it. Matching is ASCII case-insensitive, which can only
+ * produce extra hits, so a prefilter built on it never hides a real match.
+ */
+final class KeywordScanner {
+
+	private final List<String> keywords;
+	private final int[][] next;      // state -> transition per folded char (0..127)
+	private final BitSet[] outputs;  // state -> keyword ids ending here
+
+	KeywordScanner(List<String> keywords) {
+		this.keywords = List.copyOf(keywords);
+		List<int[]> trie = new ArrayList<>();
+		List<BitSet> out = new ArrayList<>();
+		trie.add(newState());
+		out.add(new BitSet());
+		for (int k = 0; k < this.keywords.size(); k++) {
+			int state = 0;
+			for (char raw : this.keywords.get(k).toCharArray()) {
+				int c = fold(raw);
+				if (trie.get(state)[c] < 0) {
+					trie.get(state)[c] = trie.size();
+					trie.add(newState());
+					out.add(new BitSet());
+				}
+				state = trie.get(state)[c];
+			}
+			out.get(state).set(k);
+		}
+		int[] fail = new int[trie.size()];
+		int[] queue = new int[trie.size()];
+		int head = 0, tail = 0;
+		for (int c = 0; c < 128; c++) {
+			int s = trie.get(0)[c];
+			if (s < 0) {
+				trie.get(0)[c] = 0;
+			} else {
+				fail[s] = 0;
+				queue[tail++] = s;
+			}
+		}
+		// Breadth-first: turn the trie into a full DFA and merge outputs along failure links
+		while (head < tail) {
+			int s = queue[head++];
+			out.get(s).or(out.get(fail[s]));
+			for (int c = 0; c < 128; c++) {
+				int t = trie.get(s)[c];
+				if (t < 0) {
+					trie.get(s)[c] = trie.get(fail[s])[c];
+				} else {
+					fail[t] = trie.get(fail[s])[c];
+					queue[tail++] = t;
+				}
+			}
+		}
+		this.next = trie.toArray(new int[0][]);
+		this.outputs = out.toArray(new BitSet[0]);
+	}
+
+	/** Keyword ids present in {@code text}; stops early once every keyword has been seen. */
+	BitSet scan(CharSequence text) {
+		BitSet found = new BitSet(keywords.size());
+		int state = 0;
+		int remaining = keywords.size();
+		for (int i = 0, n = text.length(); i < n && remaining > 0; i++) {
+			char ch = text.charAt(i);
+			// Non-ASCII chars never occur in keywords; they reset the automaton
+			state = ch < 128 ? next[state][fold(ch)] : 0;
+			BitSet hits = outputs[state];
+			if (!hits.isEmpty()) {
+				int before = found.cardinality();
+				found.or(hits);
+				remaining -= found.cardinality() - before;
+			}
+		}
+		return found;
+	}
+
+	private static int[] newState() {
+		int[] s = new int[128];
+		Arrays.fill(s, -1);
+		return s;
+	}
+
+	private static int fold(char c) {
+		return c >= 'A' && c <= 'Z' ? c + 32 : c & 0x7F;
+	}
+}
@@ -1,30 +1,34 @@
 package com.example.codereview.service.rules;
 
-import com.example.codereview.model.Issue;
 import com.example.codereview.model.IssueCategory;
 import com.example.codereview.model.Severity;
 
-import java.util.List;
+import java.util.Set;
 
 class LongLineRule extends BaseRule {
+	private static final IssueTemplate LONG_LINE = IssueTemplate.register(
+			"Long line",
+			"This line is very long.",
+			"Break long lines into smaller chunks for better readability.",
+			IssueCategory.OPTIMIZATION, Severity.LOW);
+
 	private static final int MAX_LEN = 120;
 
 	@Override
-	public List<Issue> apply(AnalysisContext context) {
-		List<Issue> out = list();
-		String[] lines = context.getLines();
-		for (int i = 0; i < lines.length; i++) {
-			if (lines[i].length() > MAX_LEN) {
-				out.add(makeIssue(context.getReview(), i + 1,
-						"Long line",
-						"This line is very long.",
-						"Break long lines into smaller chunks for better readability.",
-						IssueCategory.OPTIMIZATION, Severity.LOW));
+	public void apply(AnalysisContext context, IssueSink sink) {
+		for (int i = 0, n = context.getLineCount(); i < n; i++) {
+			if (context.getLineIndex().lineLength(i) > MAX_LEN) {
+				sink.add(i + 1, LONG_LINE);
 			}
 		}
-		return out;
 	}
 
+	@Override
+	public boolean isBlockLocal() { return true; }
+
+	@Override
+	public Set<Severity> reportedSeverities() { return Set.of(Severity.LOW); }
+
 	@Override
 	public String name() { return "long-line"; }
 }
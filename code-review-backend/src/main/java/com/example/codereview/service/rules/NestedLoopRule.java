@@ -1,37 +1,46 @@
 package com.example.codereview.service.rules;
 
-import com.example.codereview.model.Issue;
 import com.example.codereview.model.IssueCategory;
 import com.example.codereview.model.Severity;
+import com.example.codereview.service.source.Chars;
 
 import java.util.List;
+import java.util.Set;
 
 class NestedLoopRule extends BaseRule {
+	private static final IssueTemplate NESTED_LOOP = IssueTemplate.register(
+			"Nested loop detected",
+			"Nested loops can cause performance issues on large inputs.",
+			"Consider reducing algorithmic complexity or breaking out loops.",
+			IssueCategory.OPTIMIZATION, Severity.MEDIUM);
+
 	@Override
-	public List<Issue> apply(AnalysisContext context) {
-		List<Issue> out = list();
-		String[] lines = context.getLines();
+	public void apply(AnalysisContext context, IssueSink sink) {
 		int nesting = 0;
-		for (int i = 0; i < lines.length; i++) {
-			String l = lines[i];
-			if (l.contains("for(") || l.contains("for (") || l.contains("while(") || l.contains("while (")) {
+		for (int i = 0, n = context.getLineCount(); i < n; i++) {
+			CharSequence l = context.line(i);
+			if (Chars.contains(l, "for(") || Chars.contains(l, "for (") || Chars.contains(l, "while(") || Chars.contains(l, "while (")) {
 				nesting++;
 				if (nesting >= 2) {
-					out.add(makeIssue(context.getReview(), i + 1,
-							"Nested loop detected",
-							"Nested loops can cause performance issues on large inputs.",
-							"Consider reducing algorithmic complexity or breaking out loops.",
-							IssueCategory.OPTIMIZATION, Severity.MEDIUM));
+					sink.add(i + 1, NESTED_LOOP);
 				}
 			}
 			// track braces to roughly detect exiting loops
-			if (l.contains("}")) {
+			if (Chars.contains(l, "}")) {
 				if (nesting > 0) nesting--;
 			}
 		}
-		return out;
 	}
 
+	@Override
+	public List<String> prefilterKeywords() { return List.of("for", "while"); }
+
+	@Override
+	public boolean isBlockLocal() { return true; }
+
+	@Override
+	public Set<Severity> reportedSeverities() { return Set.of(Severity.MEDIUM); }
+
 	@Override
 	public String name() { return "nested-loop"; }
 }
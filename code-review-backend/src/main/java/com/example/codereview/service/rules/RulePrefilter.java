@@ -0,0 +1,53 @@
+package com.example.codereview.service.rules;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides which rules can possibly fire on a file from a single keyword scan. A rule with
+ * prefilter keywords is only worth running if at least one of them occurs in the file.
+ */
+final class RulePrefilter {
+
+	private final KeywordScanner scanner;
+	private final Map<AnalysisRule, int[]> keywordIds = new IdentityHashMap<>();
+
+	RulePrefilter(Iterable<AnalysisRule> rules) {
+		Map<String, Integer> ids = new LinkedHashMap<>();
+		for (AnalysisRule rule : rules) {
+			List<String> keywords = rule.prefilterKeywords();
+			int[] arr = new int[keywords.size()];
+			for (int i = 0; i < arr.length; i++) {
+				arr[i] = ids.computeIfAbsent(keywords.get(i).toLowerCase(), k -> ids.size());
+			}
+			keywordIds.put(rule, arr);
+		}
+		this.scanner = new KeywordScanner(new ArrayList<>(ids.keySet()));
+	}
+
+	/** Splits {@code rules} into those that may match {@code source} and those that cannot. */
+	List<AnalysisRule> applicable(List<AnalysisRule> rules, CharSequence source, List<AnalysisRule> skipped) {
+		BitSet present = scanner.scan(source);
+		List<AnalysisRule> out = new ArrayList<>(rules.size());
+		for (AnalysisRule rule : rules) {
+			int[] ids = keywordIds.get(rule);
+			if (ids == null || ids.length == 0 || anyPresent(ids, present)) {
+				out.add(rule);
+			} else {
+				skipped.add(rule);
+			}
+		}
+		return out;
+	}
+
+	private static boolean anyPresent(int[] ids, BitSet present) {
+		for (int id : ids) {
+			if (present.get(id)) return true;
+		}
+		return false;
+	}
+}
@@ -7,10 +7,12 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Component
 public class RuleRegistry {
 	private final Map<String, AnalysisRule> rulesByName = new LinkedHashMap<>();
+	private final RulePrefilter prefilter;
 
 	public RuleRegistry() {
 		// Register default rules in a deterministic order
@@ -27,12 +29,23 @@ public class RuleRegistry {
 		register(new InfiniteLoopRule());
 		register(new UnusedVariableRule());
 		register(new UnusedImportRule());
+		prefilter = new RulePrefilter(rulesByName.values());
 	}
 
 	private void register(AnalysisRule rule) {
 		rulesByName.put(rule.name(), rule);
 	}
 
+	/** All registered rules, enabled or not, in registration order. */
+	public List<AnalysisRule> getRules() {
+		return List.copyOf(rulesByName.values());
+	}
+
+	/** The rule registered as {@code name}, enabled or not. */
+	public Optional<AnalysisRule> findRule(String name) {
+		return Optional.ofNullable(rulesByName.get(name));
+	}
+
 	public List<AnalysisRule> getEnabledRules() {
 		List<AnalysisRule> list = new ArrayList<>();
 		for (AnalysisRule r : rulesByName.values()) {
@@ -41,6 +54,14 @@ public class RuleRegistry {
 		return list;
 	}
 
+	/**
+	 * Enabled rules whose prefilter keywords occur in {@code source}; the others are added to
+	 * {@code skipped}. Costs one pass over the file regardless of the number of rules.
+	 */
+	public List<AnalysisRule> getApplicableRules(CharSequence source, List<AnalysisRule> skipped) {
+		return prefilter.applicable(getEnabledRules(), source, skipped);
+	}
+
 	public Map<String, Boolean> getRuleStates() {
 		Map<String, Boolean> out = new LinkedHashMap<>();
 		for (Map.Entry<String, AnalysisRule> e : rulesByName.entrySet()) {
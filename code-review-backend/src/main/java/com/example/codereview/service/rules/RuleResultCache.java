@@ -0,0 +1,177 @@
+package com.example.codereview.service.rules;
+
+import com.example.codereview.service.source.BlockPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memoizes block-local rules per top-level member block. Results are keyed by rule name and the
+ * SHA-256 digest of the block text, which each {@link AnalysisContext} computes once per block
+ * and shares between all rules, and stored with block-relative line numbers, so an unchanged
+ * method reuses its issues in later reviews, at a different position, or in another file
+ * entirely. The cache is shared by all analyses, so the key has to be collision resistant: a
+ * block must never be served the result of a different block. It is a bounded LRU split into
+ * independently locked stripes, so parallel chunk runs do not contend on one lock.
+ */
+@Component
+public class RuleResultCache {
+
+	private static final int STRIPES = 16;
+	private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	});
+
+	private final int maxEntries;
+	private final Stripe[] stripes = new Stripe[STRIPES];
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public RuleResultCache(@Value("${codereview.rule-cache.max-entries:50000}") int maxEntries) {
+		this.maxEntries = maxEntries;
+		int perStripe = Math.max(1, (maxEntries + STRIPES - 1) / STRIPES);
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new Stripe(perStripe);
+		}
+	}
+
+	/** Runs {@code rule} block by block over {@code context} into {@code sink}, reusing cached block results. */
+	public void apply(AnalysisRule rule, AnalysisContext context, IssueSink sink) {
+		if (maxEntries <= 0 || !rule.isBlockLocal()) {
+			rule.apply(context, sink);
+			return;
+		}
+		apply(rule, context, 0, context.getBlocks().blockCount(), sink);
+	}
+
+	/**
+	 * Runs the block-local {@code rule} over blocks {@code [fromBlock, toBlock)} of
+	 * {@code context}, adding issues with file line numbers. Safe to call concurrently for
+	 * disjoint block ranges with separate sinks.
+	 */
+	public void apply(AnalysisRule rule, AnalysisContext context, int fromBlock, int toBlock, IssueSink sink) {
+		BlockPartition blocks = context.getBlocks();
+		if (maxEntries <= 0) {
+			IssueSink part = new IssueSink();
+			rule.apply(context.forBlocks(fromBlock, toBlock), part);
+			sink.addAll(part, blocks.startLine(fromBlock));
+			return;
+		}
+		for (int b = fromBlock; b < toBlock; b++) {
+			int lineOffset = blocks.startLine(b);
+			Key key = new Key(rule.name(), context.blockDigest(b));
+			Stripe stripe = stripes[Math.floorMod(key.hashCode(), STRIPES)];
+			BlockResult cached = stripe.get(key);
+			if (cached != null) {
+				hits.incrementAndGet();
+			} else {
+				misses.incrementAndGet();
+				IssueSink blockSink = new IssueSink();
+				rule.apply(context.forBlock(b), blockSink);
+				cached = new BlockResult(blockSink);
+				stripe.put(key, cached);
+			}
+			for (int i = 0; i < cached.lines.length; i++) {
+				sink.add(cached.lines[i] + lineOffset, cached.templates[i]);
+			}
+		}
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/** One LRU segment; its own monitor guards it. */
+	private static final class Stripe {
+		private final Map<Key, BlockResult> entries;
+
+		Stripe(int maxEntries) {
+			this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Key, BlockResult> eldest) {
+					return size() > maxEntries;
+				}
+			};
+		}
+
+		synchronized BlockResult get(Key key) {
+			return entries.get(key);
+		}
+
+		synchronized void put(Key key, BlockResult result) {
+			entries.put(key, result);
+		}
+	}
+
+	/** SHA-256 of {@code text[start, end)} as UTF-16 code units. */
+	static byte[] digest(CharSequence text, int start, int end) {
+		MessageDigest md = SHA256.get();
+		byte[] buffer = new byte[Math.min(8192, 2 * (end - start) + 2)];
+		int n = 0;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			buffer[n++] = (byte) (c >> 8);
+			buffer[n++] = (byte) c;
+			if (n >= buffer.length - 1) {
+				md.update(buffer, 0, n);
+				n = 0;
+			}
+		}
+		md.update(buffer, 0, n);
+		return md.digest();
+	}
+
+	/** Rule name plus the digest of the block text. */
+	private static final class Key {
+		private final String rule;
+		private final byte[] digest;
+		private final int hash;
+
+		Key(String rule, byte[] digest) {
+			this.rule = rule;
+			this.digest = digest;
+			this.hash = Arrays.hashCode(digest) * 31 + rule.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key)) return false;
+			Key k = (Key) o;
+			return hash == k.hash && MessageDigest.isEqual(digest, k.digest) && rule.equals(k.rule);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	/** Issues of one block with block-relative line numbers. */
+	private static final class BlockResult {
+		private final int[] lines;
+		private final IssueTemplate[] templates;
+
+		BlockResult(IssueSink sink) {
+			lines = new int[sink.size()];
+			templates = new IssueTemplate[sink.size()];
+			for (int i = 0; i < lines.length; i++) {
+				lines[i] = sink.line(i);
+				templates[i] = sink.template(i);
+			}
+		}
+	}
+}
@@ -0,0 +1,198 @@
+package com.example.codereview.service.rules;
+
+/**
+ * Regular expression for matching user-submitted code with bounded worst-case cost.
+ *
+ * <p>Patterns are compiled with RE2/J, whose automaton runs in time linear in the input whatever
+ * the pattern and input look like. Only patterns RE2 cannot express (backreferences, lookaround,
+ * possessive quantifiers) fall back to {@link java.util.regex}; those matches run against an input
+ * that counts character reads and give up after {@code stepBudget} of them, reporting no match.
+ *
+ * <p>RE2 semantics differ from {@code java.util.regex} in corner cases only: {@code $} matches at
+ * the very end of the input (never before a trailing line terminator) and {@code \b}, {@code \s}
+ * and {@code \w} are ASCII-only.
+ */
+public final class SafePattern {
+
+	/** Character reads allowed per backtracking match; a few milliseconds of work. */
+	public static final long DEFAULT_STEP_BUDGET = 1_000_000L;
+
+	private final String regex;
+	private final com.google.re2j.Pattern linear;
+	private final java.util.regex.Pattern backtracking;
+	private final long stepBudget;
+
+	private SafePattern(String regex, com.google.re2j.Pattern linear, java.util.regex.Pattern backtracking, long stepBudget) {
+		this.regex = regex;
+		this.linear = linear;
+		this.backtracking = backtracking;
+		this.stepBudget = stepBudget;
+	}
+
+	public static SafePattern compile(String regex) {
+		return compile(regex, DEFAULT_STEP_BUDGET);
+	}
+
+	public static SafePattern compile(String regex, long stepBudget) {
+		try {
+			return new SafePattern(regex, com.google.re2j.Pattern.compile(regex), null, stepBudget);
+		} catch (com.google.re2j.PatternSyntaxException e) {
+			// Not expressible as an automaton; a syntax error here is a real one and propagates
+			return new SafePattern(regex, null, java.util.regex.Pattern.compile(regex), stepBudget);
+		}
+	}
+
+	/** Literal pattern for {@code s}, valid for either engine. */
+	public static String quote(String s) {
+		return com.google.re2j.Pattern.quote(s);
+	}
+
+	/** True when matching is guaranteed linear; false for budgeted backtracking patterns. */
+	public boolean isLinear() {
+		return linear != null;
+	}
+
+	public String pattern() {
+		return regex;
+	}
+
+	public Matcher matcher(CharSequence input) {
+		return linear != null ? new LinearMatcher(linear.matcher(input)) : new BudgetedMatcher(input);
+	}
+
+	public boolean find(CharSequence input) {
+		return matcher(input).find();
+	}
+
+	public boolean matches(CharSequence input) {
+		return matcher(input).matches();
+	}
+
+	@Override
+	public String toString() {
+		return regex;
+	}
+
+	/** The subset of {@link java.util.regex.Matcher} the rules use. */
+	public interface Matcher {
+		boolean find();
+
+		boolean matches();
+
+		String group(int group);
+
+		int start();
+
+		int end();
+
+		/** True if the last find/matches gave up on its step budget rather than failing to match. */
+		default boolean budgetExceeded() { return false; }
+	}
+
+	private static final class LinearMatcher implements Matcher {
+		private final com.google.re2j.Matcher m;
+
+		LinearMatcher(com.google.re2j.Matcher m) {
+			this.m = m;
+		}
+
+		@Override
+		public boolean find() { return m.find(); }
+
+		@Override
+		public boolean matches() { return m.matches(); }
+
+		@Override
+		public String group(int group) { return m.group(group); }
+
+		@Override
+		public int start() { return m.start(); }
+
+		@Override
+		public int end() { return m.end(); }
+	}
+
+	private final class BudgetedMatcher implements Matcher {
+		private final BudgetedInput input;
+		private final java.util.regex.Matcher m;
+		private boolean exceeded;
+
+		BudgetedMatcher(CharSequence text) {
+			this.input = new BudgetedInput(text);
+			this.m = backtracking.matcher(input);
+		}
+
+		@Override
+		public boolean find() {
+			input.reset(stepBudget);
+			exceeded = false;
+			try {
+				return m.find();
+			} catch (BudgetExceeded e) {
+				exceeded = true;
+				return false;
+			}
+		}
+
+		@Override
+		public boolean matches() {
+			input.reset(stepBudget);
+			exceeded = false;
+			try {
+				return m.matches();
+			} catch (BudgetExceeded e) {
+				exceeded = true;
+				return false;
+			}
+		}
+
+		@Override
+		public String group(int group) { return m.group(group); }
+
+		@Override
+		public int start() { return m.start(); }
+
+		@Override
+		public int end() { return m.end(); }
+
+		@Override
+		public boolean budgetExceeded() { return exceeded; }
+	}
+
+	/** Counts {@link #charAt} calls, the unit of work of the backtracking engine. */
+	private static final class BudgetedInput implements CharSequence {
+		private final CharSequence text;
+		private long remaining;
+
+		BudgetedInput(CharSequence text) {
+			this.text = text;
+		}
+
+		void reset(long budget) {
+			remaining = budget;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if (--remaining < 0) {
+				throw new BudgetExceeded();
+			}
+			return text.charAt(index);
+		}
+
+		@Override
+		public int length() { return text.length(); }
+
+		@Override
+		public CharSequence subSequence(int start, int end) { return text.subSequence(start, end); }
+
+		@Override
+		public String toString() { return text.toString(); }
+	}
+
+	private static final class BudgetExceeded extends RuntimeException {
+		BudgetExceeded() {
+			super(null, null, false, false);
+		}
+	}
+}
@@ -1,31 +1,40 @@
 package com.example.codereview.service.rules;
 
-import com.example.codereview.model.Issue;
 import com.example.codereview.model.IssueCategory;
 import com.example.codereview.model.Severity;
+import com.example.codereview.service.source.Chars;
 
 import java.util.List;
+import java.util.Set;
 
 class SqlConcatenationRule extends BaseRule {
+	private static final IssueTemplate SQL_CONCATENATION = IssueTemplate.register(
+			"Possible SQL Injection",
+			"SQL query is built using string concatenation.",
+			"Use PreparedStatement or parameterized queries to avoid SQL injection.",
+			IssueCategory.SECURITY, Severity.HIGH);
+
 	@Override
-	public List<Issue> apply(AnalysisContext context) {
-		List<Issue> out = list();
-		String[] lines = context.getLines();
-		for (int i = 0; i < lines.length; i++) {
-			String line = lines[i];
-			if (line.toLowerCase().contains("select ")
-					&& line.contains("\"")
-					&& line.contains("+")) {
-				out.add(makeIssue(context.getReview(), i + 1,
-						"Possible SQL Injection",
-						"SQL query is built using string concatenation.",
-						"Use PreparedStatement or parameterized queries to avoid SQL injection.",
-						IssueCategory.SECURITY, Severity.HIGH));
+	public void apply(AnalysisContext context, IssueSink sink) {
+		for (int i = 0, n = context.getLineCount(); i < n; i++) {
+			CharSequence line = context.line(i);
+			if (Chars.containsIgnoreCase(line, "select ")
+					&& Chars.contains(line, "\"")
+					&& Chars.contains(line, "+")) {
+				sink.add(i + 1, SQL_CONCATENATION);
 			}
 		}
-		return out;
 	}
 
+	@Override
+	public List<String> prefilterKeywords() { return List.of("select "); }
+
+	@Override
+	public boolean isBlockLocal() { return true; }
+
+	@Override
+	public Set<Severity> reportedSeverities() { return Set.of(Severity.HIGH); }
+
 	@Override
 	public String name() { return "sql-string-concatenation"; }
 }
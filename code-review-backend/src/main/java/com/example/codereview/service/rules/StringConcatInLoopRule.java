@@ -1,31 +1,32 @@
 package com.example.codereview.service.rules;
 
-import com.example.codereview.model.Issue;
 import com.example.codereview.model.IssueCategory;
 import com.example.codereview.model.Severity;
+import com.example.codereview.service.source.Chars;
 
 import java.util.List;
+import java.util.Set;
 
 class StringConcatInLoopRule extends BaseRule {
+	private static final IssueTemplate CONCAT_IN_LOOP = IssueTemplate.register(
+			"String concatenation in loop",
+			"String concatenation inside loops can be inefficient.",
+			"Use StringBuilder or collect results and join afterwards.",
+			IssueCategory.OPTIMIZATION, Severity.LOW);
+
 	@Override
-	public List<Issue> apply(AnalysisContext context) {
-		List<Issue> out = list();
-		String[] lines = context.getLines();
+	public void apply(AnalysisContext context, IssueSink sink) {
 		boolean inLoop = false;
 		int braceDepthAtLoop = 0;
-		for (int i = 0; i < lines.length; i++) {
-			String l = lines[i];
-			if (l.contains("for(") || l.contains("for (") || l.contains("while(") || l.contains("while (")) {
+		for (int i = 0, n = context.getLineCount(); i < n; i++) {
+			CharSequence l = context.line(i);
+			if (Chars.contains(l, "for(") || Chars.contains(l, "for (") || Chars.contains(l, "while(") || Chars.contains(l, "while (")) {
 				inLoop = true;
 				braceDepthAtLoop = countBraceDelta(l);
 			}
 			if (inLoop) {
-				if (l.contains("+=") || l.contains("+") && l.contains("\"")) {
-					out.add(makeIssue(context.getReview(), i + 1,
-							"String concatenation in loop",
-							"String concatenation inside loops can be inefficient.",
-							"Use StringBuilder or collect results and join afterwards.",
-							IssueCategory.OPTIMIZATION, Severity.LOW));
+				if (Chars.contains(l, "+=") || Chars.contains(l, "+") && Chars.contains(l, "\"")) {
+					sink.add(i + 1, CONCAT_IN_LOOP);
 				}
 				braceDepthAtLoop += countBraceDelta(l);
 				if (braceDepthAtLoop <= 0) {
@@ -33,18 +34,27 @@ class StringConcatInLoopRule extends BaseRule {
 				}
 			}
 		}
-		return out;
 	}
 
-	private int countBraceDelta(String s) {
+	private int countBraceDelta(CharSequence s) {
 		int delta = 0;
-		for (char c : s.toCharArray()) {
+		for (int k = 0; k < s.length(); k++) {
+			char c = s.charAt(k);
 			if (c == '{') delta++;
 			else if (c == '}') delta--;
 		}
 		return delta;
 	}
 
+	@Override
+	public List<String> prefilterKeywords() { return List.of("for", "while"); }
+
+	@Override
+	public boolean isBlockLocal() { return true; }
+
+	@Override
+	public Set<Severity> reportedSeverities() { return Set.of(Severity.LOW); }
+
 	@Override
 	public String name() { return "string-concat-in-loop"; }
 }
@@ -1,28 +1,37 @@
 package com.example.codereview.service.rules;
 
-import com.example.codereview.model.Issue;
 import com.example.codereview.model.IssueCategory;
 import com.example.codereview.model.Severity;
+import com.example.codereview.service.source.Chars;
 
 import java.util.List;
+import java.util.Set;
 
 class TodoRule extends BaseRule {
+	private static final IssueTemplate TODO_COMMENT = IssueTemplate.register(
+			"TODO comment found",
+			"There is a TODO comment in the code.",
+			"Finish or remove TODO comments to keep the code clean.",
+			IssueCategory.WARNING, Severity.LOW);
+
 	@Override
-	public List<Issue> apply(AnalysisContext context) {
-		List<Issue> out = list();
-		String[] lines = context.getLines();
-		for (int i = 0; i < lines.length; i++) {
-			if (lines[i].contains("TODO")) {
-				out.add(makeIssue(context.getReview(), i + 1,
-						"TODO comment found",
-						"There is a TODO comment in the code.",
-						"Finish or remove TODO comments to keep the code clean.",
-						IssueCategory.WARNING, Severity.LOW));
+	public void apply(AnalysisContext context, IssueSink sink) {
+		for (int i = 0, n = context.getLineCount(); i < n; i++) {
+			if (Chars.contains(context.line(i), "TODO")) {
+				sink.add(i + 1, TODO_COMMENT);
 			}
 		}
-		return out;
 	}
 
+	@Override
+	public List<String> prefilterKeywords() { return List.of("TODO"); }
+
+	@Override
+	public boolean isBlockLocal() { return true; }
+
+	@Override
+	public Set<Severity> reportedSeverities() { return Set.of(Severity.LOW); }
+
 	@Override
 	public String name() { return "To do comment search"; }
 }
@@ -1,27 +1,34 @@
 package com.example.codereview.service.rules;
 
-import com.example.codereview.model.Issue;
 import com.example.codereview.model.IssueCategory;
 import com.example.codereview.model.Severity;
+import com.example.codereview.service.source.StructuralIndex;
 
 import java.util.List;
+import java.util.Set;
 
 class UnmatchedBracesRule extends BaseRule {
+	private static final IssueTemplate UNMATCHED_BRACES = IssueTemplate.register(
+			"Unmatched braces",
+			"Number of '{' and '}' characters does not match.",
+			"Ensure each opening brace has a matching closing brace.",
+			IssueCategory.ERROR, Severity.HIGH);
+
 	@Override
-	public List<Issue> apply(AnalysisContext context) {
-		List<Issue> out = list();
-		long openBraces = context.getCode().chars().filter(c -> c == '{').count();
-		long closeBraces = context.getCode().chars().filter(c -> c == '}').count();
-		if (openBraces != closeBraces) {
-			out.add(makeIssue(context.getReview(), 0,
-					"Unmatched braces",
-					"Number of '{' and '}' characters does not match.",
-					"Ensure each opening brace has a matching closing brace.",
-					IssueCategory.ERROR, Severity.HIGH));
+	public void apply(AnalysisContext context, IssueSink sink) {
+		// Counted during the structural scan that also built the line index
+		StructuralIndex structure = context.getStructure();
+		if (structure.openBraces() != structure.closeBraces()) {
+			sink.add(0, UNMATCHED_BRACES);
 		}
-		return out;
 	}
 
+	@Override
+	public List<String> prefilterKeywords() { return List.of("{", "}"); }
+
+	@Override
+	public Set<Severity> reportedSeverities() { return Set.of(Severity.HIGH); }
+
 	@Override
 	public String name() { return "unmatched-braces"; }
 }
@@ -1,15 +1,20 @@
 package com.example.codereview.service.rules;
 
-import com.example.codereview.model.Issue;
 import com.example.codereview.model.IssueCategory;
 import com.example.codereview.model.Severity;
 
 import java.util.List;
+import java.util.Set;
 
 class UnreachableAfterReturnRule extends BaseRule {
+	private static final IssueTemplate UNREACHABLE = IssueTemplate.register(
+			"Unreachable code after control-flow exit",
+			"Statements after return/throw/break/continue in the same block are unreachable.",
+			"Remove or refactor unreachable statements.",
+			IssueCategory.WARNING, Severity.MEDIUM);
+
 	@Override
-	public List<Issue> apply(AnalysisContext context) {
-		List<Issue> out = list();
+	public void apply(AnalysisContext context, IssueSink sink) {
 		String[] lines = context.getLines();
 		boolean sawExit = false; // return, throw, break, continue
 		int braceBalance = 0;
@@ -21,11 +26,7 @@ class UnreachableAfterReturnRule extends BaseRule {
 			}
 			// If we previously saw an exit statement, flag the next real statement in the same block
 			if (sawExit && braceBalance >= 0 && !l.isEmpty() && !l.startsWith("}") && !isCaseLabel(l)) {
-				out.add(makeIssue(context.getReview(), i + 1,
-						"Unreachable code after control-flow exit",
-						"Statements after return/throw/break/continue in the same block are unreachable.",
-						"Remove or refactor unreachable statements.",
-						IssueCategory.WARNING, Severity.MEDIUM));
+				sink.add(i + 1, UNREACHABLE);
 				// reset to avoid flooding
 				sawExit = false;
 			}
@@ -39,9 +40,17 @@ class UnreachableAfterReturnRule extends BaseRule {
 				sawExit = false;
 			}
 		}
-		return out;
 	}
 
+	@Override
+	public List<String> prefilterKeywords() { return List.of("return", "throw", "break", "continue"); }
+
+	@Override
+	public boolean isBlockLocal() { return true; }
+
+	@Override
+	public Set<Severity> reportedSeverities() { return Set.of(Severity.MEDIUM); }
+
 	@Override
 	public String name() { return "unreachable-after-return"; }
 
@@ -1,6 +1,5 @@
 package com.example.codereview.service.rules;
 
-import com.example.codereview.model.Issue;
 import com.example.codereview.model.IssueCategory;
 import com.example.codereview.model.Severity;
 
@@ -11,8 +10,7 @@ import java.util.Set;
 
 class UnusedImportRule extends BaseRule {
 	@Override
-	public List<Issue> apply(AnalysisContext context) {
-		List<Issue> out = list();
+	public void apply(AnalysisContext context, IssueSink sink) {
 		String[] lines = context.getLines();
 		List<Integer> importLines = new ArrayList<>();
 		Set<String> simpleNames = new HashSet<>();
@@ -39,17 +37,22 @@ class UnusedImportRule extends BaseRule {
 			if (lastDot > 0 && lastDot + 1 < qn.length()) {
 				String simple = qn.substring(lastDot + 1);
 				if (!bodyStr.contains(simple)) {
-					out.add(makeIssue(context.getReview(), idx + 1,
+					sink.add(idx + 1,
 							"Unused import",
 							"The import '" + qn + "' does not appear to be used.",
 							"Remove unused imports to keep code clean.",
-							IssueCategory.WARNING, Severity.LOW));
+							IssueCategory.WARNING, Severity.LOW);
 				}
 			}
 		}
-		return out;
 	}
 
+	@Override
+	public List<String> prefilterKeywords() { return List.of("import "); }
+
+	@Override
+	public Set<Severity> reportedSeverities() { return Set.of(Severity.LOW); }
+
 	@Override
 	public String name() { return "unused-import"; }
 }
@@ -1,20 +1,17 @@
 package com.example.codereview.service.rules;
 
-import com.example.codereview.model.Issue;
 import com.example.codereview.model.IssueCategory;
 import com.example.codereview.model.Severity;
 
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 class UnusedVariableRule extends BaseRule {
-	private static final Pattern POTENTIAL_LOCAL_DECL = Pattern.compile(
+	private static final SafePattern POTENTIAL_LOCAL_DECL = SafePattern.compile(
 			"^(\\s*)(final\\s+)?(?:(?:byte|short|int|long|float|double|boolean|char|String|var)\\b|[A-Z][A-Za-z0-9_<>\\[\\]?,\\.\\s]+)\\s+(.+?);\\s*$");
+	private static final SafePattern IDENTIFIER = SafePattern.compile("[A-Za-z_][A-Za-z0-9_]*");
 
 	@Override
-	public List<Issue> apply(AnalysisContext context) {
-		List<Issue> out = list();
+	public void apply(AnalysisContext context, IssueSink sink) {
 		String[] lines = context.getLines();
 
 		// Collect candidate local variable declarations: name -> line index
@@ -33,7 +30,9 @@ class UnusedVariableRule extends BaseRule {
 			if (l.startsWith("@")) continue; // annotations
 			if (l.startsWith("for ") || l.startsWith("for(") || l.startsWith("catch ") || l.startsWith("catch(")) continue;
 
-			Matcher m = POTENTIAL_LOCAL_DECL.matcher(l);
+			// The pattern needs a trailing ';'; checking that first keeps most lines out of the matcher
+			if (!l.endsWith(";")) continue;
+			SafePattern.Matcher m = POTENTIAL_LOCAL_DECL.matcher(l);
 			if (!m.find()) continue;
 
 			String varsPart = m.group(3);
@@ -54,14 +53,14 @@ class UnusedVariableRule extends BaseRule {
 				// now the last token should be the identifier
 				String[] tokens = name.split("\\s+");
 				name = tokens[tokens.length - 1];
-				if (name.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+				if (IDENTIFIER.matches(name)) {
 					decls.put(name, i);
 					declLines.add(i);
 				}
 			}
 		}
 
-		if (decls.isEmpty()) return out;
+		if (decls.isEmpty()) return;
 
 		// Build a body that excludes declaration lines to avoid counting the declaration itself
 		StringBuilder body = new StringBuilder();
@@ -74,22 +73,37 @@ class UnusedVariableRule extends BaseRule {
 		for (Map.Entry<String, Integer> e : decls.entrySet()) {
 			String var = e.getKey();
 			int lineIdx = e.getValue();
-			Pattern use = Pattern.compile("\\b" + Pattern.quote(var) + "\\b");
-			Matcher um = use.matcher(bodyStr);
-			if (!um.find()) {
-				out.add(makeIssue(context.getReview(), lineIdx + 1,
+			if (!containsWord(bodyStr, var)) {
+				sink.add(lineIdx + 1,
 						"Unused local variable",
 						"The local variable '" + var + "' does not appear to be used.",
 						"Remove the variable or use it; consider '_' prefix to indicate intentional unused.",
-						IssueCategory.WARNING, Severity.LOW));
+						IssueCategory.WARNING, Severity.LOW);
 			}
 		}
-		return out;
 	}
 
+	@Override
+	public Set<Severity> reportedSeverities() { return Set.of(Severity.LOW); }
+
 	@Override
 	public String name() { return "unused-local-variable"; }
 
+	/** Same as finding {@code \bword\b}, without a regex per variable. */
+	private static boolean containsWord(String text, String word) {
+		for (int i = text.indexOf(word); i >= 0; i = text.indexOf(word, i + 1)) {
+			int end = i + word.length();
+			if ((i == 0 || !isWordChar(text.charAt(i - 1))) && (end == text.length() || !isWordChar(text.charAt(end)))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isWordChar(char c) {
+		return c == '_' || c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9';
+	}
+
 	private static String stripLineComments(String line) {
 		int idx = line.indexOf("//");
 		return idx >= 0 ? line.substring(0, idx) : line;
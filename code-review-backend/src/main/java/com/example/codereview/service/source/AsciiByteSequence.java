@@ -0,0 +1,51 @@
+package com.example.codereview.service.source;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Zero-copy {@link CharSequence} over a buffer of 7-bit ASCII bytes, typically a memory-mapped
+ * upload. Each byte is exactly one char, so no decoding is needed until {@link #toString()}.
+ */
+final class AsciiByteSequence implements CharSequence {
+
+    private final ByteBuffer bytes;
+
+    AsciiByteSequence(ByteBuffer bytes) {
+        this.bytes = bytes;
+    }
+
+    @Override
+    public int length() {
+        return bytes.limit();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) bytes.get(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new AsciiByteSequence(bytes.slice(start, end - start));
+    }
+
+    @Override
+    public String toString() {
+        byte[] copy = new byte[bytes.limit()];
+        bytes.get(0, copy);
+        return new String(copy, StandardCharsets.ISO_8859_1);
+    }
+
+    /** Copies {@code length} bytes from {@code start} into the front of {@code dst}. */
+    void copyTo(int start, byte[] dst, int length) {
+        bytes.get(start, dst, 0, length);
+    }
+
+    static boolean isAscii(ByteBuffer buffer) {
+        for (int i = 0, n = buffer.limit(); i < n; i++) {
+            if (buffer.get(i) < 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.codereview.service.source;
+
+import java.util.Arrays;
+
+/**
+ * Splits a source file into contiguous line ranges at top-level member boundaries. A new block
+ * starts on the line after a member body closes back to class level (or a type closes back to
+ * file level), so each block holds one member body plus any fields, comments and annotations
+ * in front of it. Braces inside comments and string/char literals are ignored.
+ */
+public final class BlockPartition {
+
+    private final LineIndex index;
+    private final int[] startLines; // first line of each block, plus lineCount as sentinel
+
+    private BlockPartition(LineIndex index, int[] startLines) {
+        this.index = index;
+        this.startLines = startLines;
+    }
+
+    public static BlockPartition of(StructuralIndex structure) {
+        LineIndex index = structure.lineIndex();
+        int lines = index.lineCount();
+        int[] starts = new int[Math.max(2, lines / 8 + 2)];
+        int count = 0;
+        starts[count++] = 0;
+        for (int line = 1; line < lines; line++) {
+            int depth = structure.depthAtLineStart(line);
+            if (depth <= 1 && structure.depthAtLineStart(line - 1) > depth) {
+                if (count + 1 >= starts.length) starts = Arrays.copyOf(starts, starts.length * 2);
+                starts[count++] = line;
+            }
+        }
+        starts[count] = lines;
+        return new BlockPartition(index, Arrays.copyOf(starts, count + 1));
+    }
+
+    public int blockCount() {
+        return startLines.length - 1;
+    }
+
+    /** First 0-based line of the block. */
+    public int startLine(int block) {
+        return startLines[block];
+    }
+
+    /** One past the last 0-based line of the block. */
+    public int endLine(int block) {
+        return startLines[block + 1];
+    }
+
+    /** Character range of the block, excluding the terminator of its last line. */
+    public int startOffset(int block) {
+        return index.lineStart(startLines[block]);
+    }
+
+    public int endOffset(int block) {
+        return index.lineEnd(startLines[block + 1] - 1);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.codereview.service.source;
+
+/**
+ * Window onto another {@link CharSequence}. Unlike {@link String#substring} it shares the
+ * backing characters, so slicing costs one small object regardless of length.
+ */
+public final class CharSlice implements CharSequence {
+
+    private final CharSequence backing;
+    private final int start;
+    private final int end;
+
+    public CharSlice(CharSequence backing, int start, int end) {
+        if (start < 0 || end < start || end > backing.length()) {
+            throw new IndexOutOfBoundsException("[" + start + ", " + end + ") of " + backing.length());
+        }
+        this.backing = backing;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= end - start) throw new IndexOutOfBoundsException(index);
+        return backing.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        if (from < 0 || to < from || to > end - start) {
+            throw new IndexOutOfBoundsException("[" + from + ", " + to + ") of " + (end - start));
+        }
+        return new CharSlice(backing, start + from, start + to);
+    }
+
+    @Override
+    public String toString() {
+        return backing.subSequence(start, end).toString();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.codereview.service.source;
+
+/** String-style searches over any {@link CharSequence}, without materializing it. */
+public final class Chars {
+
+    private Chars() {}
+
+    public static int indexOf(CharSequence s, String needle, int from) {
+        if (s instanceof String) return ((String) s).indexOf(needle, from);
+        int last = s.length() - needle.length();
+        if (needle.isEmpty()) return Math.min(Math.max(from, 0), s.length());
+        char first = needle.charAt(0);
+        outer:
+        for (int i = Math.max(0, from); i <= last; i++) {
+            if (s.charAt(i) != first) continue;
+            for (int k = 1; k < needle.length(); k++) {
+                if (s.charAt(i + k) != needle.charAt(k)) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    public static boolean contains(CharSequence s, String needle) {
+        return indexOf(s, needle, 0) >= 0;
+    }
+
+    /** Case-insensitive contains; {@code lowerNeedle} must already be lower case. */
+    public static boolean containsIgnoreCase(CharSequence s, String lowerNeedle) {
+        int last = s.length() - lowerNeedle.length();
+        outer:
+        for (int i = 0; i <= last; i++) {
+            for (int k = 0; k < lowerNeedle.length(); k++) {
+                if (Character.toLowerCase(s.charAt(i + k)) != lowerNeedle.charAt(k)) continue outer;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    public static int count(CharSequence s, char c) {
+        int n = 0;
+        for (int i = 0, len = s.length(); i < len; i++) {
+            if (s.charAt(i) == c) n++;
+        }
+        return n;
+    }
+}
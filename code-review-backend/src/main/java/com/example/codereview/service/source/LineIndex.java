@@ -0,0 +1,59 @@
+package com.example.codereview.service.source;
+
+import java.util.Arrays;
+
+/**
+ * Start offsets of every line in a source buffer, computed by {@link StructuralIndex}. One {@code int[]}
+ * replaces the array of per-line Strings that {@code split("\n")} would allocate.
+ *
+ * <p>{@code \n}, {@code \r\n} and a lone {@code \r} all terminate a line, matching how javac
+ * numbers lines, and terminators are never part of a line's content.
+ */
+public final class LineIndex {
+
+    private final CharSequence text;
+    private final int[] starts;
+    private final int lineCount;
+
+    LineIndex(CharSequence text, int[] starts, int lineCount) {
+        this.text = text;
+        this.starts = starts;
+        this.lineCount = lineCount;
+    }
+
+    public static LineIndex of(CharSequence text) {
+        return StructuralIndex.of(text).lineIndex();
+    }
+
+    public int lineCount() {
+        return lineCount;
+    }
+
+    /** Offset of the first character of the 0-based line {@code line}. */
+    public int lineStart(int line) {
+        return starts[line];
+    }
+
+    /** Offset just past the last character of the line, excluding its terminator. */
+    public int lineEnd(int line) {
+        if (line + 1 >= lineCount) return text.length();
+        int end = starts[line + 1] - 1;
+        if (end > starts[line] && text.charAt(end) == '\n' && text.charAt(end - 1) == '\r') end--;
+        return end;
+    }
+
+    public int lineLength(int line) {
+        return lineEnd(line) - starts[line];
+    }
+
+    /** Zero-copy view of the line's content. */
+    public CharSequence line(int line) {
+        return new CharSlice(text, starts[line], lineEnd(line));
+    }
+
+    /** 0-based line that contains {@code offset}. */
+    public int lineOf(int offset) {
+        int idx = Arrays.binarySearch(starts, 0, lineCount, offset);
+        return idx >= 0 ? idx : -idx - 2;
+    }
+}
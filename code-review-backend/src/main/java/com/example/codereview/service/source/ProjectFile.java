@@ -0,0 +1,21 @@
+package com.example.codereview.service.source;
+
+/** One source file of a project submission, identified by its project-relative path. */
+public class ProjectFile {
+
+    private final String path;
+    private final SourceText source;
+
+    public ProjectFile(String path, SourceText source) {
+        this.path = path;
+        this.source = source;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public SourceText getSource() {
+        return source;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.codereview.service.source;
+
+import com.example.codereview.service.admission.AdmissionRejectedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Reads the sources of a project submission, given either as individual files or as a zip
+ * archive, and spools classpath jars to disk for javac. Enforces file-count and total-size
+ * limits while reading, so a compressed archive cannot expand without bound, and a separate
+ * total-size limit on the jars before any of them is written.
+ */
+@Component
+public class ProjectSourceLoader {
+
+    private final int maxFiles;
+    private final long maxBytes;
+    private final long maxClasspathBytes;
+
+    public ProjectSourceLoader(@Value("${codereview.project.max-files:2000}") int maxFiles,
+                               @Value("${codereview.project.max-bytes:20971520}") long maxBytes,
+                               @Value("${codereview.project.max-classpath-bytes:104857600}") long maxClasspathBytes) {
+        this.maxFiles = maxFiles;
+        this.maxBytes = maxBytes;
+        this.maxClasspathBytes = maxClasspathBytes;
+    }
+
+    public List<ProjectFile> load(List<MultipartFile> files, MultipartFile archive) throws IOException {
+        List<ProjectFile> out = new ArrayList<>();
+        long total = 0;
+        if (files != null) {
+            for (MultipartFile file : files) {
+                total = checkLimits(out.size() + 1, total + file.getSize());
+                String name = file.getOriginalFilename() != null ? file.getOriginalFilename() : "File" + out.size() + ".java";
+                out.add(new ProjectFile(name, SourceText.of(new String(file.getBytes(), StandardCharsets.UTF_8))));
+            }
+        }
+        if (archive != null && !archive.isEmpty()) {
+            try (ZipInputStream zip = new ZipInputStream(archive.getInputStream())) {
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    if (entry.isDirectory() || !entry.getName().endsWith(".java")) continue;
+                    byte[] bytes = readBounded(zip, maxBytes - total);
+                    total = checkLimits(out.size() + 1, total + bytes.length);
+                    out.add(new ProjectFile(entry.getName(), SourceText.of(new String(bytes, StandardCharsets.UTF_8))));
+                }
+            }
+        }
+        if (out.isEmpty()) {
+            throw new AdmissionRejectedException(HttpStatus.BAD_REQUEST, "No .java sources in the submission.", 0);
+        }
+        return out;
+    }
+
+    /**
+     * Writes the uploaded jars into {@code dir} and returns their paths, in upload order. Rejects
+     * the whole classpath with 413 if the jars together exceed the classpath limit.
+     */
+    public List<Path> spoolClasspath(List<MultipartFile> jars, Path dir) throws IOException {
+        List<Path> out = new ArrayList<>();
+        if (jars == null) return out;
+        long total = 0;
+        for (MultipartFile jar : jars) {
+            total += jar.getSize();
+            if (total > maxClasspathBytes) {
+                throw new AdmissionRejectedException(HttpStatus.PAYLOAD_TOO_LARGE,
+                        "Project classpath jars exceed " + maxClasspathBytes + " bytes.", 0);
+            }
+        }
+        for (MultipartFile jar : jars) {
+            Path target = dir.resolve("cp-" + out.size() + ".jar");
+            jar.transferTo(target);
+            out.add(target);
+        }
+        return out;
+    }
+
+    private long checkLimits(int fileCount, long totalBytes) {
+        if (fileCount > maxFiles) {
+            throw new AdmissionRejectedException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Project has more than " + maxFiles + " source files.", 0);
+        }
+        if (totalBytes > maxBytes) {
+            throw sourcesTooLarge();
+        }
+        return totalBytes;
+    }
+
+    private AdmissionRejectedException sourcesTooLarge() {
+        return new AdmissionRejectedException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "Project sources exceed " + maxBytes + " bytes.", 0);
+    }
+
+    private byte[] readBounded(InputStream in, long remaining) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int n;
+        while ((n = in.read(chunk)) > 0) {
+            buf.write(chunk, 0, n);
+            if (buf.size() > remaining) {
+                throw sourcesTooLarge();
+            }
+        }
+        return buf.toByteArray();
+    }
+}
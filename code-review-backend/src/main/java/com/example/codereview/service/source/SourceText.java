@@ -0,0 +1,70 @@
+package com.example.codereview.service.source;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The text of one submission plus its structural (line and brace) index. The content may be a plain String or a
+ * zero-copy view over a memory-mapped upload; {@link #asString()} materializes it at most once.
+ */
+public final class SourceText implements Closeable {
+
+    private final CharSequence content;
+    private final Path spoolFile;
+    private StructuralIndex structure;
+    private String string;
+
+    private SourceText(CharSequence content, Path spoolFile) {
+        this.content = content;
+        this.spoolFile = spoolFile;
+        if (content instanceof String) this.string = (String) content;
+    }
+
+    public static SourceText of(String code) {
+        return new SourceText(code != null ? code : "", null);
+    }
+
+    /** Wraps any CharSequence, e.g. a {@link CharSlice} of another source, without copying it. */
+    public static SourceText wrap(CharSequence content) {
+        return new SourceText(content, null);
+    }
+
+    static SourceText mapped(CharSequence content, Path spoolFile) {
+        return new SourceText(content, spoolFile);
+    }
+
+    public CharSequence content() {
+        return content;
+    }
+
+    public int length() {
+        return content.length();
+    }
+
+    /** Line starts, brace depths and brace counts, from one scan on first use. */
+    public StructuralIndex structure() {
+        if (structure == null) structure = StructuralIndex.of(content);
+        return structure;
+    }
+
+    public LineIndex lineIndex() {
+        return structure().lineIndex();
+    }
+
+    public String asString() {
+        if (string == null) string = content.toString();
+        return string;
+    }
+
+    public int indexOf(String needle, int from) {
+        return Chars.indexOf(string != null ? string : content, needle, from);
+    }
+
+    /** Deletes the spool file backing a mapped upload, if any. */
+    @Override
+    public void close() throws IOException {
+        if (spoolFile != null) Files.deleteIfExists(spoolFile);
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.codereview.service.source;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Everything the analysis needs from one pass over the raw text: the start of every line, the
+ * brace depth at the start of every line (braces in comments and string/char literals do not
+ * count) and the raw number of {@code '{'} and {@code '}'} characters.
+ *
+ * <p>Only nine characters can change the result: line terminators, braces, quotes, {@code /},
+ * {@code *} and {@code \}. When the {@code jdk.incubator.vector} module is present (start the JVM
+ * with {@code --add-modules jdk.incubator.vector}) whole vectors of 32 or 64 bytes are classified
+ * at once and the scanner only visits the structural positions, in the style of simdjson's
+ * structural index. Otherwise, or with {@code -Dcodereview.scanner.scalar=true}, a scalar loop
+ * feeds every character through the same state machine, so both paths produce identical results.
+ */
+public final class StructuralIndex {
+
+    // A multiple of every vector length, so only the final chunk has a scalar tail
+    static final int CHUNK = 64 * 1024;
+
+    private final CharSequence text;
+    private final int[] lineStarts;
+    private final int[] depthAtLineStart;
+    private final int lineCount;
+    private final int openBraces;
+    private final int closeBraces;
+    private LineIndex lineIndex;
+
+    private StructuralIndex(CharSequence text, Scan scan) {
+        this.text = text;
+        this.lineStarts = scan.starts;
+        this.depthAtLineStart = scan.depths;
+        this.lineCount = scan.count;
+        this.openBraces = scan.open;
+        this.closeBraces = scan.close;
+    }
+
+    public static StructuralIndex of(CharSequence text) {
+        Scan scan = new Scan(text.length());
+        if (VectorSupport.AVAILABLE && text instanceof String) {
+            // Chars above U+00FF become '?'; none of them is structural, so results are unchanged
+            byte[] bytes = ((String) text).getBytes(StandardCharsets.ISO_8859_1);
+            VectorStructuralScanner.scan(bytes, bytes.length, bytes.length, 0, scan);
+        } else if (VectorSupport.AVAILABLE && text instanceof AsciiByteSequence) {
+            scanChunked((AsciiByteSequence) text, scan);
+        } else {
+            scanScalar(text, scan);
+        }
+        return new StructuralIndex(text, scan);
+    }
+
+    /** Same result as {@link #of}, always without the Vector API; used to cross-check it. */
+    static StructuralIndex scalar(CharSequence text) {
+        Scan scan = new Scan(text.length());
+        scanScalar(text, scan);
+        return new StructuralIndex(text, scan);
+    }
+
+    /** True if {@link #of} classifies with the Vector API in this JVM. */
+    public static boolean isVectorized() {
+        return VectorSupport.AVAILABLE;
+    }
+
+    public LineIndex lineIndex() {
+        if (lineIndex == null) lineIndex = new LineIndex(text, lineStarts, lineCount);
+        return lineIndex;
+    }
+
+    public int lineCount() {
+        return lineCount;
+    }
+
+    /** Depth of code braces open at the first character of the 0-based line. */
+    public int depthAtLineStart(int line) {
+        return depthAtLineStart[line];
+    }
+
+    /** Raw count of {@code '{'}, including those in comments and literals. */
+    public int openBraces() {
+        return openBraces;
+    }
+
+    /** Raw count of {@code '}'}, including those in comments and literals. */
+    public int closeBraces() {
+        return closeBraces;
+    }
+
+    private static void scanScalar(CharSequence text, Scan scan) {
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (Scan.isStructural(c)) {
+                scan.accept(c, i, i + 1 < n ? text.charAt(i + 1) : 0);
+            }
+        }
+    }
+
+    /**
+     * Vector scan of a (typically memory-mapped) byte sequence through one reusable heap chunk, so
+     * an upload is never copied onto the heap whole. Each chunk carries one extra byte so a CRLF
+     * or comment opener split across chunks is still seen as a pair.
+     */
+    private static void scanChunked(AsciiByteSequence text, Scan scan) {
+        int n = text.length();
+        byte[] chunk = new byte[Math.min(n, CHUNK) + 1];
+        for (int offset = 0; offset < n; offset += CHUNK) {
+            int length = Math.min(CHUNK, n - offset);
+            int limit = Math.min(length + 1, n - offset);
+            text.copyTo(offset, chunk, limit);
+            VectorStructuralScanner.scan(chunk, length, limit, offset, scan);
+        }
+    }
+
+    /**
+     * The state machine shared by both scanners. It only ever sees structural characters, in
+     * increasing position order; {@code next} is the character after {@code c}, or 0 at the end.
+     * Comment and literal rules match javac closely enough for brace depth: a line comment or an
+     * unterminated literal ends at the line terminator, a block comment spans lines.
+     */
+    static final class Scan {
+        int[] starts;
+        int[] depths;
+        int count = 1;
+        int open;
+        int close;
+
+        private int depth;
+        private int skip;
+        private boolean blockComment;
+        private boolean lineComment;
+        private char quote;
+
+        Scan(int length) {
+            int capacity = Math.max(16, length / 32);
+            starts = new int[capacity];
+            depths = new int[capacity];
+        }
+
+        static boolean isStructural(int c) {
+            switch (c) {
+                case '\n': case '\r': case '{': case '}': case '"': case '\'': case '/': case '*': case '\\':
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        /** True if {@code pos} starts in code, outside comments and literals, with nothing to skip. */
+        boolean inPlainCode(int pos) {
+            return !blockComment && !lineComment && quote == 0 && skip <= pos;
+        }
+
+        /**
+         * Applies the structural positions {@code bits} (relative to {@code base}) of a run that
+         * starts in plain code and holds nothing but braces and line terminators. {@code b} holds
+         * the text from position {@code offset}; its valid bytes end at {@code limit}.
+         */
+        void plain(byte[] b, int base, long bits, int limit, int offset) {
+            while (bits != 0) {
+                int i = base + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                byte c = b[i];
+                int pos = offset + i;
+                if (c == '{') {
+                    open++;
+                    depth++;
+                } else if (c == '}') {
+                    close++;
+                    depth--;
+                } else if (pos >= skip) {
+                    int start = c == '\r' && i + 1 < limit && b[i + 1] == '\n' ? pos + 2 : pos + 1;
+                    if (count == starts.length) {
+                        starts = Arrays.copyOf(starts, count * 2);
+                        depths = Arrays.copyOf(depths, count * 2);
+                    }
+                    starts[count] = start;
+                    depths[count] = depth;
+                    count++;
+                    skip = start;
+                }
+            }
+        }
+
+        void accept(int c, int pos, int next) {
+            // Raw counts include braces that the state machine skips over
+            if (c == '{') open++;
+            else if (c == '}') close++;
+            if (pos < skip) return;
+
+            if (c == '\n' || c == '\r') {
+                int start = c == '\r' && next == '\n' ? pos + 2 : pos + 1;
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                    depths = Arrays.copyOf(depths, count * 2);
+                }
+                starts[count] = start;
+                depths[count] = depth;
+                count++;
+                skip = start;
+                lineComment = false;
+                quote = 0;
+            } else if (blockComment) {
+                if (c == '*' && next == '/') {
+                    blockComment = false;
+                    skip = pos + 2;
+                }
+            } else if (lineComment) {
+                // ignored up to the line terminator
+            } else if (quote != 0) {
+                if (c == '\\') {
+                    // an escape never swallows the line terminator
+                    if (next != '\n' && next != '\r') skip = pos + 2;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '/' && next == '/') {
+                lineComment = true;
+            } else if (c == '/' && next == '*') {
+                blockComment = true;
+                skip = pos + 2;
+            } else if (c == '"' || c == '\'') {
+                quote = (char) c;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}') {
+                depth--;
+            }
+        }
+    }
+
+    /** Resolved once; a missing module must not be touched again after the first failure. */
+    private static final class VectorSupport {
+        static final boolean AVAILABLE = detect();
+
+        private static boolean detect() {
+            if (Boolean.getBoolean("codereview.scanner.scalar")) return false;
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return false;
+            try {
+                return VectorStructuralScanner.lanes() >= 16;
+            } catch (LinkageError e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.codereview.service.source;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Turns an uploaded file into a {@link SourceText} without staging it on the heap several times.
+ * Small uploads are decoded directly. Larger ones are spooled to a temp file and memory-mapped;
+ * pure-ASCII content (the common case for Java sources) is then exposed as a zero-copy view,
+ * anything else is decoded once from the mapping.
+ */
+@Component
+public class UploadSpooler {
+
+    private final long mapThreshold;
+    private final Path spoolDir;
+
+    public UploadSpooler(@Value("${codereview.upload.map-threshold-bytes:65536}") long mapThreshold,
+                         @Value("${codereview.upload.spool-dir:}") String spoolDir) {
+        this.mapThreshold = mapThreshold;
+        this.spoolDir = spoolDir.isBlank() ? Paths.get(System.getProperty("java.io.tmpdir")) : Paths.get(spoolDir);
+    }
+
+    public SourceText load(MultipartFile file) throws IOException {
+        if (file.getSize() < mapThreshold) {
+            return SourceText.of(new String(file.getBytes(), StandardCharsets.UTF_8));
+        }
+        Files.createDirectories(spoolDir);
+        Path spool = Files.createTempFile(spoolDir, "upload-", ".java");
+        try {
+            // Multipart parts that are already on disk are moved rather than copied
+            file.transferTo(spool);
+            MappedByteBuffer mapped;
+            try (FileChannel channel = FileChannel.open(spool, StandardOpenOption.READ)) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (AsciiByteSequence.isAscii(mapped)) {
+                return SourceText.mapped(new AsciiByteSequence(mapped), spool);
+            }
+            String decoded = StandardCharsets.UTF_8.decode(mapped).toString();
+            Files.deleteIfExists(spool);
+            return SourceText.of(decoded);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+    }
+}
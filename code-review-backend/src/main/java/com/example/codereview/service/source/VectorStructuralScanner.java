@@ -0,0 +1,61 @@
+package com.example.codereview.service.source;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API driver for {@link StructuralIndex}: classifies a full vector of bytes per step into
+ * a bitmap of structural positions. Vectors holding only braces and line breaks, in plain code,
+ * skip the comment and literal states; the others feed just their structural positions to the state
+ * machine. Loaded only when the {@code jdk.incubator.vector} module is present.
+ */
+final class VectorStructuralScanner {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    private VectorStructuralScanner() {}
+
+    static int lanes() {
+        return SPECIES.length();
+    }
+
+    /**
+     * Scans {@code b[0, n)}, which holds the text from position {@code offset}. Bytes up to
+     * {@code limit} are valid; the one at {@code n}, if any, is only looked at as the next char.
+     */
+    static void scan(byte[] b, int n, int limit, int offset, StructuralIndex.Scan scan) {
+        int step = SPECIES.length();
+        int bound = SPECIES.loopBound(n);
+        int i = 0;
+        for (; i < bound; i += step) {
+            ByteVector v = ByteVector.fromArray(SPECIES, b, i);
+            VectorMask<Byte> literalOrComment = v.eq((byte) '"')
+                    .or(v.eq((byte) '\''))
+                    .or(v.eq((byte) '/'))
+                    .or(v.eq((byte) '*'))
+                    .or(v.eq((byte) '\\'));
+            VectorMask<Byte> structural = literalOrComment
+                    .or(v.eq((byte) '{'))
+                    .or(v.eq((byte) '}'))
+                    .or(v.eq((byte) '\n'))
+                    .or(v.eq((byte) '\r'));
+            long bits = structural.toLong();
+            if (!literalOrComment.anyTrue() && scan.inPlainCode(offset + i)) {
+                // Only braces and line breaks outside comments and literals: no state to track
+                scan.plain(b, i, bits, limit, offset);
+                continue;
+            }
+            while (bits != 0) {
+                int p = i + Long.numberOfTrailingZeros(bits);
+                scan.accept(b[p], offset + p, p + 1 < limit ? b[p + 1] & 0xFF : 0);
+                bits &= bits - 1;
+            }
+        }
+        for (; i < n; i++) {
+            if (StructuralIndex.Scan.isStructural(b[i])) {
+                scan.accept(b[i], offset + i, i + 1 < limit ? b[i + 1] & 0xFF : 0);
+            }
+        }
+    }
+}
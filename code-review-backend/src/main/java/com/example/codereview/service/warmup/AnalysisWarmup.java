@@ -0,0 +1,237 @@
+package com.example.codereview.service.warmup;
+
+import com.example.codereview.model.CodeReview;
+import com.example.codereview.service.AnalysisListener;
+import com.example.codereview.service.CodeAnalysisService;
+import com.example.codereview.service.compiler.CompilerTier;
+import com.example.codereview.service.compiler.JavaCompilerDiagnostics;
+import com.example.codereview.service.rules.AnalysisContext;
+import com.example.codereview.service.rules.AnalysisRule;
+import com.example.codereview.service.rules.IssueSink;
+import com.example.codereview.service.rules.RuleRegistry;
+import com.example.codereview.service.source.SourceText;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes a bundled corpus through every rule and through javac after startup, round after round,
+ * until the round times stop improving. Until then {@link WarmupHealthIndicator} keeps the
+ * readiness probe out of service, so a load balancer only routes traffic to a warm JIT.
+ *
+ * <p>Warm-up runs on its own thread after {@link ApplicationReadyEvent}; liveness is not affected.
+ * Rules are applied directly, bypassing the result cache, so their code is actually exercised, and
+ * javac runs with {@link CompilerTier#FULL}. Each sample then goes through
+ * {@link CodeAnalysisService#analyzeTransient} with {@link CompilerTier#SYNTAX}, the path editor
+ * requests take, which warms the result cache, the issue aggregator and the DTO mapping as well.
+ * Nothing is persisted.
+ */
+@Component
+public class AnalysisWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisWarmup.class);
+
+    public enum State { PENDING, RUNNING, COMPLETE, FAILED, DISABLED }
+
+    private final RuleRegistry ruleRegistry;
+    private final JavaCompilerDiagnostics compiler;
+    private final CodeAnalysisService analysisService;
+    private final boolean enabled;
+    private final String corpus;
+    private final int minRounds;
+    private final int maxRounds;
+    private final long maxNanos;
+    private final int stableRounds;
+    private final double tolerance;
+
+    private volatile State state = State.PENDING;
+    private volatile int rounds;
+    private volatile long durationNanos;
+    private volatile long latencyNanos;
+    private volatile Thread thread;
+
+    public AnalysisWarmup(RuleRegistry ruleRegistry, JavaCompilerDiagnostics compiler,
+                          CodeAnalysisService analysisService, MeterRegistry meters,
+                          @Value("${codereview.warmup.enabled:true}") boolean enabled,
+                          @Value("${codereview.warmup.corpus:classpath:warmup/*.java}") String corpus,
+                          @Value("${codereview.warmup.min-rounds:5}") int minRounds,
+                          @Value("${codereview.warmup.max-rounds:200}") int maxRounds,
+                          @Value("${codereview.warmup.max-seconds:60}") long maxSeconds,
+                          @Value("${codereview.warmup.stable-rounds:3}") int stableRounds,
+                          @Value("${codereview.warmup.tolerance:0.1}") double tolerance) {
+        this.ruleRegistry = ruleRegistry;
+        this.compiler = compiler;
+        this.analysisService = analysisService;
+        this.enabled = enabled;
+        this.corpus = corpus;
+        this.minRounds = Math.max(1, minRounds);
+        this.maxRounds = Math.max(this.minRounds, maxRounds);
+        this.maxNanos = TimeUnit.SECONDS.toNanos(maxSeconds);
+        this.stableRounds = Math.max(2, stableRounds);
+        this.tolerance = tolerance;
+
+        Gauge.builder("codereview.warmup.complete", this, w -> w.isComplete() ? 1 : 0)
+                .description("1 once warm-up has finished or is disabled")
+                .register(meters);
+        Gauge.builder("codereview.warmup.rounds", this, w -> w.rounds)
+                .description("Warm-up rounds run over the bundled corpus")
+                .register(meters);
+        TimeGauge.builder("codereview.warmup.duration", this, TimeUnit.NANOSECONDS, w -> w.durationNanos)
+                .description("Time from the start of warm-up until timings stabilized")
+                .register(meters);
+        TimeGauge.builder("codereview.warmup.latency", this, TimeUnit.NANOSECONDS, w -> w.latencyNanos)
+                .description("Mean per-file warm-up time (rules, javac and a transient analysis) in the last round")
+                .register(meters);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            state = State.DISABLED;
+            return;
+        }
+        Thread t = new Thread(this::run, "analysis-warmup");
+        t.setDaemon(true);
+        thread = t;
+        t.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread t = thread;
+        if (t != null) {
+            t.interrupt();
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /** True once traffic may be accepted: warm-up finished, gave up, or is disabled. */
+    public boolean isComplete() {
+        State s = state;
+        return s == State.COMPLETE || s == State.FAILED || s == State.DISABLED;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public long getDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    }
+
+    public double getLatencyMillis() {
+        return latencyNanos / 1_000_000.0;
+    }
+
+    private void run() {
+        state = State.RUNNING;
+        long start = System.nanoTime();
+        try {
+            List<Sample> samples = loadCorpus();
+            List<AnalysisRule> rules = ruleRegistry.getRules();
+            long[] roundNanos = new long[maxRounds];
+            int round = 0;
+            while (round < maxRounds) {
+                long roundStart = System.nanoTime();
+                for (Sample sample : samples) {
+                    analyze(sample, rules);
+                }
+                roundNanos[round] = System.nanoTime() - roundStart;
+                round++;
+                rounds = round;
+                latencyNanos = roundNanos[round - 1] / samples.size();
+                durationNanos = System.nanoTime() - start;
+                if (round >= minRounds && stable(roundNanos, round)) {
+                    break;
+                }
+                if (durationNanos > maxNanos) {
+                    log.warn("Warm-up did not stabilize within {} rounds / {} ms", round, getDurationMillis());
+                    break;
+                }
+            }
+            state = State.COMPLETE;
+            log.info("Warm-up finished after {} rounds in {} ms; {} ms per file",
+                    rounds, getDurationMillis(), String.format("%.2f", getLatencyMillis()));
+        } catch (CancellationException e) {
+            state = State.FAILED;
+        } catch (RuntimeException | IOException e) {
+            // Serving cold is better than not serving at all
+            state = State.FAILED;
+            log.warn("Warm-up failed; accepting traffic without it", e);
+        } finally {
+            durationNanos = System.nanoTime() - start;
+        }
+    }
+
+    private void analyze(Sample sample, List<AnalysisRule> rules) {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Warm-up cancelled");
+        }
+        AnalysisContext context = new AnalysisContext(new CodeReview(), sample.source);
+        // The prefilter is part of every real request; its result is not used here
+        ruleRegistry.getApplicableRules(sample.source.content(), new ArrayList<>());
+        IssueSink sink = new IssueSink();
+        for (AnalysisRule rule : rules) {
+            sink.beginRule(rule.name());
+            rule.apply(context, sink);
+        }
+        compiler.compile(sample.filename, sample.source, CompilerTier.FULL);
+        analysisService.analyzeTransient(sample.filename, sample.source, AnalysisListener.NONE, CompilerTier.SYNTAX);
+    }
+
+    /** The last {@code stableRounds} round times lie within {@code tolerance} of each other. */
+    private boolean stable(long[] roundNanos, int round) {
+        if (round < stableRounds) {
+            return false;
+        }
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        for (int i = round - stableRounds; i < round; i++) {
+            min = Math.min(min, roundNanos[i]);
+            max = Math.max(max, roundNanos[i]);
+        }
+        return max <= min * (1 + tolerance);
+    }
+
+    private List<Sample> loadCorpus() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(corpus);
+        List<Sample> samples = new ArrayList<>(resources.length);
+        for (Resource resource : resources) {
+            String code = resource.getContentAsString(StandardCharsets.UTF_8);
+            samples.add(new Sample(resource.getFilename(), SourceText.of(code)));
+        }
+        if (samples.isEmpty()) {
+            throw new IOException("No warm-up sources match " + corpus);
+        }
+        return samples;
+    }
+
+    private static final class Sample {
+        final String filename;
+        final SourceText source;
+
+        Sample(String filename, SourceText source) {
+            this.filename = filename;
+            this.source = source;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.codereview.service.warmup;
+
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports {@code OUT_OF_SERVICE} until {@link AnalysisWarmup} has finished. Part of the readiness
+ * group ({@code /actuator/health/readiness}), not of liveness: a warming instance must not be
+ * restarted, only kept out of rotation.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final AnalysisWarmup warmup;
+
+    public WarmupHealthIndicator(AnalysisWarmup warmup) {
+        this.warmup = warmup;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = warmup.isComplete() ? Health.up() : Health.outOfService();
+        return builder
+                .withDetail("state", warmup.getState())
+                .withDetail("rounds", warmup.getRounds())
+                .withDetail("durationMs", warmup.getDurationMillis())
+                .withDetail("latencyMs", warmup.getLatencyMillis())
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+package warmup;
+
+import java.util.Objects;
+
+/** Well-formed file: exercises the parse and attribution path of javac without errors. */
+public final class Geometry {
+
+    public record Point(double x, double y) {
+        public double distanceTo(Point other) {
+            double dx = x - other.x;
+            double dy = y - other.y;
+            return Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+
+    public static double perimeter(Point... points) {
+        Objects.requireNonNull(points, "points");
+        double total = 0;
+        for (int i = 0; i < points.length; i++) {
+            total += points[i].distanceTo(points[(i + 1) % points.length]);
+        }
+        return total;
+    }
+
+    public static String describe(Object shape) {
+        if (shape instanceof Point p) {
+            return "point at " + p.x() + "," + p.y();
+        }
+        return switch (shape.getClass().getSimpleName()) {
+            case "Circle" -> "circle";
+            case "Square" -> "square";
+            default -> "unknown";
+        };
+    }
+
+    private Geometry() {
+    }
+}
@@ -0,0 +1,44 @@
+package warmup;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class OrderService {
+
+    private static final String password = "changeit";
+    private final Map<String, List<String>> ordersByCustomer = new HashMap<>();
+
+    // TODO: move queries into a repository
+    public List<String> findOrders(Connection connection, String customer) throws Exception {
+        List<String> result = new ArrayList<>();
+        Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("SELECT id FROM orders WHERE customer = '" + customer + "'");
+        while (rs.next()) {
+            result.add(rs.getString(1));
+        }
+        return result;
+    }
+
+    public String report(List<String> customers) {
+        String out = "";
+        int unused = 42;
+        for (String customer : customers) {
+            for (String order : ordersByCustomer.getOrDefault(customer, List.of())) {
+                out += customer + ":" + order + "\n";
+            }
+        }
+        System.out.println("Generated report with " + out.length() + " characters for " + customers.size() + " customers in total");
+        return out;
+    }
+
+    public void load(String customer) {
+        try {
+            ordersByCustomer.computeIfAbsent(customer, c -> new ArrayList<>()).add(Integer.toString(customer.hashCode()));
+        } catch (RuntimeException e) {}
+    }
+}
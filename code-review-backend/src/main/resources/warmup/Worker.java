@@ -0,0 +1,37 @@
+package warmup;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public class Worker implements Runnable {
+
+    private final BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+    private volatile boolean running = true;
+
+    @Override
+    public void run() {
+        while (true) {
+            Runnable task = tasks.poll();
+            if (task == null) {
+                continue;
+            }
+            task.run();
+        }
+    }
+
+    public int drain() {
+        int drained = 0;
+        for (;;) {
+            if (tasks.poll() == null) {
+                return drained;
+                drained++;
+            }
+            drained++;
+        }
+    }
+
+    public void stop() {
+        running = false;
+        throw new IllegalStateException("stopped");
+    }
+}
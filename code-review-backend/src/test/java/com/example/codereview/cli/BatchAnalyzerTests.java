@@ -0,0 +1,100 @@
+package com.example.codereview.cli;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchAnalyzerTests {
+
+	@TempDir
+	Path dir;
+
+	private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+	private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+	@Test
+	void writesASarifLogWithPathsRelativeToTheRoot() throws Exception {
+		write("src/pkg/Clean.java", "package pkg;\n\npublic class Clean {\n}\n");
+		write("src/pkg/Broken.java", "package pkg;\n\npublic class Broken {\n    void m() { int x = ; }\n}\n");
+
+		assertEquals(0, run("--compiler=syntax", dir.toString()));
+
+		JsonNode log = new ObjectMapper().readTree(out.toString(StandardCharsets.UTF_8));
+		assertEquals("2.1.0", log.get("version").asString());
+		List<String> uris = new ArrayList<>();
+		for (JsonNode result : log.get("runs").get(0).get("results")) {
+			uris.add(result.get("locations").get(0).get("physicalLocation").get("artifactLocation").get("uri").asString());
+		}
+		assertTrue(uris.contains("src/pkg/Broken.java"), uris.toString());
+		assertTrue(uris.stream().noneMatch(uri -> uri.startsWith("/")), uris.toString());
+	}
+
+	@Test
+	void failOnExitsWithOneOnlyWhenAnIssueReachesTheThreshold() throws Exception {
+		write("Broken.java", "public class Broken {\n    void m() { int x = ; }\n}\n");
+		Path report = dir.resolve("report.json");
+
+		assertEquals(1, run("--compiler=syntax", "--fail-on=high", "--format=json", "--output=" + report, dir.resolve("Broken.java").toString()));
+		JsonNode files = new ObjectMapper().readTree(report.toFile());
+		assertEquals("Broken.java", files.get(0).get("filename").asString());
+		assertTrue(files.get(0).get("errorCount").asInt() > 0);
+
+		write("clean/Clean.java", "public class Clean {\n}\n");
+		assertEquals(0, run("--compiler=syntax", "--fail-on=high", "--output=" + report, dir.resolve("clean").toString()));
+	}
+
+	@Test
+	void badOptionsAndMissingInputExitWithTwo() {
+		assertEquals(2, run("--format=xml", dir.toString()));
+		assertEquals(2, run("--threads=many", dir.toString()));
+		assertEquals(2, run("--fail-on=fatal", dir.toString()));
+		assertEquals(2, run("--compiler=none"));
+		assertEquals(2, run("--compiler=none", dir.resolve("missing").toString()));
+		assertTrue(err.toString(StandardCharsets.UTF_8).contains("usage:"));
+	}
+
+	@Test
+	void invalidUtf8IsDecodedWithReplacementInsteadOfAbortingTheRun() throws Exception {
+		Path file = dir.resolve("Latin1.java");
+		Files.write(file, "// café\npublic class Latin1 {\n}\n".getBytes(StandardCharsets.ISO_8859_1));
+		write("Other.java", "public class Other {\n}\n");
+
+		assertEquals(0, run("--compiler=syntax", "--format=json", dir.toString()));
+		JsonNode files = new ObjectMapper().readTree(out.toString(StandardCharsets.UTF_8));
+		assertEquals(2, files.size());
+	}
+
+	@Test
+	void symlinkCyclesAreNotFollowed() throws Exception {
+		write("a/A.java", "public class A {\n}\n");
+		Files.createSymbolicLink(dir.resolve("a/loop"), dir);
+
+		assertEquals(0, run("--compiler=none", "--format=json", dir.toString()));
+		JsonNode files = new ObjectMapper().readTree(out.toString(StandardCharsets.UTF_8));
+		assertEquals(1, files.size());
+		assertEquals("a/A.java", files.get(0).get("filename").asString());
+	}
+
+	private int run(String... args) {
+		return BatchAnalyzer.execute(args, new PrintStream(out, true, StandardCharsets.UTF_8),
+				new PrintStream(err, true, StandardCharsets.UTF_8));
+	}
+
+	private void write(String relative, String code) throws Exception {
+		Path file = dir.resolve(relative);
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, code);
+	}
+}
@@ -0,0 +1,30 @@
+package com.example.codereview.controller;
+
+import com.example.codereview.service.admission.AdmissionLane;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AnalysisJobControllerTests {
+
+	@Test
+	void eachLaneHasItsOwnDefaultPriority() {
+		assertEquals(AnalysisJobController.INTERACTIVE_MAX_PRIORITY,
+				AnalysisJobController.effectivePriority(AdmissionLane.INTERACTIVE, null));
+		assertEquals(AnalysisJobController.BATCH_MIN_PRIORITY,
+				AnalysisJobController.effectivePriority(AdmissionLane.BATCH, null));
+	}
+
+	@Test
+	void requestedPrioritiesAreClampedIntoTheLane() {
+		assertEquals(AnalysisJobController.BATCH_MAX_PRIORITY,
+				AnalysisJobController.effectivePriority(AdmissionLane.BATCH, Integer.MAX_VALUE));
+		assertEquals(AnalysisJobController.BATCH_MIN_PRIORITY,
+				AnalysisJobController.effectivePriority(AdmissionLane.BATCH, -50));
+		assertEquals(AnalysisJobController.INTERACTIVE_MAX_PRIORITY,
+				AnalysisJobController.effectivePriority(AdmissionLane.INTERACTIVE, 1_000_000));
+		assertEquals(AnalysisJobController.INTERACTIVE_MIN_PRIORITY,
+				AnalysisJobController.effectivePriority(AdmissionLane.INTERACTIVE, Integer.MIN_VALUE));
+		assertEquals(7, AnalysisJobController.effectivePriority(AdmissionLane.INTERACTIVE, 7));
+	}
+}
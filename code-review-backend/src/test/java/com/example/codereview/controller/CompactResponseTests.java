@@ -0,0 +1,128 @@
+package com.example.codereview.controller;
+
+import com.example.codereview.dto.AnalyzeRequest;
+import com.example.codereview.dto.CompactAnalyzeResponse;
+import com.example.codereview.dto.CompactIssueColumns;
+import com.example.codereview.dto.CompactReviewDetailResponse;
+import com.example.codereview.dto.IssueDto;
+import com.example.codereview.dto.ReviewDetailResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CompactResponseTests {
+
+	private static final String CODE = "public class Noisy {\n"
+			+ "    // TODO first\n"
+			+ "    void a() { System.out.println(\"a\"); }\n"
+			+ "    // TODO second\n"
+			+ "    void b() { try { b(); } catch (Exception e) { } }\n"
+			+ "    void c() { System.out.println(\"c\"); }\n"
+			+ "}\n";
+
+	@Autowired
+	private MockMvc mvc;
+
+	private final ObjectMapper json = new ObjectMapper();
+
+	@Test
+	void analyzeResponsesAreCompactedForCbor() throws Exception {
+		AnalyzeRequest request = new AnalyzeRequest();
+		request.setFilename("Noisy.java");
+		request.setCode(CODE);
+		request.setCompilerTier("none");
+		byte[] body = mvc.perform(post("/api/analyze")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(json.writeValueAsBytes(request))
+						.accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		CompactAnalyzeResponse compact = new CBORMapper().readValue(body, CompactAnalyzeResponse.class);
+		assertEquals("Noisy.java", compact.getFilename());
+		assertTrue(compact.getTitles().length > 1, "expected several issues");
+		assertInterned(compact);
+	}
+
+	@Test
+	void reviewDetailsRoundTripThroughCborAndSmile() throws Exception {
+		ReviewDetailResponse detail = json.readValue(saveAndGet(MediaType.APPLICATION_JSON), ReviewDetailResponse.class);
+		assertTrue(detail.getIssues().size() > 1, "expected several issues");
+
+		CompactReviewDetailResponse cbor = new CBORMapper().readValue(
+				getReview(MediaType.APPLICATION_CBOR, detail.getId()), CompactReviewDetailResponse.class);
+		CompactReviewDetailResponse smile = new SmileMapper().readValue(
+				getReview(CompactResponseAdvice.SMILE, detail.getId()), CompactReviewDetailResponse.class);
+		for (CompactReviewDetailResponse compact : List.of(cbor, smile)) {
+			assertEquals(detail.getId(), compact.getId());
+			assertEquals(detail.getCode(), compact.getCode());
+			assertEquals(detail.getWarningCount(), compact.getWarningCount());
+			assertInterned(compact);
+			assertSameIssues(detail.getIssues(), compact);
+		}
+	}
+
+	private byte[] saveAndGet(MediaType accept) throws Exception {
+		AnalyzeRequest request = new AnalyzeRequest();
+		request.setFilename("Noisy.java");
+		request.setCode(CODE);
+		request.setCompilerTier("none");
+		byte[] response = mvc.perform(post("/api/analyze")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(json.writeValueAsBytes(request)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray();
+		return getReview(accept, json.readTree(response).get("reviewId").asLong());
+	}
+
+	private byte[] getReview(MediaType accept, long id) throws Exception {
+		return mvc.perform(get("/api/reviews/{id}", id).accept(accept))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(accept))
+				.andReturn().getResponse().getContentAsByteArray();
+	}
+
+	// Each distinct string is sent once and every column points into the table
+	private static void assertInterned(CompactIssueColumns compact) {
+		List<String> strings = compact.getStrings();
+		assertEquals(strings.size(), new HashSet<>(strings).size(), "duplicate strings: " + strings);
+		assertEquals(1, strings.stream().filter("WARNING"::equals).count());
+		for (int[] column : List.of(compact.getTitles(), compact.getCategories(), compact.getSeverities())) {
+			for (int index : column) {
+				assertTrue(index >= 0 && index < strings.size(), "index " + index);
+			}
+		}
+	}
+
+	private static void assertSameIssues(List<IssueDto> issues, CompactIssueColumns compact) {
+		List<String> strings = compact.getStrings();
+		assertEquals(issues.size(), compact.getIds().length);
+		for (int i = 0; i < issues.size(); i++) {
+			IssueDto issue = issues.get(i);
+			assertEquals(issue.getId(), compact.getIds()[i]);
+			assertEquals(issue.getLineNumber(), compact.getLineNumbers()[i]);
+			assertEquals(issue.getTitle(), strings.get(compact.getTitles()[i]));
+			assertEquals(issue.getCategory().name(), strings.get(compact.getCategories()[i]));
+			assertEquals(issue.getSeverity().name(), strings.get(compact.getSeverities()[i]));
+		}
+	}
+}
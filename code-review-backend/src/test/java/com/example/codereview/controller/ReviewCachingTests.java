@@ -0,0 +1,115 @@
+package com.example.codereview.controller;
+
+import com.example.codereview.dto.AnalyzeRequest;
+import com.example.codereview.service.CodeAnalysisService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReviewCachingTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private CodeAnalysisService analysisService;
+
+	private long reviewId;
+
+	@BeforeEach
+	void saveReview() {
+		AnalyzeRequest request = new AnalyzeRequest();
+		request.setFilename("A.java");
+		request.setCode("public class A {\n    // TODO cache me\n}\n");
+		request.setCompilerTier("none");
+		reviewId = analysisService.analyze(request).getReviewId();
+	}
+
+	@Test
+	void reviewsAreServedWithAStrongETagAndLongLivedPrivateCaching() throws Exception {
+		MvcResult result = mvc.perform(get("/api/reviews/{id}", reviewId).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+				.andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+				.andReturn();
+		String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+		assertTrue(etag.startsWith("\"") && etag.endsWith("-json\""), etag);
+		String cacheControl = result.getResponse().getHeader(HttpHeaders.CACHE_CONTROL);
+		assertTrue(cacheControl.contains("private") && cacheControl.contains("immutable")
+				&& cacheControl.contains("max-age="), cacheControl);
+	}
+
+	@Test
+	void aMatchingIfNoneMatchIsAnswered304WithoutABody() throws Exception {
+		String etag = etag(MediaType.APPLICATION_JSON_VALUE);
+		MvcResult result = mvc.perform(get("/api/reviews/{id}", reviewId)
+						.accept(MediaType.APPLICATION_JSON)
+						.header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andReturn();
+		assertEquals(0, result.getResponse().getContentLength());
+		assertTrue(result.getResponse().getHeader(HttpHeaders.CACHE_CONTROL).contains("immutable"));
+	}
+
+	@Test
+	void eachNegotiatedFormatHasItsOwnETag() throws Exception {
+		String json = etag("application/json");
+		String cbor = etag("application/cbor");
+		assertNotEquals(json, cbor);
+		// Different Accept strings that negotiate the same format share a validator
+		assertEquals(json, etag("application/cbor;q=0.5, application/json"));
+		assertEquals(cbor, etag("application/cbor, */*;q=0.1"));
+
+		mvc.perform(get("/api/reviews/{id}", reviewId)
+						.accept(MediaType.APPLICATION_CBOR)
+						.header(HttpHeaders.IF_NONE_MATCH, json))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+				.andExpect(header().string(HttpHeaders.ETAG, cbor));
+	}
+
+	@Test
+	void exportsAreConditionalToo() throws Exception {
+		MvcResult first = mvc.perform(get("/api/reviews/{id}/export", reviewId).param("format", "txt"))
+				.andExpect(status().isOk())
+				.andReturn();
+		String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+		mvc.perform(get("/api/reviews/{id}/export", reviewId).param("format", "txt")
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void negotiationPicksTheBestAcceptableFormat() {
+		assertEquals(MediaType.APPLICATION_JSON, ReviewCacheHeaders.negotiate(null));
+		assertEquals(MediaType.APPLICATION_JSON, ReviewCacheHeaders.negotiate("*/*"));
+		assertEquals(MediaType.APPLICATION_CBOR, ReviewCacheHeaders.negotiate("application/*;q=0.2, application/cbor"));
+		assertEquals(CompactResponseAdvice.SMILE, ReviewCacheHeaders.negotiate("application/x-jackson-smile, application/json;q=0.9"));
+		assertNull(ReviewCacheHeaders.negotiate("text/html"));
+	}
+
+	private String etag(String accept) throws Exception {
+		return mvc.perform(get("/api/reviews/{id}", reviewId).header(HttpHeaders.ACCEPT, accept))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+}
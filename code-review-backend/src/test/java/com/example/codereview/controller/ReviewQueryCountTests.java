@@ -0,0 +1,109 @@
+package com.example.codereview.controller;
+
+import com.example.codereview.model.CodeReview;
+import com.example.codereview.model.Issue;
+import com.example.codereview.model.IssueCategory;
+import com.example.codereview.model.Severity;
+import com.example.codereview.repository.CodeReviewRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The review endpoints must cost the same number of statements however many issues a review
+ * has, including when the review is cached but some of its issues were evicted.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class ReviewQueryCountTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private CodeReviewRepository reviewRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void enableStatistics() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+	}
+
+	@Test
+	void detailQueriesDoNotGrowWithTheIssueCount() throws Exception {
+		long small = saveReview(2);
+		long large = saveReview(40);
+
+		assertEquals(0, detailStatements(large, false), "a fully cached review should load without SQL");
+		assertEquals(detailStatements(small, false), detailStatements(large, false));
+		assertEquals(detailStatements(small, true), detailStatements(large, true));
+		assertTrue(detailStatements(large, true) <= 2, "issues evicted from the cache were loaded one by one");
+	}
+
+	@Test
+	void listQueriesDoNotGrowWithTheReviewCount() throws Exception {
+		saveReview(3);
+		long before = listStatements();
+		for (int i = 0; i < 5; i++) {
+			saveReview(5);
+		}
+		assertEquals(before, listStatements());
+	}
+
+	/**
+	 * Statements for one detail request against a warm review cache. With {@code evictIssues}
+	 * the review and its issue-id collection stay cached but the issue entities do not.
+	 */
+	private long detailStatements(long id, boolean evictIssues) throws Exception {
+		entityManagerFactory.getCache().evictAll();
+		mvc.perform(get("/api/reviews/{id}", id).accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
+		if (evictIssues) {
+			entityManagerFactory.getCache().evict(Issue.class);
+		}
+		statistics.clear();
+		mvc.perform(get("/api/reviews/{id}", id).accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
+		return statistics.getPrepareStatementCount();
+	}
+
+	private long listStatements() throws Exception {
+		statistics.clear();
+		mvc.perform(get("/api/reviews").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
+		return statistics.getPrepareStatementCount();
+	}
+
+	private long saveReview(int issueCount) {
+		CodeReview review = new CodeReview();
+		review.setFilename("Counted.java");
+		review.setCode("class Counted {}\n");
+		review.setCreatedAt(LocalDateTime.now());
+		for (int i = 0; i < issueCount; i++) {
+			Issue issue = new Issue();
+			issue.setLineNumber(i + 1);
+			issue.setTitle("Issue " + i);
+			issue.setCategory(IssueCategory.WARNING);
+			issue.setSeverity(Severity.LOW);
+			issue.setCodeReview(review);
+			review.getIssues().add(issue);
+		}
+		return reviewRepository.save(review).getId();
+	}
+}
@@ -0,0 +1,104 @@
+package com.example.codereview.loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * The Java sources replayed by the load test: generated classes whose size and rule hit rate are
+ * controlled by the config, plus real files from a directory (the application's own sources by
+ * default) so the mix includes code nobody wrote to please the rules.
+ */
+final class Corpus {
+
+	static final class Entry {
+		final String filename;
+		final String code;
+
+		Entry(String filename, String code) {
+			this.filename = filename;
+			this.code = code;
+		}
+	}
+
+	private static final String[] STATEMENTS = {
+			"        int total = 0;\n        for (int i = 0; i < items.size(); i++) {\n            total += items.get(i);\n        }\n",
+			"        System.out.println(\"value: \" + value);\n",
+			"        String sql = \"SELECT * FROM users WHERE id = \" + value;\n",
+			"        // TODO handle the edge case\n",
+			"        try {\n            process(value);\n        } catch (Exception e) {\n        }\n",
+			"        String out = \"\";\n        for (String s : names) {\n            out += s;\n        }\n",
+			"        for (int i = 0; i < 10; i++) {\n            for (int j = 0; j < 10; j++) {\n                total += i * j;\n            }\n        }\n",
+			"        if (value > 0) {\n            return value * 2;\n        }\n",
+			"        String password = \"hunter2\";\n",
+			"        List<String> copy = new ArrayList<>(names);\n        copy.sort(null);\n",
+	};
+
+	private final List<Entry> entries;
+
+	private Corpus(List<Entry> entries) {
+		this.entries = entries;
+	}
+
+	static Corpus build(LoadTestConfig config) {
+		Random random = new Random(config.seed);
+		List<Entry> entries = new ArrayList<>();
+		for (int f = 0; f < config.syntheticFiles; f++) {
+			entries.add(synthetic("Synthetic" + f, config.syntheticMethods, random));
+		}
+		if (!config.corpusDir.isEmpty()) {
+			entries.addAll(readDirectory(Path.of(config.corpusDir)));
+		}
+		if (entries.isEmpty()) {
+			throw new IllegalStateException("Load-test corpus is empty");
+		}
+		return new Corpus(entries);
+	}
+
+	Entry pick(Random random) {
+		return entries.get(random.nextInt(entries.size()));
+	}
+
+	int size() {
+		return entries.size();
+	}
+
+	private static Entry synthetic(String className, int methods, Random random) {
+		StringBuilder sb = new StringBuilder(methods * 200);
+		sb.append("import java.util.ArrayList;\nimport java.util.List;\n\n");
+		sb.append("public class ").append(className).append(" {\n\n");
+		sb.append("    private List<Integer> items = new ArrayList<>();\n");
+		sb.append("    private List<String> names = new ArrayList<>();\n\n");
+		for (int m = 0; m < methods; m++) {
+			sb.append("    int method").append(m).append("(int value) {\n");
+			int statements = 1 + random.nextInt(5);
+			for (int s = 0; s < statements; s++) {
+				sb.append(STATEMENTS[random.nextInt(STATEMENTS.length)]);
+			}
+			sb.append("        return value;\n    }\n\n");
+		}
+		sb.append("    void process(int value) {\n    }\n}\n");
+		return new Entry(className + ".java", sb.toString());
+	}
+
+	private static List<Entry> readDirectory(Path dir) {
+		if (!Files.isDirectory(dir)) {
+			return List.of();
+		}
+		List<Entry> out = new ArrayList<>();
+		try (Stream<Path> files = Files.walk(dir)) {
+			for (Path p : (Iterable<Path>) files.filter(f -> f.toString().endsWith(".java")).sorted()::iterator) {
+				out.add(new Entry(p.getFileName().toString(), Files.readString(p, StandardCharsets.UTF_8)));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out;
+	}
+}
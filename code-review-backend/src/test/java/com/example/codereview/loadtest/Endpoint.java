@@ -0,0 +1,17 @@
+package com.example.codereview.loadtest;
+
+/** The endpoints the load test exercises, with their default share of the request mix. */
+enum Endpoint {
+	ANALYZE("analyze", 50),
+	UPLOAD("upload", 20),
+	REVIEWS("reviews", 20),
+	DASHBOARD("dashboard", 10);
+
+	final String key;
+	final int defaultWeight;
+
+	Endpoint(String key, int defaultWeight) {
+		this.key = key;
+		this.defaultWeight = defaultWeight;
+	}
+}
@@ -0,0 +1,119 @@
+package com.example.codereview.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Settings for {@link LoadTestDriver}, read from {@code loadtest.*} system properties, optionally
+ * layered over a properties file named by {@code -Dloadtest.config=...}.
+ */
+final class LoadTestConfig {
+
+	/** Empty means start the application in-process on a random port. */
+	final String baseUrl;
+	/** Spring profiles for the in-process application, e.g. {@code virtual-threads}. */
+	final String profiles;
+	final int concurrency;
+	final long warmupSeconds;
+	final long durationSeconds;
+	/** Target requests per second across all workers; 0 runs closed-loop as fast as possible. */
+	final double rate;
+	final long requestTimeoutMillis;
+	final Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+
+	final int syntheticFiles;
+	final int syntheticMethods;
+	/** Directory of real .java files mixed into the corpus; empty disables it. */
+	final String corpusDir;
+	final long seed;
+
+	final double sloMinThroughput;
+	final double sloMaxErrorRate;
+	final Map<Endpoint, Slo> slos = new EnumMap<>(Endpoint.class);
+
+	final String reportFile;
+
+	static final class Slo {
+		final double p50Millis;
+		final double p95Millis;
+		final double p99Millis;
+		final double p999Millis;
+
+		Slo(double p50Millis, double p95Millis, double p99Millis, double p999Millis) {
+			this.p50Millis = p50Millis;
+			this.p95Millis = p95Millis;
+			this.p99Millis = p99Millis;
+			this.p999Millis = p999Millis;
+		}
+	}
+
+	private LoadTestConfig(Properties p) {
+		baseUrl = p.getProperty("loadtest.base-url", "").trim();
+		profiles = p.getProperty("loadtest.profiles", "").trim();
+		concurrency = intProp(p, "loadtest.concurrency", 32);
+		warmupSeconds = longProp(p, "loadtest.warmup-seconds", 5);
+		durationSeconds = longProp(p, "loadtest.duration-seconds", 30);
+		rate = doubleProp(p, "loadtest.rate", 0);
+		requestTimeoutMillis = longProp(p, "loadtest.request-timeout-ms", 30_000);
+		for (Endpoint e : Endpoint.values()) {
+			mix.put(e, intProp(p, "loadtest.mix." + e.key, e.defaultWeight));
+		}
+
+		syntheticFiles = intProp(p, "loadtest.corpus.synthetic-files", 200);
+		syntheticMethods = intProp(p, "loadtest.corpus.synthetic-methods", 20);
+		corpusDir = p.getProperty("loadtest.corpus.dir", "src/main/java").trim();
+		seed = longProp(p, "loadtest.seed", 42);
+
+		sloMinThroughput = doubleProp(p, "loadtest.slo.min-throughput", 0);
+		sloMaxErrorRate = doubleProp(p, "loadtest.slo.max-error-rate", 0.01);
+		double p50 = doubleProp(p, "loadtest.slo.p50-ms", 0);
+		double p95 = doubleProp(p, "loadtest.slo.p95-ms", 0);
+		double p99 = doubleProp(p, "loadtest.slo.p99-ms", 0);
+		double p999 = doubleProp(p, "loadtest.slo.p999-ms", 0);
+		for (Endpoint e : Endpoint.values()) {
+			String prefix = "loadtest.slo." + e.key + ".";
+			slos.put(e, new Slo(doubleProp(p, prefix + "p50-ms", p50),
+					doubleProp(p, prefix + "p95-ms", p95),
+					doubleProp(p, prefix + "p99-ms", p99),
+					doubleProp(p, prefix + "p999-ms", p999)));
+		}
+
+		reportFile = p.getProperty("loadtest.report-file", "target/load-test-report.txt").trim();
+	}
+
+	static LoadTestConfig load() throws IOException {
+		Properties merged = new Properties();
+		String file = System.getProperty("loadtest.config");
+		if (file != null && !file.isBlank()) {
+			try (Reader r = Files.newBufferedReader(Path.of(file))) {
+				merged.load(r);
+			}
+		}
+		for (String name : System.getProperties().stringPropertyNames()) {
+			if (name.startsWith("loadtest.")) {
+				merged.setProperty(name, System.getProperty(name));
+			}
+		}
+		return new LoadTestConfig(merged);
+	}
+
+	private static int intProp(Properties p, String name, int def) {
+		String v = p.getProperty(name);
+		return v == null || v.isBlank() ? def : Integer.parseInt(v.trim());
+	}
+
+	private static long longProp(Properties p, String name, long def) {
+		String v = p.getProperty(name);
+		return v == null || v.isBlank() ? def : Long.parseLong(v.trim());
+	}
+
+	private static double doubleProp(Properties p, String name, double def) {
+		String v = p.getProperty(name);
+		return v == null || v.isBlank() ? def : Double.parseDouble(v.trim());
+	}
+}
@@ -0,0 +1,349 @@
+package com.example.codereview.loadtest;
+
+import com.example.codereview.CodeReviewBackendApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load generator for the analysis API. Replays a weighted mix of {@code /api/analyze},
+ * {@code /api/analyze/upload}, {@code /api/reviews} and {@code /api/dashboard/summary} requests
+ * over a {@link Corpus}, records per-endpoint latencies in HdrHistograms and fails when a
+ * configured SLO is missed.
+ *
+ * <p>Without {@code loadtest.base-url} the application is started in this JVM on a random port;
+ * point it at a separately started server for numbers that do not share a heap with the driver.
+ * Run it with {@code mvn -Pload-test -DskipTests verify -Dloadtest.duration-seconds=60 ...}.
+ *
+ * <p>Workers are virtual threads where the JDK has them and platform threads otherwise. With
+ * {@code loadtest.rate} set, each worker follows a fixed schedule and latency is measured from the
+ * intended start time, so a stalled server is not hidden by the driver slowing down with it.
+ *
+ * <p>The report ends with the peak heap in use and the peak live thread count of this JVM over
+ * the measured interval. In-process that covers the server and the driver together, which is
+ * what the platform vs. virtual thread comparisons in {@code src/test/resources/loadtest} record.
+ */
+public final class LoadTestDriver {
+
+	private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+	private final LoadTestConfig config;
+	private final Corpus corpus;
+	private final HttpClient client;
+	private final ObjectMapper json = new ObjectMapper();
+	private final Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+	private final Endpoint[] weighted;
+	private URI base;
+	private volatile boolean recording;
+	private final AtomicLong peakHeapBytes = new AtomicLong();
+
+	private static final class Stats {
+		final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+		final AtomicLong ok = new AtomicLong();
+		final AtomicLong rejected = new AtomicLong();
+		final AtomicLong errors = new AtomicLong();
+
+		long total() {
+			return ok.get() + rejected.get() + errors.get();
+		}
+	}
+
+	LoadTestDriver(LoadTestConfig config) {
+		this.config = config;
+		this.corpus = Corpus.build(config);
+		this.client = HttpClient.newBuilder()
+				.connectTimeout(Duration.ofSeconds(10))
+				.version(HttpClient.Version.HTTP_1_1)
+				.build();
+		List<Endpoint> slots = new ArrayList<>();
+		for (Map.Entry<Endpoint, Integer> e : config.mix.entrySet()) {
+			stats.put(e.getKey(), new Stats());
+			for (int i = 0; i < e.getValue(); i++) {
+				slots.add(e.getKey());
+			}
+		}
+		if (slots.isEmpty()) {
+			throw new IllegalStateException("Request mix has no positive weights");
+		}
+		this.weighted = slots.toArray(new Endpoint[0]);
+	}
+
+	public static void main(String[] args) throws Exception {
+		LoadTestConfig config = LoadTestConfig.load();
+		ConfigurableApplicationContext app = null;
+		try {
+			String baseUrl = config.baseUrl;
+			if (baseUrl.isEmpty()) {
+				app = startApplication(config.profiles);
+				baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+			}
+			LoadTestDriver driver = new LoadTestDriver(config);
+			List<String> violations = driver.run(URI.create(baseUrl));
+			if (!violations.isEmpty()) {
+				throw new IllegalStateException("Load test missed its SLOs:\n  " + String.join("\n  ", violations));
+			}
+		} finally {
+			if (app != null) {
+				app.close();
+			}
+		}
+	}
+
+	private static ConfigurableApplicationContext startApplication(String profiles) {
+		SpringApplication application = new SpringApplication(CodeReviewBackendApplication.class);
+		if (!profiles.isEmpty()) {
+			application.setAdditionalProfiles(profiles.split(","));
+		}
+		return application.run("--server.port=0", "--spring.jpa.show-sql=false");
+	}
+
+	List<String> run(URI base) throws Exception {
+		this.base = base;
+		System.out.printf(Locale.ROOT, "Load test against %s: %d workers, %d corpus files, %s%n",
+				base, config.concurrency, corpus.size(),
+				config.rate > 0 ? String.format(Locale.ROOT, "%.1f req/s", config.rate) : "closed loop");
+
+		long start = System.nanoTime();
+		long measureFrom = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds);
+		long end = measureFrom + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+		ExecutorService workers = newWorkerExecutor(config.concurrency);
+		ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "loadtest-sampler");
+			t.setDaemon(true);
+			return t;
+		});
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		try {
+			for (int w = 0; w < config.concurrency; w++) {
+				long seed = config.seed + w;
+				workers.execute(() -> workerLoop(new Random(seed), start, end));
+			}
+			sleepUntil(measureFrom);
+			threads.resetPeakThreadCount();
+			sampler.scheduleAtFixedRate(
+					() -> peakHeapBytes.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+					0, 100, TimeUnit.MILLISECONDS);
+			recording = true;
+			workers.shutdown();
+			if (!workers.awaitTermination(config.durationSeconds + config.requestTimeoutMillis / 1000 + 60, TimeUnit.SECONDS)) {
+				workers.shutdownNow();
+			}
+		} finally {
+			recording = false;
+			sampler.shutdownNow();
+			workers.shutdownNow();
+		}
+		return report((double) config.durationSeconds, threads.getPeakThreadCount());
+	}
+
+	private void workerLoop(Random random, long start, long end) {
+		// Each worker owns an equal share of the target rate
+		long intervalNanos = config.rate > 0 ? (long) (1e9 * config.concurrency / config.rate) : 0L;
+		long intended = start + (intervalNanos > 0 ? (long) (random.nextDouble() * intervalNanos) : 0L);
+		while (!Thread.currentThread().isInterrupted()) {
+			if (intervalNanos > 0) {
+				if (!sleepUntil(intended)) {
+					return;
+				}
+			} else {
+				intended = System.nanoTime();
+			}
+			if (intended >= end) {
+				return;
+			}
+			Endpoint endpoint = weighted[random.nextInt(weighted.length)];
+			boolean measured = recording;
+			int status;
+			try {
+				status = client.send(request(endpoint, random), HttpResponse.BodyHandlers.discarding()).statusCode();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Exception e) {
+				status = -1;
+			}
+			if (measured) {
+				record(endpoint, status, System.nanoTime() - intended);
+			}
+			intended += intervalNanos;
+		}
+	}
+
+	private void record(Endpoint endpoint, int status, long latencyNanos) {
+		Stats s = stats.get(endpoint);
+		s.latency.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(1L, latencyNanos / 1000)));
+		if (status >= 200 && status < 300) {
+			s.ok.incrementAndGet();
+		} else if (status == 429 || status == 503) {
+			// Load shedding by admission control: counted, but not as a failure
+			s.rejected.incrementAndGet();
+		} else {
+			s.errors.incrementAndGet();
+		}
+	}
+
+	private HttpRequest request(Endpoint endpoint, Random random) throws Exception {
+		HttpRequest.Builder b = HttpRequest.newBuilder().timeout(Duration.ofMillis(config.requestTimeoutMillis));
+		switch (endpoint) {
+			case ANALYZE: {
+				Corpus.Entry entry = corpus.pick(random);
+				Map<String, String> body = new LinkedHashMap<>();
+				body.put("filename", entry.filename);
+				body.put("code", entry.code);
+				return b.uri(base.resolve("/api/analyze"))
+						.header("Content-Type", "application/json")
+						.POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body)))
+						.build();
+			}
+			case UPLOAD: {
+				Corpus.Entry entry = corpus.pick(random);
+				String boundary = "loadtest" + Long.toHexString(random.nextLong());
+				return b.uri(base.resolve("/api/analyze/upload"))
+						.header("Content-Type", "multipart/form-data; boundary=" + boundary)
+						.POST(HttpRequest.BodyPublishers.ofByteArray(multipart(boundary, entry)))
+						.build();
+			}
+			case REVIEWS:
+				return b.uri(base.resolve("/api/reviews")).GET().build();
+			case DASHBOARD:
+				return b.uri(base.resolve("/api/dashboard/summary")).GET().build();
+			default:
+				throw new IllegalArgumentException(endpoint.name());
+		}
+	}
+
+	private static byte[] multipart(String boundary, Corpus.Entry entry) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(entry.code.length() + 256);
+		String head = "--" + boundary + "\r\n"
+				+ "Content-Disposition: form-data; name=\"file\"; filename=\"" + entry.filename + "\"\r\n"
+				+ "Content-Type: text/x-java-source\r\n\r\n";
+		out.writeBytes(head.getBytes(StandardCharsets.UTF_8));
+		out.writeBytes(entry.code.getBytes(StandardCharsets.UTF_8));
+		out.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+		return out.toByteArray();
+	}
+
+	private List<String> report(double seconds, int peakThreads) throws Exception {
+		StringBuilder sb = new StringBuilder();
+		List<String> violations = new ArrayList<>();
+		Histogram all = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+		long ok = 0, rejected = 0, errors = 0;
+
+		sb.append(String.format(Locale.ROOT, "%-10s %8s %9s %8s %8s %9s %9s %9s %9s %9s%n",
+				"endpoint", "requests", "req/s", "rejected", "errors", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms"));
+		for (Map.Entry<Endpoint, Stats> e : stats.entrySet()) {
+			Stats s = e.getValue();
+			all.add(s.latency);
+			ok += s.ok.get();
+			rejected += s.rejected.get();
+			errors += s.errors.get();
+			appendRow(sb, e.getKey().key, s.total(), seconds, s.rejected.get(), s.errors.get(), s.latency);
+			if (s.total() > 0) {
+				checkLatency(violations, e.getKey(), s.latency);
+			}
+		}
+		long total = ok + rejected + errors;
+		appendRow(sb, "all", total, seconds, rejected, errors, all);
+
+		double throughput = ok / seconds;
+		double errorRate = total == 0 ? 0 : (double) errors / total;
+		if (total == 0) {
+			violations.add("no requests completed");
+		}
+		if (config.sloMinThroughput > 0 && throughput < config.sloMinThroughput) {
+			violations.add(String.format(Locale.ROOT, "throughput %.1f req/s < %.1f", throughput, config.sloMinThroughput));
+		}
+		if (errorRate > config.sloMaxErrorRate) {
+			violations.add(String.format(Locale.ROOT, "error rate %.4f > %.4f", errorRate, config.sloMaxErrorRate));
+		}
+		sb.append(String.format(Locale.ROOT, "peak heap used %.1f MB, peak live threads %d (%s)%n",
+				peakHeapBytes.get() / (1024.0 * 1024.0), peakThreads,
+				config.baseUrl.isEmpty() ? "server and driver" : "driver only"));
+		sb.append(violations.isEmpty() ? "SLOs met\n" : "SLO violations:\n  " + String.join("\n  ", violations) + "\n");
+
+		System.out.print(sb);
+		if (!config.reportFile.isEmpty()) {
+			Path file = Path.of(config.reportFile);
+			if (file.getParent() != null) {
+				Files.createDirectories(file.getParent());
+			}
+			Files.writeString(file, sb.toString(), StandardCharsets.UTF_8);
+		}
+		return violations;
+	}
+
+	private void checkLatency(List<String> violations, Endpoint endpoint, Histogram h) {
+		LoadTestConfig.Slo slo = config.slos.get(endpoint);
+		check(violations, endpoint, "p50", millis(h, 50.0), slo.p50Millis);
+		check(violations, endpoint, "p95", millis(h, 95.0), slo.p95Millis);
+		check(violations, endpoint, "p99", millis(h, 99.0), slo.p99Millis);
+		check(violations, endpoint, "p99.9", millis(h, 99.9), slo.p999Millis);
+	}
+
+	private static void check(List<String> violations, Endpoint endpoint, String label, double actual, double limit) {
+		if (limit > 0 && actual > limit) {
+			violations.add(String.format(Locale.ROOT, "%s %s %.1f ms > %.1f ms", endpoint.key, label, actual, limit));
+		}
+	}
+
+	private static void appendRow(StringBuilder sb, String name, long requests, double seconds,
+								  long rejected, long errors, Histogram h) {
+		sb.append(String.format(Locale.ROOT, "%-10s %8d %9.1f %8d %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+				name, requests, requests / seconds, rejected, errors,
+				millis(h, 50.0), millis(h, 95.0), millis(h, 99.0), millis(h, 99.9), h.getMaxValue() / 1000.0));
+	}
+
+	private static double millis(Histogram h, double percentile) {
+		return h.getTotalCount() == 0 ? 0 : h.getValueAtPercentile(percentile) / 1000.0;
+	}
+
+	/** Virtual-thread-per-task when the JDK supports it (21+), a fixed pool otherwise. */
+	private static ExecutorService newWorkerExecutor(int concurrency) {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newFixedThreadPool(concurrency);
+		}
+	}
+
+	private static boolean sleepUntil(long deadlineNanos) {
+		long remaining;
+		while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(remaining);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,217 @@
+package com.example.codereview.loadtest;
+
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start benchmark. Launches the packaged application as a child process in each configured
+ * mode and measures, from process launch, the time until the readiness probe is up (ready) and
+ * the time until a first {@code /api/analyze} with a full javac pass has completed.
+ *
+ * <p>Modes: {@code jar} is the plain executable jar, {@code aot} the extracted jar with Spring AOT
+ * enabled and {@code cds} adds the AppCDS archive. The latter two need the {@code fast-start}
+ * build; modes whose artifacts are missing are skipped. Run it with
+ * {@code mvn -Pfast-start,startup-benchmark -DskipTests verify}.
+ *
+ * <p>Settings are {@code startup.*} system properties: {@code runs}, {@code modes}, {@code port},
+ * {@code timeout-seconds}, {@code report-file} and the SLOs {@code slo.ready-ms} and
+ * {@code slo.first-analysis-ms}, which apply to {@code slo.mode} (default {@code cds}).
+ */
+public final class StartupBenchmark {
+
+	private static final String SAMPLE = """
+			public class Warm {
+			    public static void main(String[] args) {
+			        String s = "";
+			        for (int i = 0; i < 10; i++) {
+			            s += i;
+			        }
+			        System.out.println(s);
+			    }
+			}
+			""";
+
+	private final String java = System.getProperty("startup.java",
+			Path.of(System.getProperty("java.home"), "bin", "java").toString());
+	private final Path jar = Path.of(System.getProperty("startup.jar", "target/code-review-backend-0.0.1-SNAPSHOT.jar"));
+	private final Path appDir = Path.of(System.getProperty("startup.app-dir", "target/app"));
+	// Options every start needs, as in the pom's app.jvm-args
+	private final List<String> jvmArgs = Arrays.asList(
+			System.getProperty("startup.jvm-args", "--add-modules=jdk.incubator.vector").trim().split("\\s+"));
+	private final int runs = Integer.getInteger("startup.runs", 3);
+	private final List<String> modes = Arrays.asList(System.getProperty("startup.modes", "jar,aot,cds").split(","));
+	private final int port = Integer.getInteger("startup.port", 18080);
+	private final long timeoutNanos = TimeUnit.SECONDS.toNanos(Long.getLong("startup.timeout-seconds", 120));
+	private final String reportFile = System.getProperty("startup.report-file", "target/startup-benchmark-report.txt");
+	private final String sloMode = System.getProperty("startup.slo.mode", "cds");
+	private final long sloReadyMillis = Long.getLong("startup.slo.ready-ms", 0);
+	private final long sloFirstAnalysisMillis = Long.getLong("startup.slo.first-analysis-ms", 0);
+
+	private final HttpClient client = HttpClient.newBuilder()
+			.connectTimeout(Duration.ofSeconds(1))
+			.version(HttpClient.Version.HTTP_1_1)
+			.build();
+
+	public static void main(String[] args) throws Exception {
+		List<String> violations = new StartupBenchmark().run();
+		if (!violations.isEmpty()) {
+			throw new IllegalStateException("Startup benchmark missed its SLOs:\n  " + String.join("\n  ", violations));
+		}
+	}
+
+	List<String> run() throws Exception {
+		List<String> violations = new ArrayList<>();
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format(Locale.ROOT, "%-6s %10s %10s %10s %16s %16s%n",
+				"mode", "ready p50", "ready min", "ready max", "1st analysis p50", "1st analysis max"));
+		for (String mode : modes) {
+			mode = mode.trim();
+			List<String> command = command(mode);
+			if (command == null) {
+				sb.append(String.format(Locale.ROOT, "%-6s skipped (artifacts missing; build with -Pfast-start)%n", mode));
+				continue;
+			}
+			long[] ready = new long[runs];
+			long[] firstAnalysis = new long[runs];
+			for (int r = 0; r < runs; r++) {
+				long[] sample = measure(command, Path.of("target", "startup-" + mode + "-" + r + ".log"));
+				ready[r] = sample[0];
+				firstAnalysis[r] = sample[1];
+				System.out.printf(Locale.ROOT, "%s run %d: ready %d ms, first analysis %d ms%n", mode, r + 1, ready[r], firstAnalysis[r]);
+			}
+			Arrays.sort(ready);
+			Arrays.sort(firstAnalysis);
+			long readyP50 = ready[runs / 2];
+			long firstP50 = firstAnalysis[runs / 2];
+			sb.append(String.format(Locale.ROOT, "%-6s %8d ms %8d ms %8d ms %13d ms %13d ms%n",
+					mode, readyP50, ready[0], ready[runs - 1], firstP50, firstAnalysis[runs - 1]));
+			if (mode.equals(sloMode)) {
+				if (sloReadyMillis > 0 && readyP50 > sloReadyMillis) {
+					violations.add(String.format(Locale.ROOT, "%s: ready p50 %d ms > %d ms", mode, readyP50, sloReadyMillis));
+				}
+				if (sloFirstAnalysisMillis > 0 && firstP50 > sloFirstAnalysisMillis) {
+					violations.add(String.format(Locale.ROOT, "%s: first analysis p50 %d ms > %d ms",
+							mode, firstP50, sloFirstAnalysisMillis));
+				}
+			}
+		}
+		System.out.print(sb);
+		if (!reportFile.isEmpty()) {
+			Path file = Path.of(reportFile);
+			if (file.getParent() != null) {
+				Files.createDirectories(file.getParent());
+			}
+			Files.writeString(file, sb.toString(), StandardCharsets.UTF_8);
+		}
+		return violations;
+	}
+
+	private List<String> command(String mode) {
+		Path extracted = appDir.resolve(jar.getFileName());
+		Path archive = appDir.resolve("app.jsa");
+		List<String> command = new ArrayList<>();
+		command.add(java);
+		command.addAll(jvmArgs);
+		switch (mode) {
+			case "jar":
+				if (!Files.isRegularFile(jar)) {
+					return null;
+				}
+				command.add("-jar");
+				command.add(jar.toString());
+				break;
+			case "aot":
+				if (!Files.isRegularFile(extracted)) {
+					return null;
+				}
+				command.add("-Dspring.aot.enabled=true");
+				command.add("-jar");
+				command.add(extracted.toString());
+				break;
+			case "cds":
+				if (!Files.isRegularFile(extracted) || !Files.isRegularFile(archive)) {
+					return null;
+				}
+				command.add("-XX:SharedArchiveFile=" + archive);
+				command.add("-Dspring.aot.enabled=true");
+				command.add("-jar");
+				command.add(extracted.toString());
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown startup mode: " + mode);
+		}
+		command.add("--server.port=" + port);
+		command.add("--spring.jpa.show-sql=false");
+		return command;
+	}
+
+	/** Returns {ready millis, first analysis millis}, both measured from process launch. */
+	private long[] measure(List<String> command, Path log) throws Exception {
+		URI base = URI.create("http://localhost:" + port);
+		HttpRequest probe = HttpRequest.newBuilder(base.resolve("/actuator/health/readiness"))
+				.timeout(Duration.ofSeconds(1)).GET().build();
+		String body = new ObjectMapper().writeValueAsString(
+				Map.of("filename", "Warm.java", "compilerTier", "full", "code", SAMPLE));
+		HttpRequest analyze = HttpRequest.newBuilder(base.resolve("/api/analyze"))
+				.timeout(Duration.ofSeconds(60))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body)).build();
+
+		Files.createDirectories(log.toAbsolutePath().getParent());
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(command)
+				.redirectErrorStream(true)
+				.redirectOutput(log.toFile())
+				.start();
+		try {
+			long ready;
+			while (true) {
+				if (!process.isAlive()) {
+					throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+				}
+				if (System.nanoTime() - start > timeoutNanos) {
+					throw new IllegalStateException("Application not ready within timeout, see " + log);
+				}
+				if (ok(probe)) {
+					ready = System.nanoTime() - start;
+					break;
+				}
+				Thread.sleep(10);
+			}
+			HttpResponse<Void> response = client.send(analyze, HttpResponse.BodyHandlers.discarding());
+			if (response.statusCode() != 200) {
+				throw new IllegalStateException("First analysis returned " + response.statusCode() + ", see " + log);
+			}
+			long firstAnalysis = System.nanoTime() - start;
+			return new long[] { TimeUnit.NANOSECONDS.toMillis(ready), TimeUnit.NANOSECONDS.toMillis(firstAnalysis) };
+		} finally {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly().waitFor();
+			}
+		}
+	}
+
+	private boolean ok(HttpRequest probe) throws InterruptedException {
+		try {
+			return client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+}
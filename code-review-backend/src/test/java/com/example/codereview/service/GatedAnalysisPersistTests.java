@@ -0,0 +1,55 @@
+package com.example.codereview.service;
+
+import com.example.codereview.dto.AnalyzeRequest;
+import com.example.codereview.dto.AnalyzeResponse;
+import com.example.codereview.dto.ReviewSummaryResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class GatedAnalysisPersistTests {
+
+	private static final String CODE = "public class A {\n"
+			+ "    // TODO one\n"
+			+ "    void a() { System.out.println(\"x\"); }\n"
+			+ "    void b() { try { a(); } catch (Exception e) { } }\n"
+			+ "}\n";
+
+	@Autowired
+	private CodeAnalysisService analysisService;
+
+	@Autowired
+	private ReviewQueryService reviewQueryService;
+
+	@Test
+	void reviewSavedFromAGateThatStoppedEarlyIsMarkedPartial() {
+		AnalyzeResponse response = analysisService.analyze(request("severity>=LOW"));
+		assertFalse(response.getGate().isPassed());
+
+		assertTrue(reviewQueryService.findDetail(response.getReviewId()).orElseThrow().isPartial());
+		ReviewSummaryResponse summary = reviewQueryService.listSummaries().stream()
+				.filter(s -> s.getId().equals(response.getReviewId())).findFirst().orElseThrow();
+		assertTrue(summary.isPartial());
+	}
+
+	@Test
+	void reviewSavedFromAGateThatRanEveryCheckIsComplete() {
+		AnalyzeResponse response = analysisService.analyze(request("count>=100000"));
+		assertTrue(response.getGate().isPassed());
+		assertFalse(reviewQueryService.findDetail(response.getReviewId()).orElseThrow().isPartial());
+	}
+
+	private static AnalyzeRequest request(String gate) {
+		AnalyzeRequest request = new AnalyzeRequest();
+		request.setFilename("A.java");
+		request.setCode(CODE);
+		request.setCompilerTier("none");
+		request.setGate(gate);
+		request.setPersist(true);
+		return request;
+	}
+}
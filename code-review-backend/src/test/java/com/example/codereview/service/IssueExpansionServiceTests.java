@@ -0,0 +1,61 @@
+package com.example.codereview.service;
+
+import com.example.codereview.dto.AnalyzeRequest;
+import com.example.codereview.dto.AnalyzeResponse;
+import com.example.codereview.dto.IssueDto;
+import com.example.codereview.dto.IssueOccurrencesResponse;
+import com.example.codereview.repository.CodeReviewRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class IssueExpansionServiceTests {
+
+	@Autowired
+	private CodeAnalysisService analysisService;
+
+	@Autowired
+	private ReviewQueryService reviewQueryService;
+
+	@Autowired
+	private IssueExpansionService expansionService;
+
+	@Autowired
+	private CodeReviewRepository reviewRepository;
+
+	@Test
+	void compilerIssuesAreExpandedWithTheTierTheReviewWasAnalyzedWith() {
+		StringBuilder code = new StringBuilder("public class A {\n");
+		for (int i = 0; i < 12; i++) {
+			code.append("    void m").append(i).append("() { missing(); }\n");
+		}
+		code.append("}\n");
+		AnalyzeResponse response = analysisService.analyze(request(code.toString(), "full"));
+		Long reviewId = response.getReviewId();
+		assertEquals("FULL", reviewRepository.findById(reviewId).orElseThrow().getCompilerTier());
+
+		IssueDto aggregate = reviewQueryService.findDetail(reviewId).orElseThrow().getIssues().stream()
+				.filter(issue -> issue.getOccurrences() != null).findFirst().orElseThrow();
+		assertEquals(12, aggregate.getOccurrences());
+		IssueOccurrencesResponse expanded = expansionService.occurrences(reviewId, aggregate.getId(), 0, 100).orElseThrow();
+		assertEquals(12, expanded.getTotal());
+		assertEquals(2, expanded.getIssues().get(0).getLineNumber());
+	}
+
+	@Test
+	void theCompilerTierIsStoredWithTheReview() {
+		AnalyzeResponse response = analysisService.analyze(request("public class B {}\n", "syntax"));
+		assertEquals("SYNTAX", reviewRepository.findById(response.getReviewId()).orElseThrow().getCompilerTier());
+	}
+
+	private static AnalyzeRequest request(String code, String tier) {
+		AnalyzeRequest request = new AnalyzeRequest();
+		request.setFilename("A.java");
+		request.setCode(code);
+		request.setCompilerTier(tier);
+		return request;
+	}
+}
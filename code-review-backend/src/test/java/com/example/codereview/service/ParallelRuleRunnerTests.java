@@ -0,0 +1,76 @@
+package com.example.codereview.service;
+
+import com.example.codereview.service.gate.RuleCostModel;
+import com.example.codereview.service.rules.AnalysisContext;
+import com.example.codereview.service.rules.AnalysisRule;
+import com.example.codereview.service.rules.IssueSink;
+import com.example.codereview.service.rules.RuleRegistry;
+import com.example.codereview.service.rules.RuleResultCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelRuleRunnerTests {
+
+	private static final String TODO = "To do comment search";
+	private static final String CONSOLE = "console-logging";
+
+	private final AnalysisExecutors executors = new AnalysisExecutors(2, 16, 4, false);
+	private final ParallelRuleRunner runner = new ParallelRuleRunner(executors, new RuleResultCache(1000),
+			new RuleCostModel(), 10, 5);
+
+	@AfterEach
+	void shutdown() {
+		executors.shutdown();
+	}
+
+	@Test
+	void blockLocalRulesAreReportedOnceWithTheirTimeSummedOverChunks() {
+		StringBuilder code = new StringBuilder("class A {\n");
+		for (int i = 0; i < 200; i++) {
+			code.append("    void m").append(i).append("() {\n")
+					.append("        // TODO item ").append(i).append('\n')
+					.append("        System.out.println(").append(i).append(");\n")
+					.append("    }\n");
+		}
+		code.append("}\n");
+		AnalysisContext context = new AnalysisContext(null, code.toString());
+		RuleRegistry registry = new RuleRegistry();
+		List<AnalysisRule> rules = List.of(registry.findRule(TODO).orElseThrow(),
+				registry.findRule(CONSOLE).orElseThrow());
+		assertTrue(runner.appliesTo(context));
+
+		RecordingListener listener = new RecordingListener();
+		IssueSink sink = runner.run(context, rules, listener);
+
+		assertEquals(400, sink.size());
+		assertEquals(List.of(), listener.started);
+		assertEquals(List.of(TODO, CONSOLE), new ArrayList<>(listener.nanos.keySet()));
+		for (long nanos : listener.nanos.values()) assertTrue(nanos > 0);
+		assertEquals(200, listener.issues.get(TODO));
+	}
+
+	private static final class RecordingListener implements AnalysisListener {
+		final List<String> started = new ArrayList<>();
+		final Map<String, Long> nanos = new LinkedHashMap<>();
+		final Map<String, Integer> issues = new LinkedHashMap<>();
+
+		@Override
+		public void ruleStarted(String ruleName) {
+			started.add(ruleName);
+		}
+
+		@Override
+		public void ruleCompleted(String ruleName, int issueCount, long ruleNanos) {
+			nanos.put(ruleName, ruleNanos);
+			issues.put(ruleName, issueCount);
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package com.example.codereview.service.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTests {
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(5_000);
+
+	@Test
+	void limitGrowsAdditivelyOnlyWhileSaturated() throws InterruptedException {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0, 0, 1_000);
+		// one request in flight out of two: the limit is not the bottleneck
+		limiter.acquire();
+		limiter.release(FAST, false);
+		assertEquals(2, limiter.getLimit());
+
+		// saturated windows add about one slot per window (1/limit per completion)
+		for (int i = 0; i < 4; i++) {
+			fill(limiter);
+			limiter.release(FAST, false);
+			drain(limiter);
+		}
+		assertEquals(3, limiter.getLimit());
+	}
+
+	@Test
+	void latencyOvershootAndOverloadCutTheLimitMultiplicatively() throws InterruptedException {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 64, 0, 0, 1_000);
+		limiter.acquire();
+		limiter.release(SLOW, false);
+		assertEquals(18, limiter.getLimit());
+		limiter.acquire();
+		limiter.release(FAST, true);
+		assertEquals(16, limiter.getLimit());
+		for (int i = 0; i < 100; i++) {
+			limiter.acquire();
+			limiter.release(SLOW, false);
+		}
+		assertEquals(2, limiter.getLimit());
+	}
+
+	@Test
+	void callersBeyondTheQueueAreRejectedImmediately() throws InterruptedException {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0, 10_000, 1_000);
+		assertEquals(AdaptiveConcurrencyLimiter.Outcome.ACQUIRED, limiter.acquire());
+		long start = System.nanoTime();
+		assertEquals(AdaptiveConcurrencyLimiter.Outcome.QUEUE_FULL, limiter.acquire());
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+	}
+
+	@Test
+	void queuedCallersTimeOutOrTakeAFreedSlot() throws InterruptedException {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1, 50, 1_000);
+		limiter.acquire();
+		assertEquals(AdaptiveConcurrencyLimiter.Outcome.TIMED_OUT, limiter.acquire());
+
+		AdaptiveConcurrencyLimiter patient = new AdaptiveConcurrencyLimiter(1, 1, 1, 1, 5_000, 1_000);
+		patient.acquire();
+		Thread releaser = new Thread(() -> {
+			sleep(50);
+			patient.release(FAST, false);
+		});
+		releaser.start();
+		assertEquals(AdaptiveConcurrencyLimiter.Outcome.ACQUIRED, patient.acquire());
+		releaser.join();
+		assertEquals(1, patient.getInFlight());
+	}
+
+	@Test
+	void retryAfterScalesWithLatencyAndStaysBounded() throws InterruptedException {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0, 0, 100_000);
+		assertEquals(1, limiter.suggestedRetryAfterSeconds());
+		limiter.acquire();
+		limiter.release(TimeUnit.SECONDS.toNanos(3), false);
+		assertEquals(3, limiter.suggestedRetryAfterSeconds());
+		limiter.acquire();
+		limiter.release(TimeUnit.SECONDS.toNanos(1_000), false);
+		assertEquals(60, limiter.suggestedRetryAfterSeconds());
+	}
+
+	private static void fill(AdaptiveConcurrencyLimiter limiter) throws InterruptedException {
+		while (limiter.getInFlight() < limiter.getLimit()) {
+			limiter.acquire();
+		}
+	}
+
+	private static void drain(AdaptiveConcurrencyLimiter limiter) {
+		while (limiter.getInFlight() > 0) {
+			limiter.releaseNeutral();
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
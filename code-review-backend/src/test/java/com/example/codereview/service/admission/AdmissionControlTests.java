@@ -0,0 +1,102 @@
+package com.example.codereview.service.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlTests {
+
+	private final AdmissionControl admission = new AdmissionControl(1 << 20, 50_000, 2_000,
+			8, 64, 32, 1_000, 2, 16, 64, 10_000);
+
+	@Test
+	void cancelledWorkDoesNotShrinkTheLimit() {
+		AdaptiveConcurrencyLimiter limiter = admission.getLimiter(AdmissionLane.INTERACTIVE);
+		for (int i = 0; i < 20; i++) {
+			assertThrows(CancellationException.class, () -> admission.admit(AdmissionLane.INTERACTIVE, "x",
+					() -> { throw new CancellationException("superseded"); }));
+		}
+		assertEquals(8, limiter.getLimit());
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	@Test
+	void interruptedWorkDoesNotShrinkTheLimit() {
+		AdaptiveConcurrencyLimiter limiter = admission.getLimiter(AdmissionLane.INTERACTIVE);
+		try {
+			assertThrows(IllegalStateException.class, () -> admission.admit(AdmissionLane.INTERACTIVE, "x", () -> {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("javac interrupted");
+			}));
+			assertTrue(Thread.currentThread().isInterrupted());
+		} finally {
+			Thread.interrupted();
+		}
+		assertEquals(8, limiter.getLimit());
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	@Test
+	void invalidInputDoesNotShrinkTheLimitButOverloadDoes() {
+		AdaptiveConcurrencyLimiter limiter = admission.getLimiter(AdmissionLane.INTERACTIVE);
+		for (int i = 0; i < 20; i++) {
+			assertThrows(IllegalArgumentException.class, () -> admission.admit(AdmissionLane.INTERACTIVE, "x",
+					() -> { throw new IllegalArgumentException("bad gate"); }));
+		}
+		assertEquals(8, limiter.getLimit());
+
+		assertThrows(RejectedExecutionException.class, () -> admission.admit(AdmissionLane.INTERACTIVE, "x",
+				() -> { throw new RejectedExecutionException("pool full"); }));
+		assertEquals(7, limiter.getLimit());
+	}
+
+	@Test
+	void saturatedLanesAnswer429Or503WithRetryAfter() throws InterruptedException {
+		// batch lane: one slot, no queue for the first case
+		AdmissionControl tight = new AdmissionControl(1 << 20, 50_000, 2_000, 1, 1, 0, 1_000, 1, 1, 1, 50);
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch finish = new CountDownLatch(1);
+		Thread holder = new Thread(() -> tight.admit(AdmissionLane.INTERACTIVE, "x", () -> {
+			running.countDown();
+			await(finish);
+			return null;
+		}));
+		Thread batchHolder = new Thread(() -> tight.admit(AdmissionLane.BATCH, "x", () -> {
+			await(finish);
+			return null;
+		}));
+		holder.start();
+		batchHolder.start();
+		running.await();
+		while (tight.getLimiter(AdmissionLane.BATCH).getInFlight() == 0) Thread.onSpinWait();
+
+		AdmissionRejectedException queueFull = assertThrows(AdmissionRejectedException.class,
+				() -> tight.admit(AdmissionLane.INTERACTIVE, "x", () -> null));
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, queueFull.getStatus());
+		assertTrue(queueFull.getRetryAfterSeconds() >= 1);
+
+		AdmissionRejectedException timedOut = assertThrows(AdmissionRejectedException.class,
+				() -> tight.admit(AdmissionLane.BATCH, "x", () -> null));
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, timedOut.getStatus());
+		assertTrue(timedOut.getRetryAfterSeconds() >= 1);
+
+		finish.countDown();
+		holder.join();
+		batchHolder.join();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.example.codereview.service.compiler;
+
+import com.example.codereview.service.source.SourceText;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JavaCompilerDiagnosticsTests {
+
+	// Parses cleanly, fails attribution
+	private static final String UNRESOLVED = "public class A {\n    void a() { missing(); }\n}\n";
+	// Fails to parse on line 2, would also fail attribution on line 3
+	private static final String BROKEN = "public class A {\n    void a() { int x = ; }\n    void b() { missing(); }\n}\n";
+
+	private final JavaCompilerDiagnostics compiler = new JavaCompilerDiagnostics();
+
+	@Test
+	void theTierIsSelectedFromTheRequestAndDefaultsToFull() {
+		assertEquals(CompilerTier.SYNTAX, CompilerTier.fromRequest("syntax"));
+		assertEquals(CompilerTier.NONE, CompilerTier.fromRequest(" None "));
+		assertEquals(CompilerTier.FULL, CompilerTier.fromRequest(null));
+		assertEquals(CompilerTier.FULL, CompilerTier.fromRequest("attribute"));
+	}
+
+	@Test
+	void noneRunsNoCompiler() {
+		assertTrue(compiler.compile("A.java", SourceText.of(BROKEN), CompilerTier.NONE).isEmpty());
+	}
+
+	@Test
+	void syntaxReportsParseErrorsOnly() {
+		assertTrue(compiler.compile("A.java", SourceText.of(UNRESOLVED), CompilerTier.SYNTAX).isEmpty());
+		assertEquals(List.of(2), lines(compiler.compile("A.java", SourceText.of(BROKEN), CompilerTier.SYNTAX)));
+	}
+
+	@Test
+	void fullAttributesOnlyWhenTheParseIsClean() {
+		assertEquals(List.of(2), lines(compiler.compile("A.java", SourceText.of(UNRESOLVED), CompilerTier.FULL)));
+		assertEquals(List.of(2), lines(compiler.compile("A.java", SourceText.of(BROKEN), CompilerTier.FULL)));
+	}
+
+	@Test
+	void syntaxErrorsComeBackWithinTheInteractiveLatencyTarget() {
+		SourceText source = SourceText.of(BROKEN);
+		long best = Long.MAX_VALUE;
+		// The first runs load javac; the target applies to a warm compiler
+		for (int i = 0; i < 20; i++) {
+			long start = System.nanoTime();
+			compiler.compile("A.java", source, CompilerTier.SYNTAX);
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		assertTrue(best < 50_000_000L, "syntax tier took " + best / 1_000_000 + " ms");
+	}
+
+	private static List<Integer> lines(List<CompileDiagnostic> diagnostics) {
+		return diagnostics.stream().map(CompileDiagnostic::getLineNumber).distinct().toList();
+	}
+}
@@ -0,0 +1,58 @@
+package com.example.codereview.service.compiler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProjectCompilationCacheTests {
+
+	private final Path sourcepath = Path.of("/tmp/sourcepath-test").toAbsolutePath();
+
+	@Test
+	void cleanFilesAreLaidOutByPackage() throws IOException {
+		assertEquals(sourcepath.resolve("com/example/A.java"),
+				ProjectCompilationCache.sourcepathTarget(sourcepath, "com.example", "src/main/java/com/example/A.java"));
+		assertEquals(sourcepath.resolve("package-info.java"),
+				ProjectCompilationCache.sourcepathTarget(sourcepath, "", "package-info.java"));
+	}
+
+	@Test
+	void packageNamesThatLeaveTheSourcepathAreRejected() {
+		assertEquals("", SourceDependencies.packageName("package .tmp.pwned;\nclass A {}"));
+		assertEquals("", SourceDependencies.packageName("package a..b;\nclass A {}"));
+		assertThrows(IOException.class,
+				() -> ProjectCompilationCache.sourcepathTarget(sourcepath, ".tmp.pwned", "A.java"));
+	}
+
+	@Test
+	void fileNamesMustBeBareJavaFiles() {
+		assertThrows(IOException.class, () -> ProjectCompilationCache.sourcepathTarget(sourcepath, "a", "x/../../A.sh"));
+		assertThrows(IOException.class, () -> ProjectCompilationCache.sourcepathTarget(sourcepath, "a", "..\\..\\A.java.sh"));
+		assertThrows(IOException.class, () -> ProjectCompilationCache.sourcepathTarget(sourcepath, "a", ".java"));
+	}
+
+	@Test
+	void stateIsPersistedAsJsonAndReusedIncrementally(@TempDir Path dir) throws IOException {
+		ProjectCompilationCache cache = new ProjectCompilationCache(new JavaCompilerDiagnostics(), dir.toString());
+		InMemoryJavaSource a = new InMemoryJavaSource("p/A.java", "package p; public class A { int x; }");
+		InMemoryJavaSource b = new InMemoryJavaSource("p/B.java", "package p; public class B { }");
+		assertEquals(2, cache.compile("demo", List.of(a, b), List.of()).getCompiledPaths().size());
+
+		try (var files = Files.list(dir)) {
+			assertTrue(files.allMatch(f -> f.getFileName().toString().endsWith(".json")));
+		}
+		InMemoryJavaSource b2 = new InMemoryJavaSource("p/B.java", "package p; public class B { int y; }");
+		// a fresh instance reads the stored state back: only the edited file is attributed again
+		ProjectCompilationCache reloaded = new ProjectCompilationCache(new JavaCompilerDiagnostics(), dir.toString());
+		assertEquals(Set.of("p/B.java"), reloaded.compile("demo", List.of(a, b2), List.of()).getCompiledPaths());
+	}
+}
@@ -0,0 +1,48 @@
+package com.example.codereview.service.export;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReviewExportCacheTests {
+
+	@TempDir
+	Path parent;
+
+	@Test
+	void instancesSharingADirectoryKeepTheirExportsApart() throws IOException {
+		Path unrelated = Files.writeString(parent.resolve("keep.txt"), "not ours");
+		ReviewExportCache first = new ReviewExportCache(parent.toString(), 10);
+		ReviewExportCache second = new ReviewExportCache(parent.toString(), 10);
+
+		Path a = first.get(1, "html", () -> "first instance");
+		Path b = second.get(1, "html", () -> "second instance");
+		assertNotEquals(a, b);
+		assertEquals("first instance", Files.readString(first.get(1, "html", () -> "rendered again")));
+		assertEquals("second instance", Files.readString(b));
+
+		first.close();
+		assertFalse(Files.exists(a));
+		assertTrue(Files.exists(b));
+		assertTrue(Files.exists(unrelated));
+		second.close();
+	}
+
+	@Test
+	void oldestExportsAreEvictedBeyondTheLimit() throws IOException {
+		ReviewExportCache cache = new ReviewExportCache(parent.toString(), 2);
+		Path oldest = cache.get(1, "txt", () -> "1");
+		cache.get(2, "txt", () -> "2");
+		cache.get(3, "txt", () -> "3");
+		assertFalse(Files.exists(oldest));
+		cache.close();
+	}
+}
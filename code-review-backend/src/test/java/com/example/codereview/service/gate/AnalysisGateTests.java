@@ -0,0 +1,52 @@
+package com.example.codereview.service.gate;
+
+import com.example.codereview.model.IssueCategory;
+import com.example.codereview.model.Severity;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalysisGateTests {
+
+	@Test
+	void severityBoundIsInclusiveFromTheMostSevere() {
+		AnalysisGate gate = AnalysisGate.parse("severity>=MEDIUM count>=3");
+		assertEquals(3, gate.getThreshold());
+		assertTrue(gate.counts(IssueCategory.WARNING, Severity.HIGH));
+		assertTrue(gate.counts(IssueCategory.WARNING, Severity.MEDIUM));
+		assertFalse(gate.counts(IssueCategory.WARNING, Severity.LOW));
+		assertFalse(gate.countsAny(Set.of(Severity.LOW)));
+		assertTrue(gate.countsCompileErrors());
+	}
+
+	@Test
+	void categoriesAndStrictCount() {
+		AnalysisGate gate = AnalysisGate.parse(" category = security,optimization  count>2 ");
+		assertEquals(3, gate.getThreshold());
+		assertTrue(gate.counts(IssueCategory.SECURITY, Severity.LOW));
+		assertFalse(gate.counts(IssueCategory.ERROR, Severity.HIGH));
+		assertFalse(gate.countsCompileErrors());
+	}
+
+	@Test
+	void blankExpressionFailsOnAnyIssue() {
+		AnalysisGate gate = AnalysisGate.parse("");
+		assertEquals(1, gate.getThreshold());
+		assertTrue(gate.counts(IssueCategory.WARNING, Severity.LOW));
+	}
+
+	@Test
+	void malformedExpressionsAreRejected() {
+		assertThrows(InvalidGateException.class, () -> AnalysisGate.parse("severity>=URGENT"));
+		assertThrows(InvalidGateException.class, () -> AnalysisGate.parse("count=2"));
+		assertThrows(InvalidGateException.class, () -> AnalysisGate.parse("count>=0"));
+		assertThrows(InvalidGateException.class, () -> AnalysisGate.parse("severity>HIGH"));
+		assertThrows(InvalidGateException.class, () -> AnalysisGate.parse("lines>=5"));
+		assertThrows(InvalidGateException.class, () -> AnalysisGate.parse("severity>=HIGH && count>=1"));
+	}
+}
@@ -0,0 +1,208 @@
+package com.example.codereview.service.jobs;
+
+import com.example.codereview.dto.AnalyzeRequest;
+import com.example.codereview.dto.AnalyzeResponse;
+import com.example.codereview.service.AnalysisListener;
+import com.example.codereview.service.AnalysisPhase;
+import com.example.codereview.service.CodeAnalysisService;
+import com.example.codereview.service.admission.AdmissionRejectedException;
+import com.example.codereview.service.rules.RuleRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalysisJobServiceTests {
+
+	private final StubAnalysisService analysis = new StubAnalysisService();
+	private AnalysisJobService service;
+
+	@AfterEach
+	void shutdown() {
+		if (service != null) service.shutdown();
+	}
+
+	@Test
+	void submissionsBeyondTheQueueCapacityAreRejectedWith429() throws Exception {
+		service = new AnalysisJobService(analysis, new RuleRegistry(), 1, 2, 100);
+		AnalysisJob running = service.submit(request("running"), 0);
+		assertTrue(analysis.started.await(5, TimeUnit.SECONDS));
+
+		service.submit(request("a"), 0);
+		service.submit(request("b"), 0);
+		AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+				() -> service.submit(request("c"), 0));
+		assertEquals(429, e.getStatus().value());
+
+		analysis.release.countDown();
+		awaitTerminal(running);
+	}
+
+	@Test
+	void queuedJobsRunByPriorityThenInSubmissionOrder() throws Exception {
+		service = new AnalysisJobService(analysis, new RuleRegistry(), 1, 10, 100);
+		service.submit(request("blocker"), 0);
+		assertTrue(analysis.started.await(5, TimeUnit.SECONDS));
+
+		AnalysisJob low1 = service.submit(request("low-1"), 0);
+		AnalysisJob high = service.submit(request("high"), 5);
+		AnalysisJob low2 = service.submit(request("low-2"), 0);
+		AnalysisJob mid = service.submit(request("mid"), 1);
+		analysis.release.countDown();
+		for (AnalysisJob job : List.of(low1, high, low2, mid)) awaitTerminal(job);
+
+		assertEquals(List.of("blocker", "high", "mid", "low-1", "low-2"), analysis.order);
+	}
+
+	@Test
+	void cancellingAQueuedJobMeansItNeverRuns() throws Exception {
+		service = new AnalysisJobService(analysis, new RuleRegistry(), 1, 10, 100);
+		AnalysisJob blocker = service.submit(request("blocker"), 0);
+		assertTrue(analysis.started.await(5, TimeUnit.SECONDS));
+		AnalysisJob queued = service.submit(request("queued"), 0);
+
+		service.cancel(queued.getId());
+		assertEquals(JobStatus.CANCELLED, queued.getStatus());
+		analysis.release.countDown();
+		awaitTerminal(blocker);
+		AnalysisJob after = service.submit(request("after"), 0);
+		awaitTerminal(after);
+
+		assertEquals(List.of("blocker", "after"), analysis.order);
+		assertEquals(JobStatus.CANCELLED, queued.getStatus());
+	}
+
+	@Test
+	void cancellingARunningJobStopsItBeforeItIsSaved() throws Exception {
+		service = new AnalysisJobService(analysis, new RuleRegistry(), 1, 10, 100);
+		AnalysisJob job = service.submit(request("running"), 0);
+		assertTrue(analysis.started.await(5, TimeUnit.SECONDS));
+
+		service.cancel(job.getId());
+		awaitTerminal(job);
+
+		assertEquals(JobStatus.CANCELLED, job.getStatus());
+		assertEquals(0, analysis.saved.get());
+	}
+
+	@Test
+	void aJobCancelledBeforePersistIsNeverPersisted() {
+		AnalysisJob job = new AnalysisJob("j", 0, 1, request("x"), List.of());
+		assertNotNull(job.start());
+		job.phaseStarted(AnalysisPhase.RULES);
+
+		assertTrue(job.cancel());
+		assertThrows(CancellationException.class, () -> job.phaseStarted(AnalysisPhase.PERSIST));
+		assertEquals(JobStatus.CANCELLED, job.getStatus());
+	}
+
+	@Test
+	void aJobThatStartedPersistingCanNoLongerBeCancelled() {
+		AnalysisJob job = new AnalysisJob("j", 0, 1, request("x"), List.of());
+		assertNotNull(job.start());
+		job.phaseStarted(AnalysisPhase.PERSIST);
+
+		assertFalse(job.cancel());
+		assertEquals(JobStatus.RUNNING, job.getStatus());
+		job.succeed(new AnalyzeResponse());
+		assertEquals(JobStatus.SUCCEEDED, job.getStatus());
+	}
+
+	@Test
+	void finishedJobsReleaseTheirRequest() throws Exception {
+		service = new AnalysisJobService(analysis, new RuleRegistry(), 1, 10, 100);
+		AnalysisJob blocker = service.submit(request("blocker"), 0);
+		assertTrue(analysis.started.await(5, TimeUnit.SECONDS));
+		AnalysisJob queued = service.submit(request("queued"), 0);
+		assertNotNull(queued.getRequest());
+
+		service.cancel(queued.getId());
+		analysis.release.countDown();
+		awaitTerminal(blocker);
+
+		assertNull(queued.getRequest());
+		assertNull(blocker.getRequest());
+	}
+
+	@Test
+	void theEarliestFinishedJobsAreEvictedFirst() throws Exception {
+		analysis.release.countDown();
+		service = new AnalysisJobService(analysis, new RuleRegistry(), 1, 10, 3);
+		AnalysisJob first = service.submit(request("first"), 0);
+		awaitTerminal(first);
+		AnalysisJob second = service.submit(request("second"), 0);
+		awaitTerminal(second);
+		AnalysisJob third = service.submit(request("third"), 0);
+		awaitTerminal(third);
+
+		AnalysisJob fourth = service.submit(request("fourth"), 0);
+		awaitTerminal(fourth);
+		assertTrue(service.find(first.getId()).isEmpty());
+		for (AnalysisJob job : List.of(second, third, fourth)) {
+			assertTrue(service.find(job.getId()).isPresent(), job.getId());
+		}
+
+		service.submit(request("fifth"), 0);
+		assertTrue(service.find(second.getId()).isEmpty());
+		assertTrue(service.find(third.getId()).isPresent());
+	}
+
+	private static AnalyzeRequest request(String filename) {
+		AnalyzeRequest request = new AnalyzeRequest();
+		request.setFilename(filename);
+		request.setCode("class A {}");
+		return request;
+	}
+
+	private static void awaitTerminal(AnalysisJob job) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!job.getStatus().isTerminal()) {
+			if (System.nanoTime() > deadline) throw new AssertionError("job did not finish: " + job.getStatus());
+			Thread.sleep(5);
+		}
+	}
+
+	/**
+	 * Records the order analyses run in; the first one blocks until released, and the
+	 * PERSIST phase counts as a save unless the listener aborts it.
+	 */
+	private static final class StubAnalysisService extends CodeAnalysisService {
+		final List<String> order = new CopyOnWriteArrayList<>();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger saved = new AtomicInteger();
+
+		StubAnalysisService() {
+			super(null, null, null, null, null, null, null, null, null);
+		}
+
+		@Override
+		public AnalyzeResponse analyze(AnalyzeRequest request, AnalysisListener listener) {
+			order.add(request.getFilename());
+			listener.phaseStarted(AnalysisPhase.RULES);
+			if (started.getCount() > 0) {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					// like a rule ignoring the interrupt, carry on to PERSIST
+				}
+			}
+			listener.phaseStarted(AnalysisPhase.PERSIST);
+			saved.incrementAndGet();
+			return new AnalyzeResponse();
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package com.example.codereview.service.live;
+
+import com.example.codereview.dto.AnalyzeResponse;
+import com.example.codereview.dto.IssueDto;
+import com.example.codereview.dto.LiveAnalysisUpdate;
+import com.example.codereview.service.CodeAnalysisService;
+import com.example.codereview.service.admission.AdmissionControl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class LiveAnalysisServiceTests {
+
+	private static final String UNRESOLVED = "public class A {\n    void a() { missing(); }\n}\n";
+
+	@Autowired
+	private CodeAnalysisService analysisService;
+
+	@Autowired
+	private AdmissionControl admissionControl;
+
+	private LiveAnalysisService live;
+
+	@AfterEach
+	void shutdown() {
+		if (live != null) live.shutdown();
+	}
+
+	@Test
+	void aCleanParseIsFollowedByAttributionOfTheSameVersion() throws Exception {
+		live = service(50);
+		Updates updates = new Updates();
+		live.open("A.java", UNRESOLVED, "syntax", 1L, updates);
+
+		LiveAnalysisUpdate parsed = updates.next();
+		assertEquals("SYNTAX", parsed.getCompilerTier());
+		assertEquals(0, compileErrors(parsed));
+
+		LiveAnalysisUpdate attributed = updates.next();
+		assertEquals("FULL", attributed.getCompilerTier());
+		assertEquals(1L, attributed.getVersion());
+		assertEquals(1, compileErrors(attributed));
+		assertEquals(2, attributed.getAdded().get(0).getLineNumber());
+	}
+
+	@Test
+	void anEditBeforeTheAttributionDelaySupersedesIt() throws Exception {
+		live = service(500);
+		Updates updates = new Updates();
+		LiveDocument document = live.open("A.java", UNRESOLVED, "syntax", 1L, updates);
+		assertEquals("SYNTAX", updates.next().getCompilerTier());
+
+		live.replace(document, 2L, "public class A {\n    void a() { }\n}\n");
+		LiveAnalysisUpdate edited = updates.next();
+		assertEquals(2L, edited.getVersion());
+		assertEquals("SYNTAX", edited.getCompilerTier());
+		live.close(document);
+		assertNull(updates.queue.poll(700, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	void syntaxErrorsAreNotFollowedByAttribution() throws Exception {
+		live = service(50);
+		Updates updates = new Updates();
+		live.open("A.java", "public class A {\n    void a() { int x = ; }\n}\n", "syntax", 1L, updates);
+
+		assertEquals(1, compileErrors(updates.next()));
+		assertNull(updates.queue.poll(300, TimeUnit.MILLISECONDS));
+	}
+
+	private LiveAnalysisService service(long attributeAfterMillis) {
+		return new LiveAnalysisService(analysisService, admissionControl, new SimpleMeterRegistry(),
+				0, "syntax", attributeAfterMillis, 1);
+	}
+
+	private static long compileErrors(LiveAnalysisUpdate update) {
+		return update.getAdded().stream()
+				.map(IssueDto::getTitle)
+				.filter(CodeAnalysisService.COMPILE_ERROR_TITLE::equals)
+				.count();
+	}
+
+	private static final class Updates implements LiveDocument.Listener {
+		final BlockingQueue<LiveAnalysisUpdate> queue = new LinkedBlockingQueue<>();
+
+		LiveAnalysisUpdate next() throws InterruptedException {
+			LiveAnalysisUpdate update = queue.poll(10, TimeUnit.SECONDS);
+			assertNotNull(update, "no update published");
+			return update;
+		}
+
+		@Override
+		public void analyzed(LiveAnalysisUpdate update) {
+			queue.add(update);
+		}
+
+		@Override
+		public void saved(long version, AnalyzeResponse review) {
+		}
+
+		@Override
+		public void failed(long version, String message) {
+			throw new AssertionError(message);
+		}
+	}
+}
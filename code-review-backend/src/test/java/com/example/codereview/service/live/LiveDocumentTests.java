@@ -0,0 +1,83 @@
+package com.example.codereview.service.live;
+
+import com.example.codereview.dto.AnalyzeResponse;
+import com.example.codereview.dto.IssueDto;
+import com.example.codereview.dto.LiveAnalysisUpdate;
+import com.example.codereview.dto.LiveTextChange;
+import com.example.codereview.model.IssueCategory;
+import com.example.codereview.model.Severity;
+import com.example.codereview.service.compiler.CompilerTier;
+import com.example.codereview.service.source.LineIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LiveDocumentTests {
+
+	private final LiveDocument document = new LiveDocument("A.java", CompilerTier.NONE, null);
+
+	@Test
+	void issuesKeepTheirIdsWhenEditsMoveThem() {
+		document.replace(1L, "class A {\n// TODO one\n}\n");
+		LiveAnalysisUpdate first = analyze(todo(2));
+		assertEquals(1, first.getAdded().size());
+		long id = first.getAdded().get(0).getId();
+
+		document.apply(2L, List.of(new LiveTextChange(0, 0, "// TODO two\n")));
+		LiveAnalysisUpdate second = analyze(todo(1), todo(3));
+		assertEquals(2L, second.getVersion());
+		assertEquals(1, second.getAdded().size());
+		assertEquals(Map.of(id, 3), second.getMoved());
+		assertTrue(second.getRemoved().isEmpty());
+
+		document.apply(3L, List.of(new LiveTextChange(0, "// TODO two\n".length(), "")));
+		LiveAnalysisUpdate third = analyze(todo(2));
+		assertTrue(third.getAdded().isEmpty());
+		assertEquals(List.of(second.getAdded().get(0).getId()), third.getRemoved());
+		assertEquals(Map.of(id, 2), third.getMoved());
+	}
+
+	@Test
+	void resultsForSupersededTextAreDropped() {
+		document.replace(1L, "class A {}\n");
+		LiveDocument.Snapshot stale = document.snapshot();
+		document.apply(2L, List.of(new LiveTextChange(10, 0, " ")));
+		assertNull(document.diff(stale, LineIndex.of(stale.text), response(), 0));
+	}
+
+	@Test
+	void editsOutsideTheTextLeaveItUnchanged() {
+		document.replace(1L, "abc");
+		assertThrows(IllegalArgumentException.class,
+				() -> document.apply(2L, List.of(new LiveTextChange(1, 1, "x"), new LiveTextChange(3, 5, ""))));
+		assertEquals("abc", document.snapshot().text);
+		assertEquals(1L, document.snapshot().version);
+	}
+
+	private LiveAnalysisUpdate analyze(IssueDto... issues) {
+		LiveDocument.Snapshot snapshot = document.snapshot();
+		return document.diff(snapshot, LineIndex.of(snapshot.text), response(issues), 0);
+	}
+
+	private static AnalyzeResponse response(IssueDto... issues) {
+		AnalyzeResponse response = new AnalyzeResponse();
+		response.setIssues(new ArrayList<>(List.of(issues)));
+		return response;
+	}
+
+	private static IssueDto todo(int line) {
+		IssueDto issue = new IssueDto();
+		issue.setLineNumber(line);
+		issue.setTitle("TODO comment found");
+		issue.setCategory(IssueCategory.WARNING);
+		issue.setSeverity(Severity.LOW);
+		return issue;
+	}
+}
@@ -0,0 +1,85 @@
+package com.example.codereview.service.profile;
+
+import com.example.codereview.dto.AnalysisProfile;
+import com.example.codereview.dto.AnalyzeRequest;
+import com.example.codereview.dto.ProfileSegment;
+import com.example.codereview.service.AnalysisPhase;
+import com.example.codereview.service.CodeAnalysisService;
+import com.example.codereview.service.rules.AnalysisRule;
+import com.example.codereview.service.rules.RuleRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class AnalysisProfilerTests {
+
+	private static final String CODE = "public class Profiled {\n"
+			+ "    // TODO profile me\n"
+			+ "    void a() { System.out.println(\"a\"); }\n"
+			+ "    void b() { try { a(); } catch (Exception e) { } }\n"
+			+ "}\n";
+
+	@Autowired
+	private CodeAnalysisService analysisService;
+
+	@Autowired
+	private RuleRegistry ruleRegistry;
+
+	@Test
+	void aProfiledAnalysisHasOneSegmentPerPhaseAndPerRule() {
+		AnalyzeRequest request = new AnalyzeRequest();
+		request.setFilename("Profiled.java");
+		request.setCode(CODE);
+		request.setCompilerTier("syntax");
+
+		AnalysisProfile profile = analysisService.analyzeProfiled(request, false).getProfile();
+		assertNotNull(profile);
+		assertTrue(profile.getWallMillis() > 0);
+
+		List<String> phases = names(profile, "phase");
+		for (AnalysisPhase phase : AnalysisPhase.values()) {
+			assertEquals(1, phases.stream().filter(phase.name().toLowerCase(Locale.ROOT)::equals).count(),
+					phase + " in " + phases);
+		}
+
+		Set<String> expectedRules = new TreeSet<>();
+		for (AnalysisRule rule : ruleRegistry.getApplicableRules(CODE, new ArrayList<>())) {
+			expectedRules.add(rule.name());
+		}
+		List<String> rules = names(profile, "rule");
+		assertFalse(expectedRules.isEmpty());
+		assertEquals(expectedRules.size(), rules.size(), rules.toString());
+		assertEquals(expectedRules, new TreeSet<>(rules));
+
+		assertTrue(names(profile, "background").contains("javac"));
+
+		for (ProfileSegment segment : profile.getSegments()) {
+			String label = segment.getKind() + " " + segment.getName();
+			assertTrue(segment.getWallMillis() >= 0, label);
+			assertTrue(segment.getCpuMillis() >= 0 || segment.getCpuMillis() == -1, label + " cpu " + segment.getCpuMillis());
+			assertTrue(segment.getAllocatedBytes() >= 0 || segment.getAllocatedBytes() == -1,
+					label + " allocated " + segment.getAllocatedBytes());
+			assertNotNull(segment.getThread(), label);
+		}
+	}
+
+	private static List<String> names(AnalysisProfile profile, String kind) {
+		return profile.getSegments().stream()
+				.filter(s -> kind.equals(s.getKind()))
+				.map(ProfileSegment::getName)
+				.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,73 @@
+package com.example.codereview.service.rules;
+
+import com.example.codereview.model.Issue;
+import com.example.codereview.model.IssueCategory;
+import com.example.codereview.model.Severity;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IssueAggregatorTests {
+
+	private static final IssueTemplate LONG_LINE = IssueTemplate.register("Long line", "Line is long.",
+			"Wrap it.", IssueCategory.WARNING, Severity.LOW);
+
+	private final IssueAggregator aggregator = new IssueAggregator(3, 4, 2);
+
+	@Test
+	void repeatedMessagesBecomeOneRangedIssue() {
+		IssueSink sink = new IssueSink();
+		sink.beginRule("long-lines");
+		for (int line : new int[]{9, 3, 4, 5, 12, 13}) sink.add(line, LONG_LINE);
+		sink.beginRule("todo");
+		sink.add(7, "TODO comment found", "TODO: x", "Resolve it.", IssueCategory.WARNING, Severity.LOW);
+
+		List<Issue> issues = aggregator.toEntities(sink, null);
+		assertEquals(2, issues.size());
+		Issue aggregate = issues.get(0);
+		assertEquals(6, aggregate.getOccurrences());
+		assertEquals(3, aggregate.getLineNumber());
+		assertEquals(13, aggregate.getEndLineNumber());
+		// at most two ranges are kept
+		assertEquals("3-5,9,...", aggregate.getLineRanges());
+		assertEquals("long-lines", aggregate.getRuleName());
+		assertFalse(aggregate.isVariedDetails());
+
+		assertEquals(1, issues.get(1).getOccurrences());
+		assertNull(issues.get(1).getLineRanges());
+		assertEquals("todo", issues.get(1).getRuleName());
+	}
+
+	@Test
+	void rulesOverTheCapAreFoldedByTitle() {
+		IssueSink sink = new IssueSink();
+		sink.beginRule("unused-import");
+		for (int line = 1; line <= 5; line++) {
+			sink.add(line, "Unused import", "import a.B" + line + " is unused", "Remove it.",
+					IssueCategory.WARNING, Severity.LOW);
+		}
+
+		List<Issue> issues = aggregator.toEntities(sink, null);
+		assertEquals(1, issues.size());
+		assertEquals(5, issues.get(0).getOccurrences());
+		assertEquals("1-5", issues.get(0).getLineRanges());
+		assertTrue(issues.get(0).isVariedDetails());
+	}
+
+	@Test
+	void smallResultsAreLeftAlone() {
+		IssueSink sink = new IssueSink();
+		sink.beginRule("long-lines");
+		sink.add(1, LONG_LINE);
+		sink.add(2, LONG_LINE);
+
+		List<Issue> issues = aggregator.toEntities(sink, null);
+		assertEquals(2, issues.size());
+		assertEquals(1, issues.get(0).getOccurrences());
+	}
+}
@@ -0,0 +1,42 @@
+package com.example.codereview.service.rules;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeywordScannerTests {
+
+	@Test
+	void findsOverlappingKeywordsIgnoringCase() {
+		KeywordScanner scanner = new KeywordScanner(List.of("for", "while", "select ", "do"));
+		BitSet found = scanner.scan("String q = \"SELECT * FROM t\"; double d;");
+		assertFalse(found.get(0));
+		assertFalse(found.get(1));
+		assertTrue(found.get(2));
+		assertTrue(found.get(3));
+	}
+
+	@Test
+	void keywordsSharingSuffixesAreAllReported() {
+		KeywordScanner scanner = new KeywordScanner(List.of("apikey", "key", "secret"));
+		BitSet found = scanner.scan("String apiKey = x;");
+		assertEquals(2, found.cardinality());
+		assertFalse(found.get(2));
+	}
+
+	@Test
+	void rulesWithoutKeywordsAreSkipped() {
+		RuleRegistry registry = new RuleRegistry();
+		List<AnalysisRule> skipped = new ArrayList<>();
+		List<AnalysisRule> applicable = registry.getApplicableRules("class A { int x = 1; }", skipped);
+		assertTrue(skipped.stream().anyMatch(r -> r.name().equals("sql-string-concatenation")));
+		assertTrue(applicable.stream().anyMatch(r -> r.name().equals("long-line")));
+		assertEquals(registry.getEnabledRules().size(), applicable.size() + skipped.size());
+	}
+}
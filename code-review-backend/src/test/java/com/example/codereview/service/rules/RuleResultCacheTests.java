@@ -0,0 +1,45 @@
+package com.example.codereview.service.rules;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RuleResultCacheTests {
+
+	private final RuleResultCache cache = new RuleResultCache(100);
+	private final AnalysisRule rule = new TodoRule();
+
+	@Test
+	void identicalBlocksReuseTheirResultAtAnyPosition() {
+		String method = "    void a() {\n        // TODO later\n    }\n";
+		assertEquals(1, run("class A {\n" + method + "}\n").size());
+		long hits = cache.getHits();
+		IssueSink moved = run("class B {\n    int x;\n\n" + method + "}\n");
+		assertEquals(1, moved.size());
+		assertEquals(5, moved.line(0));
+		assertTrue(cache.getHits() > hits);
+	}
+
+	@Test
+	void blocksOfEqualLengthWithDifferentTextAreNotConfused() {
+		assertEquals(1, run("class A {\n    void a() { /* TODO x */ }\n}\n").size());
+		assertEquals(0, run("class A {\n    void a() { /* done x */ }\n}\n").size());
+	}
+
+	@Test
+	void eachBlockIsDigestedOncePerContextAndSharedBetweenRules() {
+		AnalysisContext context = new AnalysisContext(null, "class A {\n    void a() {\n        // TODO a\n    }\n}\n");
+		cache.apply(rule, context, new IssueSink());
+		byte[] digest = context.blockDigest(0);
+		cache.apply(new ConsoleLoggingRule(), context, new IssueSink());
+		assertSame(digest, context.blockDigest(0));
+	}
+
+	private IssueSink run(String code) {
+		IssueSink sink = new IssueSink();
+		cache.apply(rule, new AnalysisContext(null, code), sink);
+		return sink;
+	}
+}
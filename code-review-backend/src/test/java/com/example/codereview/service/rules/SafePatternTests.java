@@ -0,0 +1,47 @@
+package com.example.codereview.service.rules;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SafePatternTests {
+
+	@Test
+	void rulePatternsCompileToTheLinearEngine() {
+		SafePattern p = SafePattern.compile("^(\\s*)(final\\s+)?(?:(?:int|String|var)\\b|[A-Z][A-Za-z0-9_<>\\[\\]?,\\.\\s]+)\\s+(.+?);\\s*$");
+		assertTrue(p.isLinear());
+		SafePattern.Matcher m = p.matcher("    final int count = 0;");
+		assertTrue(m.find());
+		assertEquals("count = 0", m.group(3));
+	}
+
+	@Test
+	void hostileLineIsMatchedInLinearTime() {
+		SafePattern p = SafePattern.compile("^[A-Z][A-Za-z0-9_<>\\[\\]?,\\.\\s]+\\s+(.+?);\\s*$");
+		String hostile = "A" + " b".repeat(50_000);
+		assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertFalse(p.find(hostile)));
+	}
+
+	@Test
+	void backtrackingFallbackGivesUpAfterItsBudget() {
+		// Backreferences are not expressible in RE2, so this runs on java.util.regex
+		SafePattern p = SafePattern.compile("^(a+)+\\1$", 100_000);
+		assertFalse(p.isLinear());
+		assertTrue(p.matches("aaaa"));
+		SafePattern.Matcher m = p.matcher("a".repeat(40) + "b");
+		assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertFalse(m.matches()));
+		assertTrue(m.budgetExceeded());
+	}
+
+	@Test
+	void quotedLiteralsWorkInBothEngines() {
+		String literal = "a.b$c";
+		assertTrue(SafePattern.compile("\\b" + SafePattern.quote(literal) + "\\b").find("x a.b$c y"));
+		assertFalse(SafePattern.compile(SafePattern.quote(literal) + "(?=z)").find("a.bxc z"));
+	}
+}
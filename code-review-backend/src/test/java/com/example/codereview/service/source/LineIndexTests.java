@@ -0,0 +1,38 @@
+package com.example.codereview.service.source;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LineIndexTests {
+
+	@Test
+	void mixedLineEndingsAreStrippedFromLines() {
+		LineIndex index = LineIndex.of("a\r\nbb\nccc\rdddd\r\n");
+		assertEquals(5, index.lineCount());
+		assertEquals("a", index.line(0).toString());
+		assertEquals("bb", index.line(1).toString());
+		assertEquals("ccc", index.line(2).toString());
+		assertEquals("dddd", index.line(3).toString());
+		assertEquals("", index.line(4).toString());
+		assertEquals(4, index.lineLength(3));
+	}
+
+	@Test
+	void emptyCrlfLinesHaveZeroLength() {
+		LineIndex index = LineIndex.of("\r\n\r\nx");
+		assertEquals(3, index.lineCount());
+		assertEquals(0, index.lineLength(0));
+		assertEquals(0, index.lineLength(1));
+		assertEquals("x", index.line(2).toString());
+	}
+
+	@Test
+	void lineOfMapsOffsetsBackToLines() {
+		LineIndex index = LineIndex.of("ab\ncd\nef");
+		assertEquals(0, index.lineOf(0));
+		assertEquals(0, index.lineOf(2));
+		assertEquals(1, index.lineOf(3));
+		assertEquals(2, index.lineOf(7));
+	}
+}
@@ -0,0 +1,60 @@
+package com.example.codereview.service.source;
+
+import com.example.codereview.service.admission.AdmissionRejectedException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProjectSourceLoaderTests {
+
+	private final ProjectSourceLoader loader = new ProjectSourceLoader(10, 1000, 100);
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void classpathJarsOverTheirLimitAreRejectedBeforeAnyIsWritten() throws Exception {
+		List<MultipartFile> jars = List.of(jar("a.jar", 60), jar("b.jar", 60));
+		AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+				() -> loader.spoolClasspath(jars, dir));
+		assertEquals(413, e.getStatus().value());
+		try (var written = Files.list(dir)) {
+			assertEquals(0, written.count());
+		}
+	}
+
+	@Test
+	void classpathJarsWithinTheLimitAreSpooled() throws Exception {
+		assertEquals(2, loader.spoolClasspath(List.of(jar("a.jar", 50), jar("b.jar", 50)), dir).size());
+	}
+
+	@Test
+	void anArchiveEntryThatExpandsPastTheLimitIsRejectedWith413() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+			zip.putNextEntry(new ZipEntry("Big.java"));
+			zip.write(" ".repeat(100_000).getBytes(StandardCharsets.UTF_8));
+			zip.closeEntry();
+		}
+		MockMultipartFile archive = new MockMultipartFile("archive", "p.zip", "application/zip", bytes.toByteArray());
+		AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+				() -> loader.load(null, archive));
+		assertEquals(413, e.getStatus().value());
+	}
+
+	private static MockMultipartFile jar(String name, int size) {
+		return new MockMultipartFile("classpath", name, "application/java-archive", new byte[size]);
+	}
+}
@@ -0,0 +1,101 @@
+package com.example.codereview.service.source;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StructuralIndexTests {
+
+	@Test
+	void bracesInCommentsAndLiteralsDoNotChangeDepth() {
+		String code = "class A {\n"
+				+ "  String s = \"{ \\\" }\"; char c = '{';\n"
+				+ "  // }\n"
+				+ "  /* {\n"
+				+ "  } */ void m() {\n"
+				+ "  }\n"
+				+ "}\n";
+		StructuralIndex index = StructuralIndex.of(code);
+		assertEquals(8, index.lineCount());
+		assertEquals(0, index.depthAtLineStart(0));
+		assertEquals(1, index.depthAtLineStart(1));
+		assertEquals(1, index.depthAtLineStart(4));
+		assertEquals(2, index.depthAtLineStart(5));
+		assertEquals(1, index.depthAtLineStart(6));
+		assertEquals(0, index.depthAtLineStart(7));
+		assertEquals(5, index.openBraces());
+		assertEquals(5, index.closeBraces());
+	}
+
+	@Test
+	void unterminatedLiteralEndsAtLineTerminator() {
+		StructuralIndex index = StructuralIndex.of("a = \"x\\\r\n{\r}\n");
+		assertEquals(4, index.lineCount());
+		assertEquals(0, index.depthAtLineStart(1));
+		assertEquals(1, index.depthAtLineStart(2));
+		assertEquals(0, index.depthAtLineStart(3));
+	}
+
+	@Test
+	void vectorAndScalarScansAgreeOnRandomSource() {
+		String alphabet = "{}\"'/*\\\n\r abc;";
+		Random random = new Random(7);
+		for (int round = 0; round < 200; round++) {
+			StringBuilder sb = new StringBuilder();
+			int length = random.nextInt(600);
+			for (int i = 0; i < length; i++) {
+				sb.append(random.nextInt(10) == 0 ? 'é' : alphabet.charAt(random.nextInt(alphabet.length())));
+			}
+			String text = sb.toString();
+			StructuralIndex fast = StructuralIndex.of(text);
+			StructuralIndex slow = StructuralIndex.scalar(text);
+			assertEquals(slow.lineCount(), fast.lineCount(), text);
+			assertEquals(slow.openBraces(), fast.openBraces(), text);
+			assertEquals(slow.closeBraces(), fast.closeBraces(), text);
+			for (int line = 0; line < slow.lineCount(); line++) {
+				assertEquals(slow.lineIndex().lineStart(line), fast.lineIndex().lineStart(line), text);
+				assertEquals(slow.depthAtLineStart(line), fast.depthAtLineStart(line), text);
+			}
+		}
+	}
+
+	@Test
+	void mappedTextIsScannedInChunksWithPairsSplitAcrossThem() {
+		String alphabet = "{}\"'/*\\\n\r abc;";
+		Random random = new Random(11);
+		for (int round = 0; round < 20; round++) {
+			char[] chars = new char[2 * StructuralIndex.CHUNK + random.nextInt(500)];
+			for (int i = 0; i < chars.length; i++) {
+				chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+			}
+			// Put a two-char token right across the first chunk boundary
+			String pair = new String[] {"\r\n", "/*", "*/", "//", "\\\""}[round % 5];
+			chars[StructuralIndex.CHUNK - 1] = pair.charAt(0);
+			chars[StructuralIndex.CHUNK] = pair.charAt(1);
+			String text = new String(chars);
+			ByteBuffer mapped = ByteBuffer.allocateDirect(chars.length);
+			mapped.put(text.getBytes(StandardCharsets.US_ASCII)).flip();
+
+			StructuralIndex chunked = StructuralIndex.of(new AsciiByteSequence(mapped));
+			StructuralIndex slow = StructuralIndex.scalar(text);
+			assertEquals(slow.lineCount(), chunked.lineCount());
+			assertEquals(slow.openBraces(), chunked.openBraces());
+			assertEquals(slow.closeBraces(), chunked.closeBraces());
+			for (int line = 0; line < slow.lineCount(); line++) {
+				assertEquals(slow.lineIndex().lineStart(line), chunked.lineIndex().lineStart(line), "line " + line);
+				assertEquals(slow.depthAtLineStart(line), chunked.depthAtLineStart(line), "line " + line);
+			}
+		}
+	}
+
+	@Test
+	void testsRunWithTheVectorModule() {
+		// surefire adds jdk.incubator.vector, so the vector path above is the one under test
+		assertTrue(StructuralIndex.isVectorized());
+	}
+}
@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from "react";
+import React, { useState, useEffect, useRef, useMemo } from "react";
 import {
   analyzeCode,
   analyzeFile,
@@ -6,6 +6,8 @@ import {
   fetchRules,
   updateRules,
   exportReportUrl,
+  openLiveAnalysis,
+  fetchIssueOccurrences,
 } from "./api";
 import "./App.css";
 
@@ -18,12 +20,34 @@ function App() {
   const [error, setError] = useState("");
   const [rules, setRules] = useState(null);
   const [rulesSaving, setRulesSaving] = useState(false);
+  // Unsaved issues for the text as typed, pushed by the live analysis socket
+  const [liveAnalysis, setLiveAnalysis] = useState(null);
+  const live = useRef(null);
+  // Occurrences loaded for expanded aggregate issues, by issue id
+  const [expanded, setExpanded] = useState({});
 
   useEffect(() => {
     loadDashboard();
     loadRules();
   }, []);
 
+  useEffect(() => {
+    live.current = openLiveAnalysis({
+      code,
+      filename,
+      compilerTier: "syntax",
+      onAnalysis: setLiveAnalysis,
+      onError: (message) => console.warn("Live analysis:", message),
+    });
+    return () => live.current.close();
+    // The socket is opened once; later edits go through update() below
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, []);
+
+  useEffect(() => {
+    if (live.current) live.current.update(code, filename);
+  }, [code, filename]);
+
   const loadDashboard = async () => {
     try {
       const res = await fetchDashboardSummary();
@@ -52,6 +76,7 @@ function App() {
     try {
       const res = await analyzeCode(code, filename);
       setAnalysis(res.data);
+      setExpanded({});
       loadDashboard();
     } catch (e) {
       console.error(e);
@@ -69,6 +94,7 @@ function App() {
     try {
       const res = await analyzeFile(file);
       setAnalysis(res.data);
+      setExpanded({});
       setFilename(file.name);
       setCode(await file.text());
       loadDashboard();
@@ -80,17 +106,58 @@ function App() {
     }
   };
 
-  const getLineClass = (lineNumber) => {
-    if (!analysis) return "";
-    const issuesOnLine = analysis.issues.filter(
-      (issue) => issue.lineNumber === lineNumber
-    );
-    if (issuesOnLine.length === 0) return "";
-    const hasError = issuesOnLine.some((i) => i.category === "ERROR");
-    const hasSecurity = issuesOnLine.some((i) => i.category === "SECURITY");
-    if (hasError) return "line-error";
-    if (hasSecurity) return "line-security";
-    return "line-warning";
+  // Live results follow the editor; the saved analysis is shown until the first one arrives
+  const shown = liveAnalysis || analysis;
+
+  // Line -> highlight class, built once per result; aggregate issues cover every line in lineRanges
+  const lineClasses = useMemo(() => {
+    const rank = { "line-warning": 1, "line-security": 2, "line-error": 3 };
+    const classes = new Map();
+    if (!shown) return classes;
+    for (const issue of shown.issues) {
+      const cls =
+        issue.category === "ERROR"
+          ? "line-error"
+          : issue.category === "SECURITY"
+          ? "line-security"
+          : "line-warning";
+      const mark = (line) => {
+        const current = classes.get(line);
+        if (!current || rank[cls] > rank[current]) classes.set(line, cls);
+      };
+      if (!issue.lineRanges) {
+        mark(issue.lineNumber);
+        continue;
+      }
+      for (const range of issue.lineRanges.split(",")) {
+        if (range === "...") break;
+        const [from, to = from] = range.split("-").map(Number);
+        for (let line = from; line <= to; line++) mark(line);
+      }
+    }
+    return classes;
+  }, [shown]);
+
+  const getLineClass = (lineNumber) => lineClasses.get(lineNumber) || "";
+
+  const formatLines = (issue) =>
+    issue.occurrences
+      ? `Lines ${issue.lineRanges}, ${issue.occurrences} occurrences`
+      : `Line ${issue.lineNumber || "N/A"}`;
+
+  const handleToggleOccurrences = async (issue) => {
+    if (expanded[issue.id]) {
+      const { [issue.id]: _, ...rest } = expanded;
+      setExpanded(rest);
+      return;
+    }
+    try {
+      const res = await fetchIssueOccurrences(analysis.reviewId, issue.id);
+      setExpanded({ ...expanded, [issue.id]: res.data.issues });
+    } catch (e) {
+      console.error(e);
+      setError("Could not load the occurrences of this issue.");
+    }
   };
 
   const handleToggleRule = (name) => {
@@ -241,19 +308,33 @@ function App() {
 
           <div className="issues-panel">
             <h2>Issues</h2>
-            {!analysis && <p>No analysis yet. Run it to see issues.</p>}
-            {analysis && analysis.issues.length === 0 && (
+            {!shown && <p>No analysis yet. Run it to see issues.</p>}
+            {shown && shown.issues.length === 0 && (
               <p>No issues found. Great job!</p>
             )}
-            {analysis && analysis.issues.length > 0 && (
+            {shown && shown.issues.length > 0 && (
               <ul>
-                {analysis.issues.map((issue) => (
+                {shown.issues.map((issue) => (
                   <li key={issue.id || issue.lineNumber}>
                     <strong>
-                      [{issue.category}] (Line {issue.lineNumber || "N/A"}){" "}
+                      [{issue.category}] ({formatLines(issue)}){" "}
                       {issue.title}
                     </strong>
                     <p>{issue.description}</p>
+                    {issue.occurrences && !liveAnalysis && analysis && analysis.reviewId && (
+                      <button onClick={() => handleToggleOccurrences(issue)}>
+                        {expanded[issue.id] ? "Hide occurrences" : "Show occurrences"}
+                      </button>
+                    )}
+                    {expanded[issue.id] && !liveAnalysis && (
+                      <ul className="occurrences">
+                        {expanded[issue.id].map((o, k) => (
+                          <li key={k}>
+                            Line {o.lineNumber}: {o.description}
+                          </li>
+                        ))}
+                      </ul>
+                    )}
                     <p className="suggestion">
                       <b>Suggestion:</b> {issue.suggestion}
                     </p>
@@ -4,8 +4,9 @@ const api = axios.create({
   baseURL: "http://localhost:8080/api",
 });
 
-export const analyzeCode = (code, filename = "inline.java") =>
-  api.post("/analyze", { code, filename });
+// compilerTier: "syntax" for fast parse-only feedback, "full" (default) for attribution too
+export const analyzeCode = (code, filename = "inline.java", compilerTier = "full") =>
+  api.post("/analyze", { code, filename, compilerTier });
 
 export const analyzeFile = (file) => {
   const formData = new FormData();
@@ -23,5 +24,100 @@ export const fetchRules = () => api.get("/rules");
 
 export const updateRules = (updates) => api.put("/rules", updates);
 
+// Individual occurrences behind an aggregated issue ("Lines 3-7,9 ..., n occurrences")
+export const fetchIssueOccurrences = (reviewId, issueId, offset = 0, limit = 500) =>
+  api.get(`/reviews/${reviewId}/issues/${issueId}/occurrences`, { params: { offset, limit } });
+
 export const exportReportUrl = (reviewId, format = "html") =>
-  `${api.defaults.baseURL.replace(/\/$/, "")}/reviews/${reviewId}/export?format=${encodeURIComponent(format)}`;
\ No newline at end of file
+  `${api.defaults.baseURL.replace(/\/$/, "")}/reviews/${reviewId}/export?format=${encodeURIComponent(format)}`;
+const liveUrl = () => `${api.defaults.baseURL.replace(/^http/, "ws").replace(/\/$/, "")}/live`;
+
+// Smallest single replacement that turns `before` into `after`
+const diffText = (before, after) => {
+  let start = 0;
+  const max = Math.min(before.length, after.length);
+  while (start < max && before.charCodeAt(start) === after.charCodeAt(start)) start++;
+  let end = 0;
+  while (
+    end < max - start &&
+    before.charCodeAt(before.length - 1 - end) === after.charCodeAt(after.length - 1 - end)
+  ) end++;
+  return { offset: start, deleteCount: before.length - start - end, text: after.slice(start, after.length - end) };
+};
+
+// Live analysis over a WebSocket: call update(code) on every change; the server debounces,
+// cancels superseded analyses and pushes issue deltas, which are merged here so onAnalysis
+// always receives the full current result. Nothing is stored until save() is called.
+export const openLiveAnalysis = ({ code, filename = "inline.java", compilerTier, onAnalysis, onError }) => {
+  const socket = new WebSocket(liveUrl());
+  const issues = new Map();
+  const pendingSaves = [];
+  let text = code;
+  let version = 1;
+  let outbox = [];
+
+  const send = (message) => {
+    if (socket.readyState === WebSocket.OPEN) socket.send(JSON.stringify(message));
+    else if (socket.readyState === WebSocket.CONNECTING) outbox.push(message);
+  };
+
+  socket.onopen = () => {
+    socket.send(JSON.stringify({ type: "open", version, filename, compilerTier, code: text }));
+    outbox.forEach((message) => socket.send(JSON.stringify(message)));
+    outbox = [];
+  };
+
+  socket.onmessage = (event) => {
+    const message = JSON.parse(event.data);
+    if (message.type === "analysis") {
+      if (message.version !== version) return;
+      message.removed.forEach((id) => issues.delete(id));
+      Object.entries(message.moved).forEach(([id, lineNumber]) => {
+        const issue = issues.get(Number(id));
+        if (issue) issues.set(issue.id, { ...issue, lineNumber });
+      });
+      message.added.forEach((issue) => issues.set(issue.id, issue));
+      if (onAnalysis) {
+        onAnalysis({
+          filename,
+          errorCount: message.errorCount,
+          warningCount: message.warningCount,
+          optimizationCount: message.optimizationCount,
+          securityCount: message.securityCount,
+          issues: [...issues.values()].sort((a, b) => a.lineNumber - b.lineNumber),
+        });
+      }
+    } else if (message.type === "saved") {
+      const pending = pendingSaves.shift();
+      if (pending) pending.resolve(message.review);
+    } else if (message.type === "error") {
+      // A failed save rejects its promise; anything else goes to onError
+      if (message.version !== null && pendingSaves.length > 0 && message.version === pendingSaves[0].version) {
+        pendingSaves.shift().reject(new Error(message.message));
+      } else if (onError) {
+        onError(message.message);
+      }
+    }
+  };
+
+  return {
+    update(nextCode, nextFilename = filename) {
+      if (nextCode === text && nextFilename === filename) return;
+      const change = diffText(text, nextCode);
+      text = nextCode;
+      filename = nextFilename;
+      version += 1;
+      send({ type: "edit", version, filename, changes: [change] });
+    },
+    // Persists a full review of the current text; resolves with the saved AnalyzeResponse
+    save() {
+      return new Promise((resolve, reject) => {
+        pendingSaves.push({ version, resolve, reject });
+        send({ type: "save" });
+      });
+    },
+    close() {
+      socket.close();
+    },
+  };
+};